@@ -132,6 +132,11 @@ async def index_documents(documents: List[dict], batch_size: int = 100):
             new_documents.append(doc)
             new_ids.add(doc_id)
 
+    # A re-sent batch may hold only known ids; FAISS rejects an empty add, so succeed without touching the index
+    if not new_documents:
+        logger.info(f"All {total_docs} documents are already indexed, nothing to add.")
+        return {"message": "All documents are already indexed."}
+
     # Generate embeddings and Co-occurrence matrix
     all_embeddings = []
     all_co_occurrences = []
@@ -208,6 +213,13 @@ async def search(query: str, top_k: int = 5, use_svd: bool = False):
         
         return results if results else {"message": "No matching documents found."}
 
+@app.get("/embed/")
+async def embed(text: str):
+    """
+    Embed a query with the same model used for the documents, for clients that search their own index.
+    """
+    return {"embedding": model.encode(text).tolist()}
+
 @app.post("/cluster/")
 async def cluster_documents(n_clusters: int, background_tasks: BackgroundTasks):
     background_tasks.add_task(run_clustering, n_clusters)
@@ -8,6 +8,8 @@ from sentence_transformers import SentenceTransformer
 import numpy as np
 from sklearn.metrics.pairwise import cosine_similarity
 
+from dataset_reader import read_papers
+
 # Setup logging
 logging.basicConfig(level=logging.INFO, format='%(asctime)s - %(levelname)s - %(message)s')
 logger = logging.getLogger(__name__)
@@ -75,8 +77,7 @@ def load_data(file_path):
     Load and filter the dataset based on the required fields.
     """
     logger.info(f"Loading data from {file_path}...")
-    with open(file_path, 'r') as f:
-        data = json.load(f)
+    data = list(read_papers(file_path))
     
     # Extract summaries and ids
     texts = [item['summary'] for item in data if 'summary' in item]
@@ -0,0 +1,21 @@
+# Reads the paper datasets written by the harvester (JSON Lines) and older JSON array datasets
+
+import json
+
+
+def read_papers(path):
+    """
+    Yields papers from a JSON array or a JSON Lines dataset.
+    """
+    with open(path, "r", encoding="utf-8") as f:
+        first = f.read(1)
+        while first and first.isspace():
+            first = f.read(1)
+        f.seek(0)
+        if first == "[":
+            for paper in json.load(f):
+                yield paper
+        else:
+            for line in f:
+                if line.strip():
+                    yield json.loads(line)
@@ -0,0 +1,39 @@
+# Writes document embeddings for the in-process HNSW index (semantic.backend=hnsw)
+# python export_embeddings.py ../dataset/cs_research_papers.json ../dataset/embeddings.jsonl
+
+import json
+import sys
+
+from sentence_transformers import SentenceTransformer
+
+from dataset_reader import read_papers
+
+BATCH_SIZE = 256
+
+
+def write_batch(model, batch, out):
+    # Same text as the FAISS service indexes
+    embeddings = model.encode([paper.get("summary") or "" for paper in batch], batch_size=BATCH_SIZE)
+    for paper, embedding in zip(batch, embeddings):
+        out.write(json.dumps({"id": paper["id"], "embedding": embedding.tolist()}) + "\n")
+
+
+def main(dataset_path, output_path):
+    model = SentenceTransformer('paraphrase-MiniLM-L6-v2')
+    count = 0
+    with open(output_path, "w", encoding="utf-8") as out:
+        batch = []
+        for paper in read_papers(dataset_path):
+            batch.append(paper)
+            if len(batch) == BATCH_SIZE:
+                write_batch(model, batch, out)
+                count += len(batch)
+                batch = []
+        if batch:
+            write_batch(model, batch, out)
+            count += len(batch)
+    print(f"Wrote {count} embeddings to {output_path}")
+
+
+if __name__ == "__main__":
+    main(sys.argv[1], sys.argv[2])
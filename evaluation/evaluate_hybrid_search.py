@@ -0,0 +1,98 @@
+# python -m venv env
+# source env/bin/activate  # For Linux/Mac
+# .\env\Scripts\activate   # For Windows
+# pip install requests matplotlib numpy
+# python evaluate_hybrid_search.py
+#
+# Needs the Spring Boot application on localhost:8080 with the papers indexed, and the semantic
+# service running for the semantic and hybrid modes.
+
+
+import os
+import re
+import sys
+import random
+import time
+import numpy as np
+import requests
+import matplotlib.pyplot as plt
+import logging
+
+sys.path.insert(0, os.path.join(os.path.dirname(os.path.abspath(__file__)), "..", "NLP"))
+from dataset_reader import read_papers
+
+# Configure logging for detailed information
+logging.basicConfig(level=logging.INFO, format='%(asctime)s - %(levelname)s - %(message)s')
+logger = logging.getLogger(__name__)
+
+search_url = "http://localhost:8080/api/search"
+dataset_path = "../dataset/cs_research_papers.json"
+num_queries = 200
+k = 10
+
+# Characters with a meaning in Lucene's classic query syntax
+QUERY_SYNTAX = re.compile(r'[+\-&|!(){}\[\]^"~*?:\\/]')
+
+
+def title_query(title):
+    # Titles are plain text: drop the syntax characters, and lowercase so AND/OR/NOT are not read as operators
+    return " ".join(QUERY_SYNTAX.sub(" ", title).lower().split())
+
+
+# Known-item search: each sampled paper's title is the query and the paper itself is the relevant result
+data = list(read_papers(dataset_path))
+random.seed(42)
+sample = random.sample([item for item in data if item.get('title') and item.get('id')], num_queries)
+
+modes = {
+    "Lucene (BM25)": {},
+    "Semantic": {"semanticSearch": "true"},
+    "Hybrid (RRF)": {"hybridSearch": "true"},
+}
+
+results = {}
+for name, flags in modes.items():
+    logger.info(f"Evaluating {name}...")
+    reciprocal_ranks = []
+    hits = 0
+    latencies = []
+    for item in sample:
+        params = {"query": title_query(item['title']), "page": 0, "size": k, **flags}
+        start_time = time.time()
+        response = requests.get(search_url, params=params)
+        latencies.append((time.time() - start_time) * 1000)
+        ids = [paper['id'] for paper in response.json()] if response.ok else []
+        if item['id'] in ids:
+            hits += 1
+            reciprocal_ranks.append(1.0 / (ids.index(item['id']) + 1))
+        else:
+            reciprocal_ranks.append(0.0)
+    results[name] = {
+        "mrr": float(np.mean(reciprocal_ranks)),
+        "recall": hits / len(sample),
+        "p50": float(np.percentile(latencies, 50)),
+        "p95": float(np.percentile(latencies, 95)),
+    }
+    logger.info(f"{name}: MRR@{k} {results[name]['mrr']:.3f}, Recall@{k} {results[name]['recall']:.3f}, "
+                f"latency p50 {results[name]['p50']:.1f} ms, p95 {results[name]['p95']:.1f} ms")
+
+# Plot quality and latency side by side
+names = list(results.keys())
+fig, (quality_axis, latency_axis) = plt.subplots(1, 2, figsize=(12, 5))
+x = np.arange(len(names))
+quality_axis.bar(x - 0.2, [results[n]["mrr"] for n in names], 0.4, label=f"MRR@{k}")
+quality_axis.bar(x + 0.2, [results[n]["recall"] for n in names], 0.4, label=f"Recall@{k}")
+quality_axis.set_xticks(x)
+quality_axis.set_xticklabels(names)
+quality_axis.set_title("Retrieval Quality")
+quality_axis.legend()
+latency_axis.bar(x - 0.2, [results[n]["p50"] for n in names], 0.4, label="p50")
+latency_axis.bar(x + 0.2, [results[n]["p95"] for n in names], 0.4, label="p95")
+latency_axis.set_xticks(x)
+latency_axis.set_xticklabels(names)
+latency_axis.set_ylabel("Latency (ms)")
+latency_axis.set_title("Search Latency")
+latency_axis.legend()
+plt.tight_layout()
+plt.savefig("Hybrid Search Evaluation.png")
+plt.show()
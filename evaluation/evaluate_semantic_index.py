@@ -5,8 +5,9 @@
 # python evaluate_semantic_index.py
 
 
+import os
+import sys
 import time
-import json
 import numpy as np
 import faiss
 from annoy import AnnoyIndex
@@ -14,6 +15,9 @@ from sentence_transformers import SentenceTransformer
 import matplotlib.pyplot as plt
 import logging
 
+sys.path.insert(0, os.path.join(os.path.dirname(os.path.abspath(__file__)), "..", "NLP"))
+from dataset_reader import read_papers
+
 # Configure logging for detailed information
 logging.basicConfig(level=logging.INFO, format='%(asctime)s - %(levelname)s - %(message)s')
 logger = logging.getLogger(__name__)
@@ -24,8 +28,7 @@ embedding_dim = model.get_sentence_embedding_dimension()
 
 # Load dataset and extract only required fields (id and summary)
 dataset_path = "../dataset/cs_research_papers.json"
-with open(dataset_path, 'r') as file:
-    data = json.load(file)
+data = list(read_papers(dataset_path))
 texts = [item['summary'] for item in data if 'summary' in item]
 ids = [item['id'] for item in data if 'id' in item]
 
@@ -0,0 +1,149 @@
+package com.irs.researchengine.benchmark;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.core.LowerCaseFilter;
+import org.apache.lucene.analysis.core.StopFilter;
+import org.apache.lucene.analysis.en.EnglishAnalyzer;
+import org.apache.lucene.analysis.ngram.NGramTokenFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.irs.researchengine.nlp.CustomAnalyzer;
+import com.irs.researchengine.nlp.NlpModels;
+
+import opennlp.tools.lemmatizer.DictionaryLemmatizer;
+import opennlp.tools.postag.POSTaggerME;
+
+/**
+ * Analyzer throughput on abstract-sized text: CustomAnalyzer with batched tagging and the lemma cache, against
+ * the same chain lemmatizing one token per tagger call. The "tokens" counter reports tokens/sec.
+ * Needs the OpenNLP models under src/main/resources/models.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class AnalyzerBenchmark {
+
+    private static final String[] VOCABULARY = {
+        "we", "propose", "a", "novel", "method", "for", "learning", "graph", "representations", "that", "improves",
+        "retrieval", "of", "scientific", "papers", "the", "models", "are", "trained", "on", "large", "corpora", "and",
+        "evaluated", "across", "several", "benchmarks", "showing", "consistent", "gains", "over", "strong", "baselines"
+    };
+
+    private String[] abstracts;
+    private Analyzer batched;
+    private Analyzer perToken;
+    private int next;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class TokenCounter {
+        public long tokens;
+
+        @Setup(Level.Iteration)
+        public void clear() {
+            tokens = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        abstracts = new String[256];
+        for (int i = 0; i < abstracts.length; i++) {
+            StringBuilder text = new StringBuilder();
+            for (int w = 0; w < 150; w++) {
+                text.append(VOCABULARY[random.nextInt(VOCABULARY.length)]).append(w % 20 == 19 ? ". " : " ");
+            }
+            abstracts[i] = text.toString();
+        }
+        batched = new CustomAnalyzer();
+        perToken = new PerTokenAnalyzer();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        batched.close();
+        perToken.close();
+    }
+
+    @Benchmark
+    public void batchedTagging(TokenCounter counter) throws IOException {
+        counter.tokens += analyze(batched);
+    }
+
+    @Benchmark
+    public void perTokenTagging(TokenCounter counter) throws IOException {
+        counter.tokens += analyze(perToken);
+    }
+
+    private int analyze(Analyzer analyzer) throws IOException {
+        int count = 0;
+        // The summary chain: lemmas feed the n-gram filter, as in the index
+        try (TokenStream stream = analyzer.tokenStream("summary", abstracts[next++ & 255])) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                count += term.length() > 0 ? 1 : 0;
+            }
+            stream.end();
+        }
+        return count;
+    }
+
+    // The chain CustomAnalyzer builds for non-title fields, with the previous one-token-per-call lemmatizer
+    private static class PerTokenAnalyzer extends Analyzer {
+        @Override
+        protected TokenStreamComponents createComponents(String fieldName) {
+            NlpModels models = NlpModels.getInstance();
+            StandardTokenizer tokenizer = new StandardTokenizer();
+            TokenStream tokenStream = new LowerCaseFilter(tokenizer);
+            tokenStream = new StopFilter(tokenStream, EnglishAnalyzer.ENGLISH_STOP_WORDS_SET);
+            tokenStream = new PerTokenLemmatizer(tokenStream, models.newPosTagger(), models.getLemmatizer());
+            tokenStream = new NGramTokenFilter(tokenStream, 2, 3, true);
+            return new TokenStreamComponents(tokenizer, tokenStream);
+        }
+    }
+
+    private static class PerTokenLemmatizer extends TokenFilter {
+        private final POSTaggerME posTagger;
+        private final DictionaryLemmatizer lemmatizer;
+        private final CharTermAttribute charTermAttribute = addAttribute(CharTermAttribute.class);
+
+        PerTokenLemmatizer(TokenStream input, POSTaggerME posTagger, DictionaryLemmatizer lemmatizer) {
+            super(input);
+            this.posTagger = posTagger;
+            this.lemmatizer = lemmatizer;
+        }
+
+        @Override
+        public boolean incrementToken() throws IOException {
+            if (!input.incrementToken()) {
+                return false;
+            }
+            String token = charTermAttribute.toString();
+            String posTag = posTagger.tag(new String[]{token})[0];
+            String lemma = lemmatizer.lemmatize(new String[]{token}, new String[]{posTag})[0];
+            if (lemma != null && !lemma.equals("O")) {
+                charTermAttribute.setEmpty().append(lemma);
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.irs.researchengine.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import com.irs.researchengine.utils.ArxivAtomParser;
+
+/**
+ * Parse throughput of a canned arXiv Atom page: the previous Scanner + DOM path against the StAX parser.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ArxivParserBenchmark {
+
+    @Param({"1000"})
+    private int entries;
+
+    private byte[] feed;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        StringBuilder xml = new StringBuilder();
+        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+           .append("<feed xmlns=\"http://www.w3.org/2005/Atom\" xmlns:arxiv=\"http://arxiv.org/schemas/atom\">\n")
+           .append("<title>ArXiv Query</title><id>http://arxiv.org/api/query</id>\n");
+        for (int i = 0; i < entries; i++) {
+            xml.append("<entry>\n")
+               .append("<id>http://arxiv.org/abs/2101.").append(String.format("%05d", i)).append("v1</id>\n")
+               .append("<updated>2021-01-01T00:00:00Z</updated><published>2021-01-01T00:00:00Z</published>\n")
+               .append("<title>Benchmark paper ").append(i).append(" on streaming parsers</title>\n")
+               .append("<summary>");
+            for (int line = 0; line < 12; line++) {
+                xml.append("We study how streaming parsers keep memory flat while reading large feeds of abstracts.\n");
+            }
+            xml.append("</summary>\n")
+               .append("<author><name>Ada Lovelace</name></author><author><name>Alan Turing</name></author>\n")
+               .append("<arxiv:comment>12 pages</arxiv:comment>\n")
+               .append("<link href=\"http://arxiv.org/abs/2101.").append(i).append("\" rel=\"alternate\" type=\"text/html\"/>\n")
+               .append("<link title=\"pdf\" href=\"http://arxiv.org/pdf/2101.").append(i).append("\" rel=\"related\" type=\"application/pdf\"/>\n")
+               .append("</entry>\n");
+        }
+        xml.append("</feed>\n");
+        feed = xml.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public void stax(Blackhole blackhole) throws Exception {
+        ArxivAtomParser.parse(new ByteArrayInputStream(feed), "cs.IR", blackhole::consume);
+    }
+
+    @Benchmark
+    public List<String[]> dom() throws Exception {
+        // Mirrors the removed implementation: read the page into a String, then DOM-parse it
+        StringBuilder response = new StringBuilder();
+        try (Scanner scanner = new Scanner(new ByteArrayInputStream(feed))) {
+            while (scanner.hasNext()) {
+                response.append(scanner.nextLine());
+            }
+        }
+        DocumentBuilder builder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+        org.w3c.dom.Document doc = builder.parse(new ByteArrayInputStream(response.toString().getBytes()));
+
+        List<String[]> papers = new ArrayList<>();
+        NodeList nodes = doc.getElementsByTagName("entry");
+        for (int i = 0; i < nodes.getLength(); i++) {
+            Element entry = (Element) nodes.item(i);
+            papers.add(new String[] {
+                text(entry, "id"), text(entry, "title"), text(entry, "summary"),
+                text(entry, "updated"), text(entry, "published"), text(entry, "arxiv:comment")
+            });
+        }
+        return papers;
+    }
+
+    private static String text(Element entry, String tagName) {
+        NodeList nodes = entry.getElementsByTagName(tagName);
+        return nodes.getLength() > 0 ? nodes.item(0).getTextContent() : "";
+    }
+}
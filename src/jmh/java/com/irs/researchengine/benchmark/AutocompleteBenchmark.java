@@ -0,0 +1,129 @@
+package com.irs.researchengine.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.core.LowerCaseFilter;
+import org.apache.lucene.analysis.ngram.EdgeNGramTokenFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.irs.researchengine.utils.PrefixSuggester;
+
+/**
+ * Per-keystroke latency of the previous PrefixQuery autocomplete (edge n-grams on title, stored fields loaded
+ * for every hit) against the precomputed in-memory suggester.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AutocompleteBenchmark {
+
+    private static final String[] VOCABULARY = {
+        "neural", "network", "graph", "learning", "retrieval", "index", "semantic", "language",
+        "model", "query", "ranking", "vision", "robot", "security", "distributed", "quantum"
+    };
+    private static final String[] PREFIXES = {"ne", "gra", "learn", "sem", "qu", "rob", "dist", "vis"};
+
+    @Param({"100000"})
+    private int numDocs;
+
+    private Directory directory;
+    private DirectoryReader reader;
+    private IndexSearcher searcher;
+    private PrefixSuggester suggester;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        directory = new ByteBuffersDirectory();
+        PrefixSuggester.Builder builder = PrefixSuggester.builder(10);
+        try (IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig(new EdgeNGramAnalyzer()))) {
+            for (int i = 0; i < numDocs; i++) {
+                String title = randomTitle(random) + " " + i;
+                Document doc = new Document();
+                doc.add(new TextField("title", title, Field.Store.YES));
+                writer.addDocument(doc);
+                builder.add(title, 1 + random.nextInt(500));
+            }
+        }
+        reader = DirectoryReader.open(directory);
+        searcher = new IndexSearcher(reader);
+        suggester = builder.build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        reader.close();
+        directory.close();
+    }
+
+    @Benchmark
+    public List<String> prefixQuery() throws IOException {
+        String prefix = PREFIXES[next++ & 7];
+        List<String> suggestions = new ArrayList<>();
+        TopDocs results = searcher.search(new PrefixQuery(new Term("title", prefix)), 10);
+        for (ScoreDoc scoreDoc : results.scoreDocs) {
+            String title = searcher.doc(scoreDoc.doc).get("title");
+            if (!suggestions.contains(title)) {
+                suggestions.add(title);
+            }
+        }
+        return suggestions;
+    }
+
+    @Benchmark
+    public List<String> suggester() {
+        return suggester.suggest(PREFIXES[next++ & 7]);
+    }
+
+    private static String randomTitle(Random random) {
+        StringBuilder title = new StringBuilder();
+        for (int i = 0; i < 6; i++) {
+            if (i > 0) {
+                title.append(' ');
+            }
+            title.append(VOCABULARY[random.nextInt(VOCABULARY.length)]);
+        }
+        return title.toString();
+    }
+
+    // Same title chain as CustomAnalyzer minus stop words and lemmatization
+    private static class EdgeNGramAnalyzer extends Analyzer {
+        @Override
+        protected TokenStreamComponents createComponents(String fieldName) {
+            StandardTokenizer tokenizer = new StandardTokenizer();
+            TokenStream tokenStream = new LowerCaseFilter(tokenizer);
+            tokenStream = new EdgeNGramTokenFilter(tokenStream, 2, 5, true);
+            return new TokenStreamComponents(tokenizer, tokenStream);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.irs.researchengine.benchmark;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexOrDocValuesQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Top-10 latency of newest-first searches on an index with and without the publication time index sort, and of
+ * a one-year range filter as BKD points alone, DocValues alone and the two combined, over 30 years of synthetic
+ * papers. The query matches about 25% of papers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DateRangeBenchmark {
+
+    private static final String FIELD = "publishedTime";
+    private static final long START = 788918400000L; // 1995-01-01
+    private static final long YEAR = 365L * 24 * 3600 * 1000;
+    private static final Sort NEWEST_FIRST = new Sort(new SortField(FIELD, SortField.Type.LONG, true));
+
+    @Param({"600000"})
+    private int numDocs;
+
+    @Param({"false", "true"})
+    private boolean indexSorted;
+
+    private Directory directory;
+    private DirectoryReader reader;
+    private IndexSearcher searcher;
+    private Query query;
+    private long rangeFrom;
+    private long rangeTo;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        directory = new ByteBuffersDirectory();
+        IndexWriterConfig config = new IndexWriterConfig(new StandardAnalyzer());
+        if (indexSorted) {
+            config.setIndexSort(NEWEST_FIRST);
+        }
+        try (IndexWriter writer = new IndexWriter(directory, config)) {
+            for (int i = 0; i < numDocs; i++) {
+                Document doc = new Document();
+                doc.add(new TextField("title", (random.nextInt(4) == 0 ? "common " : "") + "paper " + i, Field.Store.NO));
+                // Skewed towards recent years, like arXiv submissions; harvest order is not publication order
+                long published = START + (long) (30 * YEAR * Math.sqrt(random.nextDouble()));
+                doc.add(new LongPoint(FIELD, published));
+                doc.add(new NumericDocValuesField(FIELD, published));
+                writer.addDocument(doc);
+            }
+        }
+        reader = DirectoryReader.open(directory);
+        searcher = new IndexSearcher(reader);
+        query = new TermQuery(new Term("title", "common"));
+        rangeFrom = START + 20 * YEAR;
+        rangeTo = rangeFrom + YEAR - 1;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        reader.close();
+        directory.close();
+    }
+
+    @Benchmark
+    public TopDocs newestFirst() throws IOException {
+        return searcher.search(query, 10, NEWEST_FIRST);
+    }
+
+    @Benchmark
+    public TopDocs rangeWithPoints() throws IOException {
+        return searcher.search(filtered(LongPoint.newRangeQuery(FIELD, rangeFrom, rangeTo)), 10);
+    }
+
+    @Benchmark
+    public TopDocs rangeWithDocValues() throws IOException {
+        return searcher.search(filtered(NumericDocValuesField.newSlowRangeQuery(FIELD, rangeFrom, rangeTo)), 10);
+    }
+
+    @Benchmark
+    public TopDocs rangeWithPointsOrDocValues() throws IOException {
+        return searcher.search(filtered(new IndexOrDocValuesQuery(LongPoint.newRangeQuery(FIELD, rangeFrom, rangeTo),
+                NumericDocValuesField.newSlowRangeQuery(FIELD, rangeFrom, rangeTo))), 10);
+    }
+
+    private Query filtered(Query range) {
+        return new BooleanQuery.Builder()
+                .add(query, BooleanClause.Occur.MUST)
+                .add(range, BooleanClause.Occur.FILTER)
+                .build();
+    }
+}
@@ -0,0 +1,105 @@
+package com.irs.researchengine.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.irs.researchengine.vector.EmbeddingScorer;
+import com.irs.researchengine.vector.EmbeddingStore;
+
+/**
+ * Full-corpus top-10 scans and 100-candidate re-ranking over the memory-mapped embedding store, int8 against
+ * float32, with the scalar four-accumulator dot product. The store size is printed during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class EmbeddingStoreBenchmark {
+
+    private static final int DIMENSION = 384;
+
+    @Param({"100000"})
+    private int numDocs;
+
+    @Param({"INT8", "FLOAT32"})
+    private EmbeddingStore.Encoding encoding;
+
+    private Path directory;
+    private EmbeddingScorer scorer;
+    private float[][] queries;
+    private List<String> candidates;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        ObjectMapper objectMapper = new ObjectMapper();
+        directory = Files.createTempDirectory("embedding-store-bench");
+        Path embeddings = directory.resolve("embeddings.jsonl");
+        try (BufferedWriter writer = Files.newBufferedWriter(embeddings)) {
+            for (int i = 0; i < numDocs; i++) {
+                writer.write(objectMapper.writeValueAsString(Map.of("id", "doc" + i, "embedding", gaussian(random))));
+                writer.newLine();
+            }
+        }
+        Path store = directory.resolve("embeddings.bin");
+        EmbeddingStore.write(embeddings.toFile(), objectMapper, store, encoding);
+        System.out.printf("%n%s store: %d MB%n", encoding, Files.size(store) >> 20);
+        scorer = new EmbeddingScorer(EmbeddingStore.open(store));
+
+        queries = new float[256][];
+        for (int q = 0; q < queries.length; q++) {
+            queries[q] = gaussian(random);
+        }
+        candidates = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            candidates.add("doc" + random.nextInt(numDocs));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public Object fullScan() {
+        return scorer.topK(queries[next++ & 255], 10);
+    }
+
+    @Benchmark
+    public Object candidateRerank() {
+        return scorer.score(queries[next++ & 255], candidates);
+    }
+
+    private static float[] gaussian(Random random) {
+        float[] vector = new float[DIMENSION];
+        for (int d = 0; d < DIMENSION; d++) {
+            vector[d] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,118 @@
+package com.irs.researchengine.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.SortedSetDocValuesField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MultiCollector;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TopScoreDocCollector;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.BytesRef;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.irs.researchengine.data.FacetValue;
+import com.irs.researchengine.utils.FacetCountsCollector;
+
+/**
+ * Latency of a top-10 search alone versus with category, author and year facet counts from the same pass, on a
+ * synthetic corpus the size of arXiv's computer science listing. The queries match about 25% and 2% of papers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class FacetBenchmark {
+
+    private static final String[] CATEGORIES = {
+        "cs.AI", "cs.CL", "cs.CV", "cs.LG", "cs.IR", "cs.DB", "cs.DC", "cs.DS", "cs.CR", "cs.RO",
+        "cs.SE", "cs.PL", "cs.NI", "cs.HC", "cs.GT", "cs.IT", "cs.LO", "cs.MA", "cs.NE", "cs.SY"
+    };
+
+    @Param({"100000", "600000"})
+    private int numDocs;
+
+    @Param({"common", "rare"})
+    private String term;
+
+    private Directory directory;
+    private DirectoryReader reader;
+    private IndexSearcher searcher;
+    private Query query;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        int authorPool = numDocs / 3;
+        directory = new ByteBuffersDirectory();
+        try (IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig(new StandardAnalyzer()))) {
+            for (int i = 0; i < numDocs; i++) {
+                Document doc = new Document();
+                StringBuilder title = new StringBuilder();
+                if (random.nextInt(4) == 0) {
+                    title.append("common ");
+                }
+                if (random.nextInt(50) == 0) {
+                    title.append("rare ");
+                }
+                title.append("paper ").append(i);
+                doc.add(new TextField("title", title.toString(), Field.Store.NO));
+                // Skewed towards the first categories, as cs.LG and cs.CV dominate arXiv
+                String category = CATEGORIES[(int) (CATEGORIES.length * Math.pow(random.nextDouble(), 2))];
+                doc.add(new SortedSetDocValuesField("categoryFacet", new BytesRef(category)));
+                for (int a = 1 + random.nextInt(5); a > 0; a--) {
+                    doc.add(new SortedSetDocValuesField("authorFacet", new BytesRef("Author " + random.nextInt(authorPool))));
+                }
+                doc.add(new NumericDocValuesField("publishedYear", 1995 + (int) (30 * Math.sqrt(random.nextDouble()))));
+                writer.addDocument(doc);
+            }
+        }
+        reader = DirectoryReader.open(directory);
+        searcher = new IndexSearcher(reader);
+        query = new TermQuery(new Term("title", term));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        reader.close();
+        directory.close();
+    }
+
+    @Benchmark
+    public TopDocs topHitsOnly() throws IOException {
+        return searcher.search(query, 10);
+    }
+
+    @Benchmark
+    public Map<String, List<FacetValue>> topHitsWithFacets() throws IOException {
+        TopScoreDocCollector topHits = TopScoreDocCollector.create(10, Integer.MAX_VALUE);
+        FacetCountsCollector facets = new FacetCountsCollector(new String[]{"categoryFacet", "authorFacet"}, new String[]{"publishedYear"});
+        searcher.search(query, MultiCollector.wrap(topHits, facets));
+        topHits.topDocs();
+        return facets.topValues(10);
+    }
+}
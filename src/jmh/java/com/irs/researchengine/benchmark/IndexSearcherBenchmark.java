@@ -0,0 +1,127 @@
+package com.irs.researchengine.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Per-query latency of opening the index on every request (the old search path)
+ * versus acquiring a searcher from a shared SearcherManager.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class IndexSearcherBenchmark {
+
+    private static final String[] VOCABULARY = {
+        "neural", "network", "graph", "learning", "retrieval", "index", "semantic", "language",
+        "model", "query", "ranking", "vision", "robot", "security", "distributed", "quantum"
+    };
+
+    @Param({"10000", "100000"})
+    private int numDocs;
+
+    private Path indexPath;
+    private SearcherManager searcherManager;
+    private Directory sharedDirectory;
+    private Query query;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        indexPath = Files.createTempDirectory("searcher-bench");
+        Random random = new Random(42);
+        try (Directory dir = FSDirectory.open(indexPath);
+             IndexWriter writer = new IndexWriter(dir, new IndexWriterConfig(new StandardAnalyzer()))) {
+            for (int i = 0; i < numDocs; i++) {
+                Document doc = new Document();
+                doc.add(new StringField("id", "paper-" + i, Field.Store.YES));
+                doc.add(new TextField("title", randomText(random, 8), Field.Store.YES));
+                doc.add(new TextField("summary", randomText(random, 120), Field.Store.YES));
+                writer.addDocument(doc);
+            }
+        }
+        sharedDirectory = FSDirectory.open(indexPath);
+        searcherManager = new SearcherManager(sharedDirectory, null);
+        query = new BooleanQuery.Builder()
+                .add(new TermQuery(new Term("summary", "semantic")), BooleanClause.Occur.SHOULD)
+                .add(new TermQuery(new Term("title", "retrieval")), BooleanClause.Occur.SHOULD)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        searcherManager.close();
+        sharedDirectory.close();
+        try (Stream<Path> files = Files.walk(indexPath)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public TopDocs openPerQuery() throws IOException {
+        try (Directory dir = FSDirectory.open(indexPath);
+             DirectoryReader reader = DirectoryReader.open(dir)) {
+            IndexSearcher searcher = new IndexSearcher(reader);
+            TopDocs hits = searcher.search(query, 10);
+            for (int i = 0; i < hits.scoreDocs.length; i++) {
+                searcher.doc(hits.scoreDocs[i].doc);
+            }
+            return hits;
+        }
+    }
+
+    @Benchmark
+    public TopDocs sharedSearcher() throws IOException {
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            TopDocs hits = searcher.search(query, 10);
+            for (int i = 0; i < hits.scoreDocs.length; i++) {
+                searcher.doc(hits.scoreDocs[i].doc);
+            }
+            return hits;
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    private static String randomText(Random random, int words) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            text.append(VOCABULARY[random.nextInt(VOCABULARY.length)]).append(' ');
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,71 @@
+package com.irs.researchengine.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.irs.researchengine.graph.CsrGraph;
+import com.irs.researchengine.graph.PageRank;
+
+/**
+ * Time to a converged PageRank (default parameters) on a synthetic paper graph with 20 out-edges per paper and
+ * skewed in-degrees, single-threaded against one thread per core. The 1M paper graph has 20M edges.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PageRankBenchmark {
+
+    private static final int EDGES_PER_NODE = 20;
+
+    @Param({"100000", "1000000"})
+    private int numNodes;
+
+    private CsrGraph graph;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        CsrGraph.Builder builder = new CsrGraph.Builder(numNodes, numNodes * EDGES_PER_NODE);
+        for (int source = 0; source < numNodes; source++) {
+            if (source % 20 == 0) {
+                continue; // Dangling papers
+            }
+            for (int i = 0; i < EDGES_PER_NODE; i++) {
+                int target = (int) (numNodes * Math.pow(random.nextDouble(), 3));
+                builder.addEdge(source, target, 0.7f + 0.3f * random.nextFloat());
+            }
+        }
+        graph = builder.build();
+    }
+
+    @Benchmark
+    public double[] singleThread() {
+        return compute(1);
+    }
+
+    @Benchmark
+    public double[] allCores() {
+        return compute(Runtime.getRuntime().availableProcessors());
+    }
+
+    private double[] compute(int threads) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            return new PageRank(PageRank.DEFAULT_DAMPING, PageRank.DEFAULT_TOLERANCE, PageRank.DEFAULT_MAX_ITERATIONS, pool)
+                    .compute(graph).getRanks();
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.irs.researchengine.benchmark;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.irs.researchengine.utils.FeatureRescorer;
+
+/**
+ * Cost of re-ranking the top N first-pass hits with the feature rescorer, over an index of 200k papers in
+ * several segments. Hits are spread over the whole index, as for a broad query.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RescorerBenchmark {
+
+    private static final int NUM_DOCS = 200_000;
+    private static final long TEN_YEARS_MILLIS = TimeUnit.DAYS.toMillis(3650);
+
+    @Param({"100", "1000", "10000"})
+    private int depth;
+
+    private Directory directory;
+    private DirectoryReader reader;
+    private IndexSearcher searcher;
+    private FeatureRescorer rescorer;
+    private TopDocs firstPass;
+    private float[] firstPassScores;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        long now = System.currentTimeMillis();
+        directory = new ByteBuffersDirectory();
+        try (IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig(new StandardAnalyzer()))) {
+            for (int i = 0; i < NUM_DOCS; i++) {
+                Document doc = new Document();
+                doc.add(new NumericDocValuesField(FeatureRescorer.CITATIONS_FIELD, random.nextInt(50) == 0 ? random.nextInt(5000) : random.nextInt(20)));
+                doc.add(new NumericDocValuesField(FeatureRescorer.PUBLISHED_FIELD, now - (long) (random.nextDouble() * TEN_YEARS_MILLIS)));
+                doc.add(new NumericDocValuesField(FeatureRescorer.STATIC_RANK_FIELD, FeatureRescorer.encodeStaticRank((float) random.nextGaussian() + 1f)));
+                writer.addDocument(doc);
+                if (i % 40_000 == 39_999) {
+                    writer.commit(); // Several segments, as an incrementally built index has
+                }
+            }
+        }
+        reader = DirectoryReader.open(directory);
+        searcher = new IndexSearcher(reader);
+        rescorer = new FeatureRescorer(1f, 0.3f, 0.5f, 0.5f, 730);
+
+        // Distinct random docs in first-pass (score) order
+        ScoreDoc[] hits = new ScoreDoc[depth];
+        firstPassScores = new float[depth];
+        int stride = NUM_DOCS / depth;
+        for (int i = 0; i < depth; i++) {
+            firstPassScores[i] = 20f - i * (10f / depth);
+            hits[i] = new ScoreDoc(i * stride + random.nextInt(stride), firstPassScores[i]);
+        }
+        firstPass = new TopDocs(new TotalHits(NUM_DOCS, TotalHits.Relation.EQUAL_TO), hits);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        reader.close();
+        directory.close();
+    }
+
+    @Benchmark
+    public TopDocs rescore() throws IOException {
+        // The rescorer replaces the hits' scores; restoring them is a small part of the cost
+        ScoreDoc[] hits = firstPass.scoreDocs;
+        for (int i = 0; i < hits.length; i++) {
+            hits[i].score = firstPassScores[i];
+        }
+        return rescorer.rescore(searcher, firstPass, depth);
+    }
+}
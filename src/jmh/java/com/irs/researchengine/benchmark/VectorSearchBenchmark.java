@@ -0,0 +1,112 @@
+package com.irs.researchengine.benchmark;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.irs.researchengine.vector.ExactVectorIndex;
+import com.irs.researchengine.vector.HnswIndex;
+import com.irs.researchengine.vector.VectorHit;
+
+/**
+ * Queries per second of the in-process HNSW index against exact brute-force search, on clustered vectors with
+ * the dimension of the MiniLM embeddings. Recall@10 of each efSearch setting is printed during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class VectorSearchBenchmark {
+
+    private static final int DIMENSION = 384;
+    private static final int K = 10;
+
+    @Param({"50000"})
+    private int numDocs;
+
+    @Param({"50", "100"})
+    private int efSearch;
+
+    private HnswIndex hnsw;
+    private ExactVectorIndex exact;
+    private float[][] queries;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        float[][] centers = new float[200][];
+        for (int c = 0; c < centers.length; c++) {
+            centers[c] = gaussian(random, 1f);
+        }
+        float[][] vectors = new float[numDocs][];
+        for (int i = 0; i < numDocs; i++) {
+            vectors[i] = around(centers[random.nextInt(centers.length)], random);
+        }
+        queries = new float[256][];
+        for (int q = 0; q < queries.length; q++) {
+            queries[q] = around(centers[random.nextInt(centers.length)], random);
+        }
+
+        hnsw = new HnswIndex(DIMENSION, HnswIndex.DEFAULT_M, HnswIndex.DEFAULT_EF_CONSTRUCTION, efSearch, 42L);
+        exact = new ExactVectorIndex(DIMENSION);
+        long start = System.nanoTime();
+        IntStream.range(0, numDocs).parallel().forEach(i -> hnsw.add("doc" + i, vectors[i]));
+        long buildMs = (System.nanoTime() - start) / 1_000_000;
+        for (int i = 0; i < numDocs; i++) {
+            exact.add("doc" + i, vectors[i]);
+        }
+
+        int found = 0;
+        for (float[] query : queries) {
+            Set<String> truth = new HashSet<>();
+            for (VectorHit hit : exact.search(query, K)) {
+                truth.add(hit.getId());
+            }
+            for (VectorHit hit : hnsw.search(query, K)) {
+                if (truth.contains(hit.getId())) {
+                    found++;
+                }
+            }
+        }
+        System.out.printf("%nHNSW build %d ms, recall@%d %.3f at efSearch %d%n", buildMs, K,
+                (double) found / (queries.length * K), efSearch);
+    }
+
+    @Benchmark
+    public Object hnswSearch() {
+        return hnsw.search(queries[next++ & 255], K);
+    }
+
+    @Benchmark
+    public Object exactSearch() {
+        return exact.search(queries[next++ & 255], K);
+    }
+
+    private static float[] around(float[] center, Random random) {
+        float[] vector = gaussian(random, 0.8f);
+        for (int d = 0; d < DIMENSION; d++) {
+            vector[d] += center[d];
+        }
+        return vector;
+    }
+
+    private static float[] gaussian(Random random, float scale) {
+        float[] vector = new float[DIMENSION];
+        for (int d = 0; d < DIMENSION; d++) {
+            vector[d] = (float) random.nextGaussian() * scale;
+        }
+        return vector;
+    }
+}
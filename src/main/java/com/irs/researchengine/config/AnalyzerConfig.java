@@ -0,0 +1,18 @@
+package com.irs.researchengine.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.irs.researchengine.nlp.CustomAnalyzer;
+
+/**
+ * The analyzer shared by indexing and query parsing.
+ */
+@Configuration
+public class AnalyzerConfig {
+
+    @Bean(destroyMethod = "close")
+    public CustomAnalyzer customAnalyzer() {
+        return new CustomAnalyzer();
+    }
+}
@@ -0,0 +1,37 @@
+package com.irs.researchengine.config;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * One pooled HTTP client for the FAISS service, shared by every caller instead of a new RestTemplate per request.
+ */
+@Configuration
+public class FaissClientConfig {
+
+    @Value("${faiss.client.connect-timeout-ms:2000}")
+    private long connectTimeoutMs;
+
+    // Uploads wait for the service to embed a whole batch, so this is generous
+    @Value("${faiss.client.read-timeout-ms:300000}")
+    private long readTimeoutMs;
+
+    @Bean
+    public RestTemplate faissRestTemplate() {
+        // The JDK client keeps connections alive and reuses them across requests and threads
+        // uvicorn speaks HTTP/1.1 only, skip the h2c upgrade attempt
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+        return new RestTemplate(requestFactory);
+    }
+}
@@ -0,0 +1,39 @@
+package com.irs.researchengine.config;
+
+import org.apache.lucene.search.Rescorer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.irs.researchengine.utils.FeatureRescorer;
+
+/**
+ * The second-stage ranking model applied to the top search.rescore.depth Lucene hits. Selected with
+ * search.rescore.model: "linear" is the feature-weighted {@link FeatureRescorer}; without a Rescorer bean
+ * ("none", the default) hits keep the BM25 order.
+ */
+@Configuration
+public class RescorerConfig {
+
+    @Value("${search.rescore.weight.bm25:1.0}")
+    private float bm25Weight;
+
+    @Value("${search.rescore.weight.citations:0.3}")
+    private float citationWeight;
+
+    @Value("${search.rescore.weight.recency:0.5}")
+    private float recencyWeight;
+
+    @Value("${search.rescore.weight.static-rank:0.5}")
+    private float staticRankWeight;
+
+    @Value("${search.rescore.recency-half-life-days:730}")
+    private double recencyHalfLifeDays;
+
+    @Bean
+    @ConditionalOnProperty(name = "search.rescore.model", havingValue = "linear")
+    public Rescorer featureRescorer() {
+        return new FeatureRescorer(bm25Weight, citationWeight, recencyWeight, staticRankWeight, recencyHalfLifeDays);
+    }
+}
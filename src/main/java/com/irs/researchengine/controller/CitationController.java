@@ -0,0 +1,28 @@
+package com.irs.researchengine.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.irs.researchengine.service.CitationEnrichmentService;
+
+@RestController
+public class CitationController {
+
+    @Autowired
+    private CitationEnrichmentService citationEnrichmentService;
+
+    // Stores citation counts in the index; staleOnly limits the run to papers with outdated counts
+    @PostMapping("/api/enrich-citations")
+    public ResponseEntity<String> enrichCitations(@RequestParam(value = "staleOnly", defaultValue = "false") boolean staleOnly) {
+        try {
+            int updated = citationEnrichmentService.enrich(staleOnly);
+            return ResponseEntity.ok("Citation counts updated for " + updated + " papers.");
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(500).body("Error during citation enrichment: " + e.getMessage());
+        }
+    }
+}
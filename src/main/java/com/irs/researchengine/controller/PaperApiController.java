@@ -0,0 +1,43 @@
+package com.irs.researchengine.controller;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.irs.researchengine.data.Paper;
+import com.irs.researchengine.service.PaperLookupService;
+import com.irs.researchengine.utils.PaperFieldVisitor;
+
+@RestController
+public class PaperApiController {
+
+    private static final int MAX_IDS = 1000;
+
+    @Autowired
+    private PaperLookupService paperLookupService;
+
+    // Papers by id in the order given, e.g. /api/papers?ids=2401.00001,2401.00002&fields=title,authors
+    @GetMapping("/api/papers")
+    public ResponseEntity<List<Paper>> getPapers(
+            @RequestParam(name = "ids") List<String> ids,
+            @RequestParam(name = "fields", required = false) Set<String> fields) throws Exception {
+
+        if (ids.isEmpty() || ids.size() > MAX_IDS) {
+            return ResponseEntity.badRequest().body(Collections.emptyList());
+        }
+        Set<String> projection = PaperFieldVisitor.ALL_FIELDS;
+        if (fields != null && !fields.isEmpty()) {
+            // Unknown field names are ignored
+            projection = new HashSet<>(fields);
+            projection.retainAll(PaperFieldVisitor.ALL_FIELDS);
+        }
+        return ResponseEntity.ok(paperLookupService.getPapers(ids, projection));
+    }
+}
@@ -1,22 +1,9 @@
 package com.irs.researchengine.controller;
 
 import java.io.IOException;
-import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
 
-import org.apache.lucene.document.Document;
-import org.apache.lucene.index.DirectoryReader;
-import org.apache.lucene.index.Term;
-import org.apache.lucene.search.IndexSearcher;
-import org.apache.lucene.search.TopDocs;
-import org.apache.lucene.search.Query;
-import org.apache.lucene.search.TermQuery;
-import org.apache.lucene.store.Directory;
-import org.apache.lucene.store.FSDirectory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.ui.Model;
@@ -28,6 +15,8 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.irs.researchengine.data.Paper;
 import com.irs.researchengine.service.ClusterService;
+import com.irs.researchengine.service.EmbeddingStoreService;
+import com.irs.researchengine.service.PaperLookupService;
 
 @RestController
 @RequestMapping("/api")
@@ -36,21 +25,42 @@ public class RelatedPapersController {
     @Autowired
     private ClusterService clusterService;
     
-    @Value("${index.path}")
-    private String INDEX_PATH;
+    @Autowired
+    private PaperLookupService paperLookupService;
+    
+    @Autowired
+    private EmbeddingStoreService embeddingStoreService;
+    
+    // "embeddings" takes exact nearest neighbours from the embedding store, falling back to the clusters
+    @Value("${related.source:cluster}")
+    private String relatedSource;
     
     @GetMapping("/related-papers/{docId}")
     public String viewRelatedPapers(@PathVariable String docId,
                                     @RequestParam(required = false) String query,
                                     @RequestParam(required = false) Integer page,
                                     @RequestParam(required = false) Integer size,
+                                    @RequestParam(defaultValue = "20") int limit,
                                     Model model) {
-        Paper mainPaper = getPaperById(docId);
-        List<Paper> relatedPapers = clusterService.getRelatedDocs(docId)
-                                                  .stream()
-                                                  .map(this::getPaperById)
-                                                  .filter(Objects::nonNull)
-                                                  .collect(Collectors.toList());
+        Paper mainPaper = null;
+        List<Paper> relatedPapers = new ArrayList<>();
+        try {
+            // The main paper and all of its related papers are resolved in one batch lookup
+            List<String> ids = new ArrayList<>();
+            ids.add(docId);
+            List<String> neighbours = "embeddings".equals(relatedSource)
+                    ? embeddingStoreService.getNeighbours(docId, limit) : null;
+            ids.addAll(neighbours != null ? neighbours : clusterService.getRelatedDocs(docId, limit));
+            List<Paper> papers = paperLookupService.getPapers(ids);
+            if (!papers.isEmpty() && docId.equals(papers.get(0).getId())) {
+                mainPaper = papers.get(0);
+                relatedPapers = papers.subList(1, papers.size());
+            } else {
+                relatedPapers = papers;
+            }
+        } catch (IOException e) {
+            e.printStackTrace();  // Log or handle exceptions as per your application's error handling policy
+        }
         model.addAttribute("mainPaper", mainPaper);
         model.addAttribute("relatedPapers", relatedPapers);
         model.addAttribute("lastQuery", query);
@@ -58,46 +68,4 @@ public class RelatedPapersController {
         model.addAttribute("pageSize", size);
         return "related-papers";
     }
-
-    private Paper getPaperById(String docId) {
-        try (Directory dir = FSDirectory.open(Paths.get(INDEX_PATH));
-             DirectoryReader reader = DirectoryReader.open(dir)) {
-            IndexSearcher luceneSearcher = new IndexSearcher(reader);
-
-            // Create a Lucene TermQuery to search by document ID
-            Query query = new TermQuery(new Term("id", docId));
-            TopDocs hits = luceneSearcher.search(query, 1);
-
-            // If a document is found, map it to a Paper object
-            if (hits.totalHits.value > 0) {
-                Document doc = luceneSearcher.doc(hits.scoreDocs[0].doc);
-                return mapDocumentToPaper(doc);
-            }
-        } catch (IOException e) {
-            e.printStackTrace();  // Log or handle exceptions as per your application's error handling policy
-        }
-        return null;
-    }
-
-    // Utility method to map a Lucene Document to a Paper object
-    private Paper mapDocumentToPaper(Document doc) {
-        List<String> authors = doc.get("authors") != null
-            ? Arrays.asList(doc.get("authors").split(", "))
-            : new ArrayList<>();
-
-        return new Paper(
-            doc.get("id"),
-            doc.get("title"),
-            doc.get("summary"),
-            doc.get("pdfLink"),
-            doc.get("comment"),
-            doc.get("updated"),
-            doc.get("published"),
-            doc.get("primaryCategory"),
-            doc.get("primaryCategoryCode"),
-            authors
-        );
-    }
 }
-
-
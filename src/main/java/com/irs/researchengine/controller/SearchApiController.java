@@ -10,11 +10,16 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.irs.researchengine.data.Paper;
+import com.irs.researchengine.data.SearchPage;
+import com.irs.researchengine.data.SearchResult;
+import com.irs.researchengine.service.DateRange;
 import com.irs.researchengine.service.SearchService;
 
 @RestController
 public class SearchApiController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @Autowired
     private SearchService searchService;
 
@@ -26,15 +31,58 @@ public class SearchApiController {
             @RequestParam(value = "size", defaultValue = "10") int pageSize,
             @RequestParam(value = "proximity", defaultValue = "false") boolean proximitySearch,
             @RequestParam(value = "proximityDistance", defaultValue = "4") int proximityDistance,
-            @RequestParam(value = "semanticSearch", defaultValue = "false") boolean semanticSearch) throws Exception {
+            @RequestParam(value = "semanticSearch", defaultValue = "false") boolean semanticSearch,
+            @RequestParam(value = "hybridSearch", defaultValue = "false") boolean hybridSearch,
+            @RequestParam(value = "sortByCitations", defaultValue = "false") boolean sortByCitations,
+            @RequestParam(value = "newestFirst", defaultValue = "false") boolean newestFirst,
+            @RequestParam(value = "from", required = false) String from,
+            @RequestParam(value = "to", required = false) String to,
+            @RequestParam(value = "dateField", defaultValue = "published") String dateField,
+            @RequestParam(value = "cursor", required = false) String cursor) throws Exception {
 
         if (query == null || query.isEmpty()) {
             return ResponseEntity.badRequest().body(Collections.emptyList());  // Empty list for bad query
         }
 
         // Perform search and return JSON response
-        List<Paper> results = searchService.searchPapers(query, page, pageSize, proximitySearch, proximityDistance, semanticSearch);
-        return ResponseEntity.ok(results);  // Return results as JSON
+        SearchPage results;
+        try {
+            DateRange dateRange = DateRange.parse(dateField, from, to);
+            results = searchService.searchPapers(query, page, pageSize, proximitySearch, proximityDistance, semanticSearch, hybridSearch, sortByCitations, newestFirst, dateRange, cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Collections.emptyList());  // Malformed date or cursor, or a foreign cursor
+        }
+        // Pass the header back as ?cursor= for the next page; absent on the last page
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (results.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, results.getNextCursor());
+        }
+        return response.body(results.getPapers());  // Return results as JSON
+    }
+
+    // Keyword search with category, year and author counts over all matches; the filters narrow both
+    @GetMapping("/api/faceted-search")
+    public ResponseEntity<SearchResult> facetedSearchApi(
+            @RequestParam(name = "query", required = false) String query,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "10") int pageSize,
+            @RequestParam(value = "category", required = false) String category,
+            @RequestParam(value = "author", required = false) String author,
+            @RequestParam(value = "year", required = false) Integer year,
+            @RequestParam(value = "from", required = false) String from,
+            @RequestParam(value = "to", required = false) String to,
+            @RequestParam(value = "dateField", defaultValue = "published") String dateField) throws Exception {
+
+        if (query == null || query.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        DateRange dateRange;
+        try {
+            dateRange = DateRange.parse(dateField, from, to);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(searchService.searchFaceted(query, page, pageSize, category, author, year, dateRange));
     }
 }
 
@@ -1,6 +1,7 @@
 package com.irs.researchengine.controller;
 
-import com.irs.researchengine.data.Paper;
+import com.irs.researchengine.data.SearchPage;
+import com.irs.researchengine.service.DateRange;
 import com.irs.researchengine.service.SearchService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
@@ -8,8 +9,6 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
-import java.util.List;
-
 @Controller
 public class SearchController {
 
@@ -30,6 +29,13 @@ public class SearchController {
                                @RequestParam(value = "proximity", defaultValue = "false") boolean proximitySearch,
                                @RequestParam(value = "proximityDistance", defaultValue = "4") int proximityDistance,
                                @RequestParam(value = "semanticSearch", defaultValue = "false") boolean semanticSearch,
+                               @RequestParam(value = "hybridSearch", defaultValue = "false") boolean hybridSearch,
+                               @RequestParam(value = "sortByCitations", defaultValue = "false") boolean sortByCitations,
+                               @RequestParam(value = "newestFirst", defaultValue = "false") boolean newestFirst,
+                               @RequestParam(value = "from", required = false) String from,
+                               @RequestParam(value = "to", required = false) String to,
+                               @RequestParam(value = "dateField", defaultValue = "published") String dateField,
+                               @RequestParam(value = "cursor", required = false) String cursor,
                                Model model) throws Exception {
 
         if (query == null || query.isEmpty()) {
@@ -37,15 +43,23 @@ public class SearchController {
         }
 
         // Perform search
-        List<Paper> results = searchService.searchPapers(query, page, pageSize, proximitySearch, proximityDistance, semanticSearch);
+        DateRange dateRange = DateRange.parse(dateField, from, to);
+        SearchPage results = searchService.searchPapers(query, page, pageSize, proximitySearch, proximityDistance, semanticSearch, hybridSearch, sortByCitations, newestFirst, dateRange, cursor);
 
-        model.addAttribute("results", results);
+        model.addAttribute("results", results.getPapers());
+        model.addAttribute("nextCursor", results.getNextCursor());
         model.addAttribute("query", query);
         model.addAttribute("currentPage", page);
         model.addAttribute("pageSize", pageSize);
         model.addAttribute("proximitySearch", proximitySearch);
         model.addAttribute("proximityDistance", proximityDistance);
         model.addAttribute("semanticSearch", semanticSearch);
+        model.addAttribute("hybridSearch", hybridSearch);
+        model.addAttribute("sortByCitations", sortByCitations);
+        model.addAttribute("newestFirst", newestFirst);
+        model.addAttribute("from", from);
+        model.addAttribute("to", to);
+        model.addAttribute("dateField", dateField);
         return "search";
     }
 }
\ No newline at end of file
@@ -6,13 +6,13 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.irs.researchengine.service.SemanticIndexService;
+import com.irs.researchengine.service.SemanticBackend;
 
 @RestController
 public class SemanticIndexController {
 
     @Autowired
-    private SemanticIndexService semanticIndexService;
+    private SemanticBackend semanticBackend;
     
     @Value("${dataset.path}")
     private String datasetPath;
@@ -20,7 +20,7 @@ public class SemanticIndexController {
     @PostMapping("/api/index-faiss")
     public ResponseEntity<String> indexDocumentsInFaiss() {
         try {
-            semanticIndexService.indexFromDataset(datasetPath);
+            semanticBackend.indexFromDataset(datasetPath);
             return ResponseEntity.ok("Semantic indexing completed successfully.");
         } catch (Exception e) {
             e.printStackTrace();
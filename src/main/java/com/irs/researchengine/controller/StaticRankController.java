@@ -0,0 +1,27 @@
+package com.irs.researchengine.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.irs.researchengine.service.StaticRankService;
+
+@RestController
+public class StaticRankController {
+
+    @Autowired
+    private StaticRankService staticRankService;
+
+    // Recomputes PageRank over the paper graph and stores it as the static rank of each paper
+    @PostMapping("/api/compute-static-rank")
+    public ResponseEntity<String> computeStaticRank() {
+        try {
+            int ranked = staticRankService.computeStaticRanks();
+            return ResponseEntity.ok("Static rank computed for " + ranked + " papers.");
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(500).body("Error computing static rank: " + e.getMessage());
+        }
+    }
+}
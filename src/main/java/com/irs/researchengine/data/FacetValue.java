@@ -0,0 +1,20 @@
+package com.irs.researchengine.data;
+
+public class FacetValue {
+    private final String value;
+    // Matching papers with this value
+    private final int count;
+
+    public FacetValue(String value, int count) {
+        this.value = value;
+        this.count = count;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public int getCount() {
+        return count;
+    }
+}
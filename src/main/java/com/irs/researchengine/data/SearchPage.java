@@ -0,0 +1,22 @@
+package com.irs.researchengine.data;
+
+import java.util.List;
+
+public class SearchPage {
+    private final List<Paper> papers;
+    // Token for the following page, null on the last page
+    private final String nextCursor;
+
+    public SearchPage(List<Paper> papers, String nextCursor) {
+        this.papers = papers;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Paper> getPapers() {
+        return papers;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
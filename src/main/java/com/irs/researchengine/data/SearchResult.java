@@ -0,0 +1,23 @@
+package com.irs.researchengine.data;
+
+import java.util.List;
+import java.util.Map;
+
+public class SearchResult {
+    private final List<Paper> papers;
+    // Top values per facet ("category", "year", "author") over all matching papers, not just this page
+    private final Map<String, List<FacetValue>> facets;
+
+    public SearchResult(List<Paper> papers, Map<String, List<FacetValue>> facets) {
+        this.papers = papers;
+        this.facets = facets;
+    }
+
+    public List<Paper> getPapers() {
+        return papers;
+    }
+
+    public Map<String, List<FacetValue>> getFacets() {
+        return facets;
+    }
+}
@@ -0,0 +1,155 @@
+package com.irs.researchengine.graph;
+
+import java.util.Arrays;
+
+/**
+ * Immutable weighted directed graph in compressed sparse row form, indexed by target: the in-edges of node v
+ * are {@code sources[offsets[v] .. offsets[v + 1])}. Each edge weight is already divided by the total out
+ * weight of its source, which is what PageRank propagates, so an edge costs 8 bytes (an int and a float).
+ */
+public final class CsrGraph {
+
+    private final int nodeCount;
+    private final int[] offsets;
+    private final int[] sources;
+    private final float[] weights;
+    // Nodes without out-edges, whose rank PageRank spreads over every node
+    private final int[] danglingNodes;
+
+    private CsrGraph(int nodeCount, int[] offsets, int[] sources, float[] weights, int[] danglingNodes) {
+        this.nodeCount = nodeCount;
+        this.offsets = offsets;
+        this.sources = sources;
+        this.weights = weights;
+        this.danglingNodes = danglingNodes;
+    }
+
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    public int edgeCount() {
+        return sources.length;
+    }
+
+    public int inDegree(int node) {
+        return offsets[node + 1] - offsets[node];
+    }
+
+    public int danglingCount() {
+        return danglingNodes.length;
+    }
+
+    /**
+     * Approximate heap size of the arrays.
+     */
+    public long estimatedBytes() {
+        return 4L * offsets.length + 8L * sources.length + 4L * danglingNodes.length;
+    }
+
+    int[] offsets() {
+        return offsets;
+    }
+
+    int[] sources() {
+        return sources;
+    }
+
+    float[] weights() {
+        return weights;
+    }
+
+    int[] danglingNodes() {
+        return danglingNodes;
+    }
+
+    /**
+     * Collects edges in growable primitive arrays (12 bytes each), then lays them out by target with a counting
+     * sort. Parallel edges are kept and add up. Not thread-safe.
+     */
+    public static class Builder {
+
+        private final int nodeCount;
+        private int[] from;
+        private int[] to;
+        private float[] weight;
+        private int size;
+
+        public Builder(int nodeCount) {
+            this(nodeCount, 16);
+        }
+
+        public Builder(int nodeCount, int expectedEdges) {
+            if (nodeCount < 0) {
+                throw new IllegalArgumentException("Negative node count: " + nodeCount);
+            }
+            this.nodeCount = nodeCount;
+            int capacity = Math.max(16, expectedEdges);
+            from = new int[capacity];
+            to = new int[capacity];
+            weight = new float[capacity];
+        }
+
+        public int edgeCount() {
+            return size;
+        }
+
+        /**
+         * Adds an edge; edges with a weight of 0 or less carry no rank and are skipped.
+         */
+        public Builder addEdge(int source, int target, float edgeWeight) {
+            if (source < 0 || source >= nodeCount || target < 0 || target >= nodeCount) {
+                throw new IllegalArgumentException("Edge " + source + " -> " + target + " outside " + nodeCount + " nodes");
+            }
+            if (!(edgeWeight > 0)) {
+                return this;
+            }
+            if (size == from.length) {
+                int capacity = size + (size >> 1);
+                from = Arrays.copyOf(from, capacity);
+                to = Arrays.copyOf(to, capacity);
+                weight = Arrays.copyOf(weight, capacity);
+            }
+            from[size] = source;
+            to[size] = target;
+            weight[size] = edgeWeight;
+            size++;
+            return this;
+        }
+
+        public CsrGraph build() {
+            double[] outWeight = new double[nodeCount];
+            int[] offsets = new int[nodeCount + 1];
+            for (int e = 0; e < size; e++) {
+                outWeight[from[e]] += weight[e];
+                offsets[to[e] + 1]++;
+            }
+            for (int v = 0; v < nodeCount; v++) {
+                offsets[v + 1] += offsets[v];
+            }
+
+            int[] sources = new int[size];
+            float[] weights = new float[size];
+            int[] next = Arrays.copyOf(offsets, nodeCount);
+            for (int e = 0; e < size; e++) {
+                int slot = next[to[e]]++;
+                sources[slot] = from[e];
+                weights[slot] = (float) (weight[e] / outWeight[from[e]]);
+            }
+
+            int dangling = 0;
+            for (int v = 0; v < nodeCount; v++) {
+                if (outWeight[v] == 0) {
+                    dangling++;
+                }
+            }
+            int[] danglingNodes = new int[dangling];
+            for (int v = 0, i = 0; v < nodeCount; v++) {
+                if (outWeight[v] == 0) {
+                    danglingNodes[i++] = v;
+                }
+            }
+            return new CsrGraph(nodeCount, offsets, sources, weights, danglingNodes);
+        }
+    }
+}
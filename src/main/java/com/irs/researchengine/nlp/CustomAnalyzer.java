@@ -11,30 +11,17 @@ import org.apache.lucene.analysis.en.EnglishAnalyzer;
 import org.apache.lucene.analysis.CharArraySet;
 
 
-import opennlp.tools.lemmatizer.DictionaryLemmatizer;
-import opennlp.tools.postag.POSModel;
-import opennlp.tools.postag.POSTaggerME;
-
-import java.io.InputStream;
-
+/**
+ * Thread-safe and meant to be shared: Lucene builds the token stream chain once per thread, and each chain
+ * gets its own POS tagger over the models loaded once in {@link NlpModels}.
+ */
 public class CustomAnalyzer extends Analyzer {
 
-    private POSTaggerME posTagger;
-    private DictionaryLemmatizer lemmatizer;
+    private final NlpModels models = NlpModels.getInstance();
 
     public CustomAnalyzer() {
-        try {
-            // Load the POS tagger model from OpenNLP
-            InputStream posModelStream = getClass().getResourceAsStream("/models/en-pos-maxent.bin");
-            POSModel posModel = new POSModel(posModelStream);
-            posTagger = new POSTaggerME(posModel);
-
-            // Load the lemmatizer dictionary from OpenNLP
-            InputStream lemmatizerDictStream = getClass().getResourceAsStream("/models/en-lemmatizer.dict");
-            lemmatizer = new DictionaryLemmatizer(lemmatizerDictStream);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to load OpenNLP models", e);
-        }
+        // Chains differ by field, so they must be cached per field as well as per thread
+        super(PER_FIELD_REUSE_STRATEGY);
     }
 
     @Override
@@ -47,7 +34,7 @@ public class CustomAnalyzer extends Analyzer {
         tokenStream = new StopFilter(tokenStream, stopWords);  // Stop word filtering
 
         // Add lemmatization via OpenNLP
-        tokenStream = new OpenNLPLemmatizerFilter(tokenStream, posTagger, lemmatizer);
+        tokenStream = new OpenNLPLemmatizerFilter(tokenStream, models.newPosTagger(), models.getLemmatizer());
 
         // Adding N-gram tokenization for fuzzy matching and autocomplete
         // Apply N-gram only on titles for autocomplete
@@ -0,0 +1,60 @@
+package com.irs.researchengine.nlp;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import opennlp.tools.lemmatizer.DictionaryLemmatizer;
+import opennlp.tools.postag.POSModel;
+import opennlp.tools.postag.POSTaggerME;
+
+/**
+ * OpenNLP models loaded once per JVM and shared by every analyzer.
+ * The models and the lemmatizer dictionary are read-only after loading and safe to share across threads;
+ * {@link POSTaggerME} keeps per-call state, so callers get their own tagger from {@link #newPosTagger()}.
+ */
+public final class NlpModels {
+
+    private static final String POS_MODEL = "/models/en-pos-maxent.bin";
+    private static final String LEMMATIZER_DICT = "/models/en-lemmatizer.dict";
+
+    private final POSModel posModel;
+    private final DictionaryLemmatizer lemmatizer;
+
+    private NlpModels() {
+        try (InputStream posModelStream = open(POS_MODEL);
+             InputStream lemmatizerDictStream = open(LEMMATIZER_DICT)) {
+            this.posModel = new POSModel(posModelStream);
+            this.lemmatizer = new DictionaryLemmatizer(lemmatizerDictStream);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to load OpenNLP models", e);
+        }
+    }
+
+    public static NlpModels getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * A new tagger over the shared model. Cheap compared to loading the model, but not thread-safe.
+     */
+    public POSTaggerME newPosTagger() {
+        return new POSTaggerME(posModel);
+    }
+
+    public DictionaryLemmatizer getLemmatizer() {
+        return lemmatizer;
+    }
+
+    private static InputStream open(String resource) throws IOException {
+        InputStream stream = NlpModels.class.getResourceAsStream(resource);
+        if (stream == null) {
+            throw new IOException("Model not found on classpath: " + resource);
+        }
+        return stream;
+    }
+
+    // Loaded on first use, the JVM guarantees this happens once
+    private static class Holder {
+        private static final NlpModels INSTANCE = new NlpModels();
+    }
+}
@@ -2,17 +2,47 @@ package com.irs.researchengine.nlp;
 import org.apache.lucene.analysis.TokenFilter;
 import org.apache.lucene.analysis.TokenStream;
 import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.util.AttributeSource;
+
 import opennlp.tools.lemmatizer.DictionaryLemmatizer;
-import opennlp.tools.postag.POSTaggerME;
+import opennlp.tools.postag.POSTagger;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lemmatizes tokens using their POS tags. Tokens are buffered (up to {@link #MAX_BATCH} at a time, normally the
+ * whole field), tagged in one tagger call so each tag sees its neighbours, and then replayed with their original
+ * attributes. Lemmas are looked up through a small LRU cache keyed by (token, tag).
+ */
+public final class OpenNLPLemmatizerFilter extends TokenFilter {
 
-public class OpenNLPLemmatizerFilter extends TokenFilter {
+    private static final int MAX_BATCH = 512;
+    private static final int LEMMA_CACHE_SIZE = 4096;
+    private static final String NO_LEMMA = "O";
 
-    private final POSTaggerME posTagger;
+    private final POSTagger posTagger;
     private final DictionaryLemmatizer lemmatizer;
     private final CharTermAttribute charTermAttribute = addAttribute(CharTermAttribute.class);
-    protected OpenNLPLemmatizerFilter(TokenStream input, POSTaggerME posTagger, DictionaryLemmatizer lemmatizer) {
+
+    private final List<AttributeSource.State> states = new ArrayList<>();
+    private final List<String> tokens = new ArrayList<>();
+    private String[] lemmas = new String[0];
+    private int position;
+    private boolean inputExhausted;
+
+    // One filter per thread and field chain, so the cache needs no locking
+    private final Map<String, String> lemmaCache = new LinkedHashMap<String, String>(LEMMA_CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > LEMMA_CACHE_SIZE;
+        }
+    };
+
+    protected OpenNLPLemmatizerFilter(TokenStream input, POSTagger posTagger, DictionaryLemmatizer lemmatizer) {
         super(input);
         this.posTagger = posTagger;
         this.lemmatizer = lemmatizer;
@@ -20,18 +50,65 @@ public class OpenNLPLemmatizerFilter extends TokenFilter {
 
     @Override
     public boolean incrementToken() throws IOException {
-        if (!input.incrementToken()) {
+        if (position == tokens.size() && !fillBatch()) {
             return false;
         }
-
-        String token = charTermAttribute.toString();
-        String posTag = posTagger.tag(new String[]{token})[0];  // Get POS tag for token
-        String lemma = lemmatizer.lemmatize(new String[]{token}, new String[]{posTag})[0];  // Lemmatize token
-
-        if (lemma != null && !lemma.equals("O")) {  // If lemma is found, use it
+        restoreState(states.get(position));
+        String lemma = lemmas[position];
+        if (lemma != null) {  // If lemma is found, use it
             charTermAttribute.setEmpty().append(lemma);
         }
+        position++;
+        return true;
+    }
+
+    // Reads the next batch of tokens from the input and lemmatizes them; false once the input is exhausted
+    private boolean fillBatch() throws IOException {
+        states.clear();
+        tokens.clear();
+        position = 0;
+        while (!inputExhausted && tokens.size() < MAX_BATCH) {
+            if (!input.incrementToken()) {
+                inputExhausted = true;
+                break;
+            }
+            states.add(captureState());
+            tokens.add(charTermAttribute.toString());
+        }
+        if (tokens.isEmpty()) {
+            return false;
+        }
 
+        String[] batch = tokens.toArray(new String[0]);
+        String[] tags = posTagger.tag(batch);  // One tagger call for the whole batch
+        if (lemmas.length < batch.length) {
+            lemmas = new String[Math.max(batch.length, lemmas.length * 2)];
+        }
+        for (int i = 0; i < batch.length; i++) {
+            lemmas[i] = lemmatize(batch[i], tags[i]);
+        }
         return true;
     }
+
+    private String lemmatize(String token, String tag) {
+        String key = token + '\u0000' + tag;
+        String lemma = lemmaCache.get(key);
+        if (lemma == null) {
+            lemma = lemmatizer.lemmatize(new String[]{token}, new String[]{tag})[0];
+            if (lemma == null) {
+                lemma = NO_LEMMA;
+            }
+            lemmaCache.put(key, lemma);
+        }
+        return NO_LEMMA.equals(lemma) ? null : lemma;
+    }
+
+    @Override
+    public void reset() throws IOException {
+        super.reset();
+        states.clear();
+        tokens.clear();
+        position = 0;
+        inputExhausted = false;
+    }
 }
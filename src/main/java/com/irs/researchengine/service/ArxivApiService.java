@@ -1,154 +1,237 @@
 package com.irs.researchengine.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.irs.researchengine.config.CategoryConfig;
 import com.irs.researchengine.data.Paper;
+import com.irs.researchengine.utils.ArxivAtomParser;
+import com.irs.researchengine.utils.DatasetReader;
+import com.irs.researchengine.utils.HarvestCheckpoint;
+import com.irs.researchengine.utils.JsonLinesDatasetWriter;
+import com.irs.researchengine.utils.TokenBucketRateLimiter;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.w3c.dom.*;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
 
-import java.io.ByteArrayInputStream;
+import javax.xml.stream.XMLStreamException;
+
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Scanner;
-
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Harvests arXiv categories in parallel into the JSON Lines dataset.
+ * All requests share one token bucket, progress is checkpointed per (category, start) page, transient failures
+ * are retried with exponential backoff, and papers cross-listed in several categories are written once.
+ */
 @Service
 public class ArxivApiService {
-    private static final String ARXIV_API_BASE_URL = "http://export.arxiv.org/api/query?search_query=";
-    private static final int MAX_RESULTS_PER_REQUEST = 1000;
-    
+    private static final long MAX_BACKOFF_MS = 60_000;
+
+    @Value("${arxiv.api.url:http://export.arxiv.org/api/query}")
+    private String apiUrl;
+
+    @Value("${arxiv.page-size:1000}")
+    private int pageSize;
+
+    @Value("${arxiv.harvest.threads:4}")
+    private int harvestThreads;
+
+    // arXiv asks clients to make no more than one request every three seconds
+    @Value("${arxiv.rate-limit.per-second:0.33}")
+    private double requestsPerSecond;
+
+    @Value("${arxiv.retry.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${arxiv.retry.initial-backoff-ms:3000}")
+    private long initialBackoffMs;
+
+    @Value("${arxiv.timeout-ms:60000}")
+    private int timeoutMs;
+
+    @Value("${arxiv.checkpoint.path:./dataset/harvest_checkpoint.properties}")
+    private String checkpointPath;
+
     @Value("${dataset.path}")
     private String datasetPath;
-    
+
     @Autowired
     private ObjectMapper objectMapper;
-    
+
     private static final Logger logger = LoggerFactory.getLogger(ArxivApiService.class);
 
     public void createDataset(List<String> categories) throws IOException {
-        List<Paper> allPapers = new ArrayList<>();
-        for (String category : categories) {
-            try {
-                logger.info("Fetching papers for category: {}", category);
-                List<Paper> categoryPapers = fetchAllPapers(category);
-                logger.info("Fetched {} papers for category: {}", categoryPapers.size(), category);
-                allPapers.addAll(categoryPapers);
-            } catch (Exception e) {
-                logger.error("Error fetching papers for category {}: {}", category, e.getMessage());
+        File datasetFile = new File(datasetPath);
+        HarvestCheckpoint checkpoint = HarvestCheckpoint.load(Paths.get(checkpointPath));
+
+        // A leftover checkpoint means the previous run was interrupted: keep its papers and continue after them
+        boolean resume = !checkpoint.isEmpty() && datasetFile.exists();
+        Set<String> seenIds = ConcurrentHashMap.newKeySet();
+        if (resume) {
+            loadSeenIds(datasetFile, seenIds);
+            logger.info("Resuming harvest with {} papers already in {}", seenIds.size(), datasetPath);
+        } else {
+            checkpoint.delete();
+        }
+
+        TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter(requestsPerSecond, 1);
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(harvestThreads, categories.size())));
+        List<String> failed = new ArrayList<>();
+        try (JsonLinesDatasetWriter datasetWriter = new JsonLinesDatasetWriter(datasetFile, objectMapper, resume)) {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (String category : categories) {
+                futures.add(pool.submit(() -> harvestCategory(category, checkpoint, rateLimiter, seenIds, datasetWriter)));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    futures.get(i).get();
+                } catch (ExecutionException e) {
+                    failed.add(categories.get(i));
+                    logger.error("Error fetching papers for category {}: {}", categories.get(i), e.getCause().getMessage());
+                }
             }
+            logger.info("Dataset written to: {}", datasetPath);
+            logger.info("Papers written in this run: {}, total unique papers: {}", datasetWriter.getCount(), seenIds.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Harvest interrupted, rerun to resume from " + checkpointPath, e);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        if (!failed.isEmpty()) {
+            throw new IOException("Harvest incomplete for " + failed + ", rerun to resume from " + checkpointPath);
         }
-        savePapersToDataset(allPapers);
-        logger.info("Total number of papers in the dataset: {}", allPapers.size());
+        checkpoint.delete();
     }
 
-    private List<Paper> fetchAllPapers(String category) throws Exception {
-        List<Paper> papers = new ArrayList<>();
-        int start = 0;
-        boolean moreResults = true;
-
-        while (moreResults) {
-            String url = ARXIV_API_BASE_URL + "cat:" + category + "&start=" + start + "&max_results=" + MAX_RESULTS_PER_REQUEST;
-            HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
-            connection.setRequestMethod("GET");
-
-            try (InputStream inputStream = connection.getInputStream()) {
-                StringBuilder response = new StringBuilder();
-                try (Scanner scanner = new Scanner(inputStream)) {
-                    while (scanner.hasNext()) {
-                        response.append(scanner.nextLine());
-                    }
+    private int harvestCategory(String category, HarvestCheckpoint checkpoint, TokenBucketRateLimiter rateLimiter,
+                                Set<String> seenIds, JsonLinesDatasetWriter datasetWriter) throws Exception {
+        if (checkpoint.isDone(category)) {
+            logger.info("Category {} already harvested, skipping", category);
+            return 0;
+        }
+        int start = checkpoint.getStart(category);
+        int written = 0;
+        logger.info("Fetching papers for category: {} from offset {}", category, start);
+
+        while (true) {
+            List<Paper> page = fetchPageWithRetry(category, start, rateLimiter);
+            for (Paper paper : page) {
+                if (seenIds.add(paper.getId())) {
+                    datasetWriter.write(paper);
+                    written++;
                 }
-                List<Paper> batch = parseArxivResponse(response.toString(), category);
-                logger.info("Parsed {} papers in current batch for category: {}", batch.size(), category);
-
-                papers.addAll(batch);
-                moreResults = batch.size() >= MAX_RESULTS_PER_REQUEST;
-                start += MAX_RESULTS_PER_REQUEST;
-            } catch (Exception e) {
-                logger.error("Error during fetch: {}", e.getMessage());
-                moreResults = false;
             }
+            // The page is on disk before the checkpoint moves past it; a page refetched after a crash is deduped
+            datasetWriter.flush();
+
+            if (page.size() < pageSize) {
+                checkpoint.markDone(category);
+                break;
+            }
+            start += pageSize;
+            checkpoint.setStart(category, start);
         }
-        return papers;
+        logger.info("Fetched {} new papers for category: {}", written, category);
+        return written;
     }
 
-    private List<Paper> parseArxivResponse(String xmlResponse, String category) throws Exception {
-        List<Paper> papers = new ArrayList<>();
-        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-        DocumentBuilder builder = factory.newDocumentBuilder();
-        Document doc = builder.parse(new ByteArrayInputStream(xmlResponse.getBytes()));
-
-        NodeList entries = doc.getElementsByTagName("entry");
-        for (int i = 0; i < entries.getLength(); i++) {
-            Element entry = (Element) entries.item(i);
-            List<String> authors = new ArrayList<>();
-            NodeList authorNodes = entry.getElementsByTagName("author");
-            for (int j = 0; j < authorNodes.getLength(); j++) {
-                String authorName = getTextContent((Element) authorNodes.item(j), "name");
-                if (authorName != null) {
-                    authors.add(authorName);
+    private List<Paper> fetchPageWithRetry(String category, int start, TokenBucketRateLimiter rateLimiter) throws Exception {
+        long backoffMs = initialBackoffMs;
+        for (int attempt = 1; ; attempt++) {
+            rateLimiter.acquire();
+            try {
+                List<Paper> page = fetchPage(category, start);
+                logger.info("Parsed {} papers in current batch for category: {}", page.size(), category);
+                return page;
+            } catch (TransientFetchException | IOException | XMLStreamException e) {
+                if (attempt >= maxAttempts) {
+                    throw new IOException("Giving up on " + category + " at offset " + start + " after "
+                            + attempt + " attempts: " + e.getMessage(), e);
                 }
+                long delay = backoffMs;
+                if (e instanceof TransientFetchException && ((TransientFetchException) e).retryAfterMs > 0) {
+                    delay = Math.max(delay, ((TransientFetchException) e).retryAfterMs);
+                }
+                delay += ThreadLocalRandom.current().nextLong(delay / 4 + 1);
+                logger.warn("Fetch of {} at offset {} failed (attempt {}/{}): {}, retrying in {} ms",
+                        category, start, attempt, maxAttempts, e.getMessage(), delay);
+                Thread.sleep(delay);
+                backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
             }
-            Paper paper = new Paper(
-                getTextContent(entry, "id"),
-                getTextContent(entry, "title"),
-                getTextContent(entry, "summary"),
-                getLinkHref(entry, "pdf"),
-                getTextContent(entry, "arxiv:comment", "No comments available"),
-                getTextContent(entry, "updated"),
-                getTextContent(entry, "published"),
-                CategoryConfig.getFullCategoryName(category),
-                category,
-                authors
-            );
-            papers.add(paper);
         }
-        return papers;
     }
 
-    private void savePapersToDataset(List<Paper> papers) throws IOException {
-        File datasetFile = new File(datasetPath);
-        if (!datasetFile.getParentFile().exists()) {
-            datasetFile.getParentFile().mkdirs();
+    private List<Paper> fetchPage(String category, int start) throws IOException, XMLStreamException, TransientFetchException {
+        String url = apiUrl + "?search_query=" + URLEncoder.encode("cat:" + category, StandardCharsets.UTF_8)
+                + "&start=" + start + "&max_results=" + pageSize;
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setRequestMethod("GET");
+        connection.setConnectTimeout(timeoutMs);
+        connection.setReadTimeout(timeoutMs);
+        try {
+            int status = connection.getResponseCode();
+            if (status == 429 || status >= 500) {
+                throw new TransientFetchException("HTTP " + status, parseRetryAfter(connection.getHeaderField("Retry-After")));
+            }
+            if (status != HttpURLConnection.HTTP_OK) {
+                throw new IllegalStateException("arXiv returned HTTP " + status + " for " + url);
+            }
+            // Buffered per page so a response that breaks off midway never leaves half a page in the dataset
+            List<Paper> page = new ArrayList<>(Math.min(pageSize, 1000));
+            try (InputStream inputStream = new BufferedInputStream(connection.getInputStream())) {
+                ArxivAtomParser.parse(inputStream, category, page::add);
+            }
+            return page;
+        } finally {
+            connection.disconnect();
         }
-        objectMapper.writeValue(datasetFile, papers);
-        logger.info("Dataset created at: {}", datasetPath);
     }
 
-    private String getTextContent(Element element, String tagName, String defaultValue) {
-        String content = getTextContent(element, tagName);
-        return (content.isEmpty()) ? defaultValue : content;
+    private void loadSeenIds(File datasetFile, Set<String> seenIds) {
+        try (DatasetReader papers = new DatasetReader(datasetFile, objectMapper, pageSize)) {
+            papers.forEachPaper(paper -> seenIds.add(paper.getId()));
+        } catch (Exception e) {
+            // A run killed mid-write can leave a truncated last line; everything before it is still usable
+            logger.warn("Stopped reading existing dataset after {} papers: {}", seenIds.size(), e.getMessage());
+        }
     }
 
-    private String getTextContent(Element entry, String tagName) {
-        NodeList nodes = entry.getElementsByTagName(tagName);
-        if (nodes != null && nodes.getLength() > 0) {
-            return nodes.item(0).getTextContent();
+    private static long parseRetryAfter(String header) {
+        if (header == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(header.trim()) * 1000;
+        } catch (NumberFormatException e) {
+            return 0;
         }
-        return "";
     }
 
-    private String getLinkHref(Element entry, String relType) {
-        NodeList links = entry.getElementsByTagName("link");
-        for (int i = 0; i < links.getLength(); i++) {
-            Element link = (Element) links.item(i);
-            if (link.getAttribute("title").equals(relType)) {
-                return link.getAttribute("href");
-            }
+    private static class TransientFetchException extends Exception {
+        private final long retryAfterMs;
+
+        TransientFetchException(String message, long retryAfterMs) {
+            super(message);
+            this.retryAfterMs = retryAfterMs;
         }
-        return "";
     }
 }
-
-
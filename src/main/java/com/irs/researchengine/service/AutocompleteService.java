@@ -1,40 +1,170 @@
 package com.irs.researchengine.service;
 
-import java.nio.file.Paths;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.lucene.document.Document;
-import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NumericDocValues;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.PrefixQuery;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ReferenceManager;
 import org.apache.lucene.search.ScoreDoc;
 import org.apache.lucene.search.TopDocs;
-import org.apache.lucene.store.Directory;
-import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.Bits;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.irs.researchengine.utils.PrefixSuggester;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Autocomplete from an in-memory suggester over titles and domain terms, weighted by citation count.
+ * The suggester is rebuilt in the background when the shared searcher picks up added or deleted documents, at
+ * most once per {@code autocomplete.rebuild.min-interval-ms}. Refreshes that only update DocValues (citation
+ * counts, static ranks) do not trigger a rebuild; their weights are picked up by the next one.
+ */
 @Service
 public class AutocompleteService {
-    @Value("${index.path}")
-    private String INDEX_PATH;
+
+    private static final Logger logger = LoggerFactory.getLogger(AutocompleteService.class);
+    private static final int MAX_SUGGESTIONS = 10;
+    private static final Set<String> SUGGESTION_FIELDS = Set.of("title", "domainTerms");
+
+    @Autowired
+    private IndexSearcherManager searcherManager;
+
+    // Bulk ingest refreshes after every commit interval; later commits are folded into one delayed rebuild
+    @Value("${autocomplete.rebuild.min-interval-ms:60000}")
+    private long minRebuildIntervalMs;
+
+    private volatile PrefixSuggester suggester;
+    private ScheduledExecutorService rebuilder;
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+
+    // Document counts of the reader the suggester was built from, and when the last build started
+    private long builtMaxDoc = -1;
+    private long builtNumDocs = -1;
+    private volatile long lastRebuildStart;
+
+    @PostConstruct
+    public void init() throws IOException {
+        rebuilder = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "autocomplete-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+        searcherManager.addRefreshListener(new ReferenceManager.RefreshListener() {
+            @Override
+            public void beforeRefresh() {
+            }
+
+            @Override
+            public void afterRefresh(boolean didRefresh) {
+                if (didRefresh) {
+                    scheduleRebuild();
+                }
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
 
     public List<String> autocomplete(String prefix) throws Exception {
+        PrefixSuggester current = suggester;
+        if (current != null) {
+            return current.suggest(prefix);
+        }
+        // Until the first build finishes, answer from the index
+        return autocompleteFromIndex(prefix);
+    }
+
+    // Refreshes that arrive while a build is queued are folded into it; the build waits until the minimum
+    // interval since the previous one has passed
+    private void scheduleRebuild() {
+        if (rebuildPending.compareAndSet(false, true)) {
+            long delay = Math.max(0, lastRebuildStart + minRebuildIntervalMs - System.currentTimeMillis());
+            rebuilder.schedule(() -> {
+                rebuildPending.set(false);
+                try {
+                    rebuild();
+                } catch (Exception e) {
+                    logger.warn("Autocomplete rebuild failed: {}", e.getMessage());
+                }
+            }, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Runs on the rebuild thread only
+    private void rebuild() throws IOException {
+        long start = System.nanoTime();
+        PrefixSuggester.Builder builder = PrefixSuggester.builder(MAX_SUGGESTIONS);
+        IndexSearcher searcher = searcherManager.acquire();
+        IndexReader index = searcher.getIndexReader();
+        // Adding or deleting documents changes these counts; DocValues updates leave them as they are
+        long maxDoc = index.maxDoc();
+        long numDocs = index.numDocs();
+        try {
+            if (maxDoc == builtMaxDoc && numDocs == builtNumDocs) {
+                return;
+            }
+            lastRebuildStart = System.currentTimeMillis();
+            for (LeafReaderContext leaf : index.leaves()) {
+                LeafReader reader = leaf.reader();
+                Bits liveDocs = reader.getLiveDocs();
+                NumericDocValues citations = DocValues.getNumeric(reader, "citationCount");
+                for (int doc = 0; doc < reader.maxDoc(); doc++) {
+                    if (liveDocs != null && !liveDocs.get(doc)) {
+                        continue;
+                    }
+                    long citationCount = citations.advanceExact(doc) ? citations.longValue() : 0;
+                    long weight = 1 + citationCount;
+                    Document document = reader.document(doc, SUGGESTION_FIELDS);
+                    builder.add(document.get("title"), weight);
+                    // Domain terms shared by many papers add up, so common phrases rank high
+                    for (String term : document.getValues("domainTerms")) {
+                        builder.add(term, weight);
+                    }
+                }
+            }
+        } finally {
+            searcherManager.release(searcher);
+        }
+        suggester = builder.build();
+        builtMaxDoc = maxDoc;
+        builtNumDocs = numDocs;
+        logger.info("Autocomplete rebuilt with {} phrases in {} ms", suggester.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private List<String> autocompleteFromIndex(String prefix) throws Exception {
         List<String> suggestions = new ArrayList<>();
         
-        try (Directory dir = FSDirectory.open(Paths.get(INDEX_PATH));
-             DirectoryReader reader = DirectoryReader.open(dir)) {
-             
-            IndexSearcher searcher = new IndexSearcher(reader);
-            
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
             // Prefix query for efficient matching of N-grams
             Query prefixQuery = new PrefixQuery(new Term("title", prefix.toLowerCase()));
 
             // Search for the query
-            TopDocs results = searcher.search(prefixQuery, 10);  // Limit to 10 suggestions
+            TopDocs results = searcher.search(prefixQuery, MAX_SUGGESTIONS);
             
             for (ScoreDoc scoreDoc : results.scoreDocs) {
                 Document doc = searcher.doc(scoreDoc.doc);
@@ -43,6 +173,8 @@ public class AutocompleteService {
                     suggestions.add(title);
                 }
             }
+        } finally {
+            searcherManager.release(searcher);
         }
         return suggestions;
     }
@@ -0,0 +1,113 @@
+package com.irs.researchengine.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.irs.researchengine.data.CitationInfo;
+
+/**
+ * LRU cache of citation lookups with a time-to-live, optionally saved to and restored from a JSON file.
+ */
+class CitationCache {
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final LinkedHashMap<String, Entry> entries;
+
+    CitationCache(int maxSize, long ttlMillis) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > CitationCache.this.maxSize;
+            }
+        };
+    }
+
+    synchronized CitationInfo get(String id) {
+        Entry entry = entries.get(id);
+        if (entry == null) {
+            return null;
+        }
+        if (isExpired(entry)) {
+            entries.remove(id);
+            return null;
+        }
+        return new CitationInfo(entry.getCitationCount(), entry.getCitationUrls());
+    }
+
+    synchronized void put(String id, CitationInfo info) {
+        entries.put(id, new Entry(info.getCitationCount(), info.getCitationUrls(), System.currentTimeMillis()));
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized void load(File file, ObjectMapper objectMapper) throws IOException {
+        Map<String, Entry> saved = objectMapper.readValue(file, new TypeReference<LinkedHashMap<String, Entry>>() {});
+        saved.forEach((id, entry) -> {
+            if (!isExpired(entry)) {
+                entries.put(id, entry);
+            }
+        });
+    }
+
+    synchronized void save(File file, ObjectMapper objectMapper) throws IOException {
+        if (file.getParentFile() != null && !file.getParentFile().exists()) {
+            file.getParentFile().mkdirs();
+        }
+        objectMapper.writeValue(file, entries);
+    }
+
+    private boolean isExpired(Entry entry) {
+        return System.currentTimeMillis() - entry.getFetchedAt() > ttlMillis;
+    }
+
+    // Serialized form of a cached lookup
+    static class Entry {
+        private int citationCount;
+        private List<String> citationUrls = new ArrayList<>();
+        private long fetchedAt;
+
+        public Entry() {
+        }
+
+        Entry(int citationCount, List<String> citationUrls, long fetchedAt) {
+            this.citationCount = citationCount;
+            this.citationUrls = citationUrls;
+            this.fetchedAt = fetchedAt;
+        }
+
+        public int getCitationCount() {
+            return citationCount;
+        }
+
+        public void setCitationCount(int citationCount) {
+            this.citationCount = citationCount;
+        }
+
+        public List<String> getCitationUrls() {
+            return citationUrls;
+        }
+
+        public void setCitationUrls(List<String> citationUrls) {
+            this.citationUrls = citationUrls;
+        }
+
+        public long getFetchedAt() {
+            return fetchedAt;
+        }
+
+        public void setFetchedAt(long fetchedAt) {
+            this.fetchedAt = fetchedAt;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.irs.researchengine.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NumericDocValues;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.util.Bits;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Offline job that pulls citation counts for indexed papers in batches and stores them as DocValues,
+ * so the query path can sort on citations without calling Semantic Scholar.
+ */
+@Service
+public class CitationEnrichmentService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CitationEnrichmentService.class);
+    private static final Set<String> ID_FIELD = Set.of("id");
+    private static final int WRITE_BATCH_SIZE = 10000; // Counts buffered before one writer commit
+
+    @Autowired
+    private IndexSearcherManager searcherManager;
+
+    @Autowired
+    private IndexService indexService;
+
+    @Autowired
+    private CitationService citationService;
+
+    // 0 disables the periodic refresh of stale documents
+    @Value("${citation.refresh.interval-hours:0}")
+    private long refreshIntervalHours;
+
+    @Value("${citation.refresh.max-age-days:7}")
+    private long maxAgeDays;
+
+    // Pause between batch requests to stay within the API rate limit
+    @Value("${citation.batch.delay-ms:1000}")
+    private long batchDelayMs;
+
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    public void init() {
+        if (refreshIntervalHours > 0) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "citation-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(() -> {
+                try {
+                    enrich(true);
+                } catch (Exception e) {
+                    logger.error("Scheduled citation refresh failed: {}", e.getMessage());
+                }
+            }, refreshIntervalHours, refreshIntervalHours, TimeUnit.HOURS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Fetches and stores citation counts for every indexed paper, or only for papers whose counts
+     * are older than citation.refresh.max-age-days when staleOnly is set. Returns the number of papers updated.
+     */
+    public synchronized int enrich(boolean staleOnly) throws Exception {
+        long now = System.currentTimeMillis();
+        long staleBefore = staleOnly ? now - TimeUnit.DAYS.toMillis(maxAgeDays) : Long.MAX_VALUE;
+        List<String> ids = findPapersToEnrich(staleBefore);
+        logger.info("Enriching citation counts for {} papers", ids.size());
+
+        int updated = 0;
+        Map<String, Integer> pending = new LinkedHashMap<>();
+        for (int from = 0; from < ids.size(); from += CitationService.MAX_BATCH_SIZE) {
+            // Rate limit between requests, not after the last one
+            if (from > 0) {
+                Thread.sleep(batchDelayMs);
+            }
+            List<String> batch = ids.subList(from, Math.min(from + CitationService.MAX_BATCH_SIZE, ids.size()));
+            try {
+                pending.putAll(citationService.fetchCitationCounts(batch));
+            } catch (Exception e) {
+                // Left stale, the next refresh retries these papers
+                logger.warn("Citation batch starting at {} failed: {}", from, e.getMessage());
+            }
+            if (pending.size() >= WRITE_BATCH_SIZE) {
+                indexService.updateCitationCounts(pending, now);
+                updated += pending.size();
+                pending.clear();
+            }
+        }
+        if (!pending.isEmpty()) {
+            indexService.updateCitationCounts(pending, now);
+            updated += pending.size();
+        }
+        logger.info("Citation enrichment updated {} papers", updated);
+        return updated;
+    }
+
+    private List<String> findPapersToEnrich(long staleBefore) throws IOException {
+        List<String> ids = new ArrayList<>();
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            for (LeafReaderContext leaf : searcher.getIndexReader().leaves()) {
+                LeafReader reader = leaf.reader();
+                NumericDocValues lastUpdated = DocValues.getNumeric(reader, "citationsUpdated");
+                Bits liveDocs = reader.getLiveDocs();
+                for (int doc = 0; doc < reader.maxDoc(); doc++) {
+                    if (liveDocs != null && !liveDocs.get(doc)) {
+                        continue;
+                    }
+                    long updatedAt = lastUpdated.advanceExact(doc) ? lastUpdated.longValue() : 0;
+                    if (updatedAt < staleBefore) {
+                        ids.add(reader.document(doc, ID_FIELD).get("id"));
+                    }
+                }
+            }
+        } finally {
+            searcherManager.release(searcher);
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,242 @@
+package com.irs.researchengine.service;
+
+import java.io.File;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.irs.researchengine.data.CitationInfo;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Citation counts from Semantic Scholar, cached by cleaned arXiv id.
+ * Cache misses for a result page are fetched concurrently on a bounded pool under one overall deadline.
+ */
+@Service
+public class CitationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CitationService.class);
+    private static final String PAPER_PATH = "/graph/v1/paper/arXiv:%s?fields=citationCount,citations.url";
+    private static final String BATCH_PATH = "/graph/v1/paper/batch?fields=citationCount";
+    public static final int MAX_BATCH_SIZE = 500; // Semantic Scholar limit for the batch endpoint
+
+    @Value("${citation.api.url:https://api.semanticscholar.org}")
+    private String apiUrl;
+
+    @Value("${citation.cache.max-size:10000}")
+    private int cacheMaxSize;
+
+    @Value("${citation.cache.ttl-minutes:1440}")
+    private long cacheTtlMinutes;
+
+    // Optional file the cache is restored from at startup and saved to at shutdown
+    @Value("${citation.cache.path:}")
+    private String cachePath;
+
+    @Value("${citation.fetch.threads:8}")
+    private int fetchThreads;
+
+    @Value("${citation.fetch.deadline-ms:3000}")
+    private long fetchDeadlineMs;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private CitationCache cache;
+    private ExecutorService fetchPool;
+    private HttpClient httpClient;
+
+    @PostConstruct
+    public void init() {
+        cache = new CitationCache(cacheMaxSize, TimeUnit.MINUTES.toMillis(cacheTtlMinutes));
+        fetchPool = Executors.newFixedThreadPool(fetchThreads, runnable -> {
+            Thread thread = new Thread(runnable, "citation-fetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(fetchDeadlineMs))
+                .build();
+
+        File cacheFile = getCacheFile();
+        if (cacheFile != null && cacheFile.exists()) {
+            try {
+                cache.load(cacheFile, objectMapper);
+                logger.info("Loaded {} cached citation lookups from {}", cache.size(), cacheFile);
+            } catch (Exception e) {
+                logger.warn("Could not load citation cache from {}: {}", cacheFile, e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fetchPool.shutdownNow();
+        File cacheFile = getCacheFile();
+        if (cacheFile != null) {
+            try {
+                cache.save(cacheFile, objectMapper);
+            } catch (Exception e) {
+                logger.warn("Could not save citation cache to {}: {}", cacheFile, e.getMessage());
+            }
+        }
+    }
+
+    public CitationInfo getCitationInfo(String arxivId) {
+        return getCitationInfos(List.of(arxivId)).get(arxivId);
+    }
+
+    /**
+     * Looks up citations for all ids, returning an entry for every id.
+     * Ids not fetched before the deadline get an empty CitationInfo and are not cached.
+     */
+    public Map<String, CitationInfo> getCitationInfos(Collection<String> arxivIds) {
+        Map<String, CitationInfo> results = new LinkedHashMap<>();
+        Set<String> misses = new LinkedHashSet<>();
+        for (String arxivId : arxivIds) {
+            CitationInfo cached = cache.get(cleanId(arxivId));
+            if (cached != null) {
+                results.put(arxivId, cached);
+            } else {
+                misses.add(arxivId);
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            List<String> missIds = new ArrayList<>(misses);
+            List<Callable<CitationInfo>> fetches = missIds.stream()
+                    .map(arxivId -> (Callable<CitationInfo>) () -> fetchCitationInfo(cleanId(arxivId)))
+                    .collect(Collectors.toList());
+            try {
+                // invokeAll cancels whatever has not finished when the deadline passes
+                List<Future<CitationInfo>> futures = fetchPool.invokeAll(fetches, fetchDeadlineMs, TimeUnit.MILLISECONDS);
+                for (int i = 0; i < futures.size(); i++) {
+                    CitationInfo info = getIfFetched(futures.get(i));
+                    if (info != null) {
+                        cache.put(cleanId(missIds.get(i)), info);
+                        results.put(missIds.get(i), info);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        for (String arxivId : arxivIds) {
+            results.putIfAbsent(arxivId, new CitationInfo(0, new ArrayList<>()));
+        }
+        return results;
+    }
+
+    /**
+     * Fetches citation counts for up to {@link #MAX_BATCH_SIZE} papers in one request, bypassing the cache.
+     * Papers unknown to Semantic Scholar are reported with zero citations.
+     */
+    public Map<String, Integer> fetchCitationCounts(List<String> arxivIds) throws Exception {
+        List<String> requestIds = arxivIds.stream()
+                .map(arxivId -> "arXiv:" + cleanId(arxivId))
+                .collect(Collectors.toList());
+        HttpRequest request = HttpRequest.newBuilder(URI.create(apiUrl + BATCH_PATH))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(Map.of("ids", requestIds))))
+                .build();
+        HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+
+        try (InputStream inputStream = response.body()) {
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Citation batch request failed with response code " + response.statusCode());
+            }
+            // Entries come back in request order, null for unknown papers
+            List<Map<String, Object>> entries = objectMapper.readValue(inputStream, new TypeReference<List<Map<String, Object>>>() {});
+            Map<String, Integer> counts = new LinkedHashMap<>();
+            for (int i = 0; i < arxivIds.size(); i++) {
+                Map<String, Object> entry = i < entries.size() ? entries.get(i) : null;
+                Object count = entry != null ? entry.get("citationCount") : null;
+                counts.put(arxivIds.get(i), count instanceof Number ? ((Number) count).intValue() : 0);
+            }
+            return counts;
+        }
+    }
+
+    public static String cleanId(String arxivId) {
+        return arxivId.contains("/abs/") ? arxivId.split("/abs/")[1].split("v")[0] : arxivId;
+    }
+
+    private CitationInfo getIfFetched(Future<CitationInfo> future) {
+        if (future.isCancelled()) {
+            return null;
+        }
+        try {
+            return future.get();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    // Returns null when the lookup failed so the miss is retried on the next request
+    private CitationInfo fetchCitationInfo(String cleanId) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(apiUrl + String.format(PAPER_PATH, cleanId)))
+                .timeout(Duration.ofMillis(fetchDeadlineMs))
+                .GET()
+                .build();
+        HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+
+        try (InputStream inputStream = response.body()) {
+            if (response.statusCode() == 404) {
+                // Unknown to Semantic Scholar, worth caching as uncited
+                return new CitationInfo(0, new ArrayList<>());
+            }
+            if (response.statusCode() != 200) {
+                logger.warn("Failed to fetch citations for {}. Response code: {}", cleanId, response.statusCode());
+                return null;
+            }
+            // Parse the response as a Map
+            Map<String, Object> body = objectMapper.readValue(inputStream, new TypeReference<Map<String, Object>>() {});
+
+            // Extract data safely
+            int citationCount = body.get("citationCount") instanceof Number ? ((Number) body.get("citationCount")).intValue() : 0;
+            List<Map<String, String>> citations = body.get("citations") != null
+                    ? objectMapper.convertValue(body.get("citations"), new TypeReference<List<Map<String, String>>>() {})
+                    : new ArrayList<>();
+
+            List<String> citationUrls = citations.stream()
+                    .map(citation -> citation.get("url"))
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+
+            return new CitationInfo(citationCount, citationUrls);
+        }
+    }
+
+    private File getCacheFile() {
+        return (cachePath == null || cachePath.isBlank()) ? null : new File(cachePath);
+    }
+}
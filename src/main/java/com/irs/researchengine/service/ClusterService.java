@@ -4,50 +4,245 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.IndexNotFoundException;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NumericDocValues;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.ReferenceManager;
+import org.apache.lucene.util.Bits;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.irs.researchengine.utils.ClusterIndex;
+import com.irs.researchengine.utils.FeatureRescorer;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 
+/**
+ * Related papers from the clustering job's output. Cluster assignments are held in a {@link ClusterIndex} and
+ * members are ranked by a precomputed per-document score: the static rank (PageRank) stored in the index by
+ * {@link StaticRankService}, or the scores in {@code cluster.score.path} if set. The files are polled and the
+ * index is swapped when either changes, so a new clustering run is picked up without a restart. Static ranks are
+ * read again in the background whenever the shared searcher is refreshed; until an index exists, members are
+ * unranked.
+ */
 @Service
 public class ClusterService {
 
-    private final Map<String, Integer> docToCluster = new HashMap<>();
-    
+    private static final Logger logger = LoggerFactory.getLogger(ClusterService.class);
+
+    private static final Set<String> ID_FIELD = Set.of("id");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private IndexSearcherManager searcherManager;
+
     @Value("${cluster.path}")
     private String clusterFilePath;
 
+    // Optional {docId: score} JSON, higher ranks first; blank to rank by the static rank in the index
+    @Value("${cluster.score.path:}")
+    private String scoreFilePath;
+
+    // How often the files are checked for changes, 0 disables reloading
+    @Value("${cluster.reload.interval-ms:30000}")
+    private long reloadIntervalMs;
+
+    private volatile ClusterIndex clusterIndex = ClusterIndex.empty();
+    // Static ranks by document id, replaced after each refresh of the index and by StaticRankService
+    private Map<String, Double> staticRanks = Map.of();
+    private FileTime clusterFileTime;
+    private FileTime scoreFileTime;
+    private ScheduledExecutorService reloader;
+    private final AtomicBoolean rankReadPending = new AtomicBoolean();
+
     @PostConstruct
     public void loadClusters() throws IOException {
-        // Load cluster assignments from the file
-    	Path clusterFile = Paths.get(clusterFilePath);
-        if (Files.exists(clusterFile)) {
-            String json = Files.readString(clusterFile);
-            ObjectMapper objectMapper = new ObjectMapper();
-            TypeReference<Map<String, Integer>> typeRef = new TypeReference<>() {};
-            docToCluster.putAll(objectMapper.readValue(json, typeRef));
+        reloadIfChanged();
+        reloader = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cluster-reload");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (scoreFilePath.isBlank()) {
+            // Also called right away if the index is open already, and on the first open of a new index
+            searcherManager.addRefreshListener(new ReferenceManager.RefreshListener() {
+                @Override
+                public void beforeRefresh() {
+                }
+
+                @Override
+                public void afterRefresh(boolean didRefresh) {
+                    if (didRefresh) {
+                        scheduleStaticRankRead();
+                    }
+                }
+            });
+        }
+        if (reloadIntervalMs > 0) {
+            reloader.scheduleWithFixedDelay(() -> {
+                try {
+                    reloadIfChanged();
+                } catch (Exception e) {
+                    // Keep serving the index loaded last
+                    logger.error("Reloading clusters failed: {}", e.getMessage());
+                }
+            }, reloadIntervalMs, reloadIntervalMs, TimeUnit.MILLISECONDS);
         }
     }
 
-    public List<String> getRelatedDocs(String docId) {
-        Integer clusterLabel = docToCluster.get(docId);
-        if (clusterLabel == null) {
+    @PreDestroy
+    public void shutdown() {
+        if (reloader != null) {
+            reloader.shutdownNow();
+        }
+    }
+
+    /**
+     * Up to k papers from the same cluster as docId, best first, excluding docId itself.
+     */
+    public List<String> getRelatedDocs(String docId, int k) {
+        List<String> related = clusterIndex.related(docId, k);
+        if (related == null) {
             throw new IllegalArgumentException("Document ID not found in clusters.");
         }
-        // Find all document IDs in the same cluster
-        return docToCluster.entrySet().stream()
-                .filter(entry -> entry.getValue().equals(clusterLabel))
-                .map(Map.Entry::getKey)
-                .filter(id -> !id.equals(docId))  // Exclude the original document
-                .collect(Collectors.toList());
+        return related;
+    }
+
+    /**
+     * Re-ranks cluster members by newly computed static ranks, unless scores come from cluster.score.path.
+     */
+    public void updateStaticRanks(List<String> ids, float[] ranks) throws IOException {
+        Map<String, Double> scores = new HashMap<>(ids.size() * 2);
+        for (int i = 0; i < ids.size(); i++) {
+            scores.put(ids.get(i), (double) ranks[i]);
+        }
+        applyStaticRanks(scores);
     }
-}
 
+    private synchronized void applyStaticRanks(Map<String, Double> scores) throws IOException {
+        staticRanks = scores;
+        if (scoreFilePath.isBlank() && clusterFileTime != null) {
+            load(Paths.get(clusterFilePath), scores);
+        }
+    }
+
+    // Refreshes that arrive while a read is queued are folded into it
+    private void scheduleStaticRankRead() {
+        if (rankReadPending.compareAndSet(false, true)) {
+            reloader.execute(() -> {
+                rankReadPending.set(false);
+                try {
+                    applyStaticRanks(readStaticRanks());
+                } catch (Exception e) {
+                    logger.error("Reading static ranks failed: {}", e.getMessage());
+                }
+            });
+        }
+    }
+
+    /**
+     * @throws IOException if cluster.score.path is set but missing, rather than silently ranking unscored
+     */
+    synchronized void reloadIfChanged() throws IOException {
+        Path clusterFile = Paths.get(clusterFilePath);
+        Path scoreFile = scoreFilePath.isBlank() ? null : Paths.get(scoreFilePath);
+        FileTime clusterTime = lastModified(clusterFile);
+        FileTime scoreTime = lastModified(scoreFile);
+        if (scoreFile != null && scoreTime == null) {
+            throw new IOException("Cluster score file " + scoreFile + " does not exist; "
+                    + "leave cluster.score.path blank to rank by the static rank in the index");
+        }
+        if (Objects.equals(clusterTime, clusterFileTime) && Objects.equals(scoreTime, scoreFileTime)) {
+            return;
+        }
+
+        if (clusterTime != null) {
+            load(clusterFile, scoreFile != null ? readScores(scoreFile) : staticRanks);
+        } else {
+            clusterIndex = ClusterIndex.empty();
+        }
+        clusterFileTime = clusterTime;
+        scoreFileTime = scoreTime;
+    }
+
+    private void load(Path clusterFile, Map<String, Double> scores) throws IOException {
+        long start = System.nanoTime();
+        ClusterIndex index = readClusters(clusterFile, scores);
+        clusterIndex = index;
+        logger.info("Loaded {} documents in {} clusters in {} ms", index.size(), index.clusterCount(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    // Streams the {docId: clusterLabel} object straight into the index builder
+    private ClusterIndex readClusters(Path clusterFile, Map<String, Double> scores) throws IOException {
+        ClusterIndex.Builder builder = ClusterIndex.builder();
+        try (JsonParser parser = objectMapper.getFactory().createParser(clusterFile.toFile())) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Expected a JSON object of document ids to cluster labels in " + clusterFile);
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String docId = parser.currentName();
+                parser.nextToken();
+                builder.add(docId, parser.getIntValue());
+            }
+        }
+        return builder.build(scores);
+    }
+
+    private Map<String, Double> readScores(Path scoreFile) throws IOException {
+        return objectMapper.readValue(scoreFile.toFile(), new TypeReference<Map<String, Double>>() {});
+    }
+
+    // Papers indexed before static ranks existed have none and sort last; no index means no ranks
+    private Map<String, Double> readStaticRanks() throws IOException {
+        Map<String, Double> scores = new HashMap<>();
+        IndexSearcher searcher;
+        try {
+            searcher = searcherManager.acquire();
+        } catch (IndexNotFoundException e) {
+            return scores;
+        }
+        try {
+            for (LeafReaderContext leaf : searcher.getIndexReader().leaves()) {
+                LeafReader reader = leaf.reader();
+                Bits liveDocs = reader.getLiveDocs();
+                NumericDocValues ranks = DocValues.getNumeric(reader, FeatureRescorer.STATIC_RANK_FIELD);
+                for (int doc = ranks.nextDoc(); doc != NumericDocValues.NO_MORE_DOCS; doc = ranks.nextDoc()) {
+                    if (liveDocs == null || liveDocs.get(doc)) {
+                        scores.put(reader.document(doc, ID_FIELD).get("id"), (double) FeatureRescorer.decodeStaticRank(ranks.longValue()));
+                    }
+                }
+            }
+        } finally {
+            searcherManager.release(searcher);
+        }
+        return scores;
+    }
+
+    private static FileTime lastModified(Path file) throws IOException {
+        return file != null && Files.exists(file) ? Files.getLastModifiedTime(file) : null;
+    }
+}
@@ -0,0 +1,110 @@
+package com.irs.researchengine.service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.search.IndexOrDocValuesQuery;
+import org.apache.lucene.search.Query;
+
+/**
+ * An inclusive range of publication or update times, matched against the epoch millisecond points and
+ * DocValues written at indexing time. Bounds are a year ("2023"), a month ("2023-06"), a day ("2023-06-15") or
+ * an instant ("2023-06-15T12:00:00Z"), in UTC; a lower bound starts at the beginning of its period and an upper
+ * bound ends with it, so {@code from=2023&to=2023} is the whole of 2023.
+ */
+public class DateRange {
+
+    private final String field;
+    private final long from;
+    private final long to;
+
+    private DateRange(String field, long from, long to) {
+        this.field = field;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * The range on "published" (default) or "updated"; null when neither bound is given.
+     *
+     * @throws IllegalArgumentException for an unknown field, an unparseable bound or from after to
+     */
+    public static DateRange parse(String dateField, String from, String to) {
+        boolean hasFrom = from != null && !from.isBlank();
+        boolean hasTo = to != null && !to.isBlank();
+        if (!hasFrom && !hasTo) {
+            return null;
+        }
+        String field;
+        if (dateField == null || dateField.isBlank() || dateField.equals("published")) {
+            field = "publishedTime";
+        } else if (dateField.equals("updated")) {
+            field = "updatedTime";
+        } else {
+            throw new IllegalArgumentException("Unknown date field: " + dateField);
+        }
+        long lower = hasFrom ? bound(from.strip(), false) : Long.MIN_VALUE;
+        long upper = hasTo ? bound(to.strip(), true) : Long.MAX_VALUE;
+        if (lower > upper) {
+            throw new IllegalArgumentException("Date range starts after it ends: " + from + " to " + to);
+        }
+        return new DateRange(field, lower, upper);
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    public long getFrom() {
+        return from;
+    }
+
+    public long getTo() {
+        return to;
+    }
+
+    /**
+     * A filter for the range. The BKD points lead when the range is selective; when another clause is the
+     * cheaper lead, matches are checked against DocValues instead of intersecting the whole range.
+     */
+    Query toQuery() {
+        return new IndexOrDocValuesQuery(LongPoint.newRangeQuery(field, from, to),
+                NumericDocValuesField.newSlowRangeQuery(field, from, to));
+    }
+
+    // Identifies the range in cache keys and cursor fingerprints
+    String key() {
+        return field + ":" + from + ".." + to;
+    }
+
+    private static long bound(String value, boolean upper) {
+        try {
+            if (value.contains("T")) {
+                return Instant.parse(value).toEpochMilli();
+            }
+            LocalDate start;
+            LocalDate next;
+            if (value.length() == 4) {
+                start = Year.parse(value).atDay(1);
+                next = start.plusYears(1);
+            } else if (value.length() == 7) {
+                start = YearMonth.parse(value).atDay(1);
+                next = start.plusMonths(1);
+            } else {
+                start = LocalDate.parse(value);
+                next = start.plusDays(1);
+            }
+            LocalDate day = upper ? next : start;
+            long millis = day.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+            return upper ? millis - 1 : millis;
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date: " + value);
+        }
+    }
+}
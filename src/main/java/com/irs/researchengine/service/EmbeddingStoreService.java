@@ -0,0 +1,142 @@
+package com.irs.researchengine.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.irs.researchengine.service.SemanticSearchClient.SemanticSearchUnavailableException;
+import com.irs.researchengine.vector.EmbeddingScorer;
+import com.irs.researchengine.vector.EmbeddingStore;
+import com.irs.researchengine.vector.VectorHit;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Exact similarity over the document embeddings without the FAISS service: re-ranking search candidates and
+ * nearest neighbours for related papers. The memory-mapped store is (re)built from the exported embeddings
+ * file when it is missing or older; without either, {@link #isAvailable()} is false and callers skip it.
+ */
+@Service
+public class EmbeddingStoreService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmbeddingStoreService.class);
+
+    @Value("${semantic.hnsw.embeddings-path:./dataset/embeddings.jsonl}")
+    private String embeddingsPath;
+
+    @Value("${semantic.embeddings.store-path:./dataset/embeddings.bin}")
+    private String storePath;
+
+    // int8 needs a quarter of the memory of float32
+    @Value("${semantic.embeddings.encoding:int8}")
+    private EmbeddingStore.Encoding encoding;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private QueryEmbeddingClient queryEmbeddingClient;
+
+    private volatile EmbeddingScorer scorer;
+
+    @PostConstruct
+    public void init() {
+        Path store = Paths.get(storePath);
+        File embeddings = new File(embeddingsPath);
+        try {
+            EmbeddingStore opened = Files.exists(store) ? EmbeddingStore.open(store) : null;
+            if (embeddings.exists() && (opened == null || opened.encoding() != encoding
+                    || Files.getLastModifiedTime(store).toMillis() < embeddings.lastModified())) {
+                long start = System.nanoTime();
+                if (store.toAbsolutePath().getParent() != null) {
+                    Files.createDirectories(store.toAbsolutePath().getParent());
+                }
+                EmbeddingStore.write(embeddings, objectMapper, store, encoding);
+                opened = EmbeddingStore.open(store);
+                logger.info("Built {} embedding store in {} ms", encoding, (System.nanoTime() - start) / 1_000_000);
+            }
+            if (opened != null) {
+                scorer = new EmbeddingScorer(opened);
+                logger.info("Mapped {} {} embeddings of dimension {}", opened.size(), opened.encoding(), opened.dimension());
+            }
+        } catch (IOException e) {
+            // Search works without it, only re-ranking and embedding neighbours are off
+            logger.warn("Embedding store unavailable: {}", e.getMessage());
+        }
+    }
+
+    public boolean isAvailable() {
+        return scorer != null;
+    }
+
+    /**
+     * Scorer over the mapped store, null when it is unavailable.
+     */
+    public EmbeddingScorer getScorer() {
+        return scorer;
+    }
+
+    /**
+     * The ids of the k papers with the most similar embeddings; null if the paper has none.
+     */
+    public List<String> getNeighbours(String docId, int k) {
+        EmbeddingScorer current = scorer;
+        if (current == null) {
+            return null;
+        }
+        List<VectorHit> hits = current.neighbours(docId, k);
+        return hits != null ? ids(hits) : null;
+    }
+
+    /**
+     * Orders the candidates by cosine similarity of their embeddings to the query. Candidates without an
+     * embedding keep their relative order after the scored ones.
+     *
+     * @throws SemanticSearchUnavailableException if the query cannot be embedded
+     */
+    public List<String> rerank(String query, List<String> candidates) {
+        EmbeddingScorer current = scorer;
+        if (current == null || candidates.isEmpty()) {
+            return candidates;
+        }
+        float[] vector = queryEmbeddingClient.embed(query);
+        if (vector.length != current.store().dimension()) {
+            throw new SemanticSearchUnavailableException("Query embedding has dimension " + vector.length
+                    + ", the store has " + current.store().dimension(), null);
+        }
+        List<VectorHit> hits = current.score(vector, candidates);
+        hits.sort(Comparator.comparingDouble(VectorHit::getScore).reversed());
+        List<String> ranked = ids(hits);
+        if (ranked.size() < candidates.size()) {
+            Set<String> scored = new HashSet<>(ranked);
+            for (String id : candidates) {
+                if (!scored.contains(id)) {
+                    ranked.add(id);
+                }
+            }
+        }
+        return ranked;
+    }
+
+    private static List<String> ids(List<VectorHit> hits) {
+        List<String> ids = new ArrayList<>(hits.size());
+        for (VectorHit hit : hits) {
+            ids.add(hit.getId());
+        }
+        return ids;
+    }
+}
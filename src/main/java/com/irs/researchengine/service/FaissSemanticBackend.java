@@ -0,0 +1,32 @@
+package com.irs.researchengine.service;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * Semantic search through the Python FAISS service: documents are uploaded by {@link SemanticIndexService} and
+ * queries go through {@link SemanticSearchClient}.
+ */
+@Service
+@ConditionalOnProperty(name = "semantic.backend", havingValue = "faiss", matchIfMissing = true)
+public class FaissSemanticBackend implements SemanticBackend {
+
+    @Autowired
+    private SemanticSearchClient semanticSearchClient;
+
+    @Autowired
+    private SemanticIndexService semanticIndexService;
+
+    @Override
+    public List<String> search(String query, int topK) {
+        return semanticSearchClient.search(query, topK);
+    }
+
+    @Override
+    public void indexFromDataset(String datasetPath) throws Exception {
+        semanticIndexService.indexFromDataset(datasetPath);
+    }
+}
@@ -0,0 +1,172 @@
+package com.irs.researchengine.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.irs.researchengine.service.SemanticSearchClient.SemanticSearchUnavailableException;
+import com.irs.researchengine.vector.EmbeddingFileReader;
+import com.irs.researchengine.vector.HnswIndex;
+import com.irs.researchengine.vector.VectorHit;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Semantic search over an in-process {@link HnswIndex} built from precomputed document embeddings, so queries
+ * need no FAISS round trip. Only the query text is still embedded by the Python service (/embed/), since the
+ * sentence-transformers model runs there.
+ */
+@Service
+@ConditionalOnProperty(name = "semantic.backend", havingValue = "hnsw")
+public class HnswSemanticBackend implements SemanticBackend {
+
+    private static final Logger logger = LoggerFactory.getLogger(HnswSemanticBackend.class);
+    private static final int INSERT_CHUNK_SIZE = 1000;
+
+    // JSON Lines of {"id", "embedding"} written by NLP/export_embeddings.py
+    @Value("${semantic.hnsw.embeddings-path:./dataset/embeddings.jsonl}")
+    private String embeddingsPath;
+
+    @Value("${semantic.hnsw.index-path:./dataset/hnsw.index}")
+    private String indexPath;
+
+    @Value("${semantic.hnsw.m:32}")
+    private int m;
+
+    @Value("${semantic.hnsw.ef-construction:200}")
+    private int efConstruction;
+
+    @Value("${semantic.hnsw.ef-search:50}")
+    private int efSearch;
+
+    // 0 uses one thread per core
+    @Value("${semantic.hnsw.build-threads:0}")
+    private int buildThreads;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private QueryEmbeddingClient queryEmbeddingClient;
+
+    private volatile HnswIndex index;
+
+    @PostConstruct
+    public void init() throws IOException {
+        Path path = Paths.get(indexPath);
+        if (Files.exists(path)) {
+            long start = System.nanoTime();
+            index = HnswIndex.load(path, efSearch);
+            logger.info("Loaded HNSW index with {} vectors in {} ms", index.size(), (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    @Override
+    public List<String> search(String query, int topK) {
+        HnswIndex current = index;
+        if (current == null) {
+            return List.of(); // Nothing indexed yet, like the FAISS service's 404
+        }
+        float[] vector = queryEmbeddingClient.embed(query);
+        if (vector.length != current.dimension()) {
+            throw new SemanticSearchUnavailableException("Query embedding has dimension " + vector.length
+                    + ", the index has " + current.dimension(), null);
+        }
+        List<VectorHit> hits = current.search(vector, topK);
+        List<String> ids = new ArrayList<>(hits.size());
+        for (VectorHit hit : hits) {
+            ids.add(hit.getId());
+        }
+        return ids;
+    }
+
+    /**
+     * Builds a new index from the embeddings file with concurrent inserts, saves it and swaps it in.
+     * The dataset path is not read: the embeddings file is exported from the same dataset.
+     */
+    @Override
+    public void indexFromDataset(String datasetPath) throws Exception {
+        File embeddings = new File(embeddingsPath);
+        if (!embeddings.exists()) {
+            throw new IOException("No embeddings at " + embeddingsPath + "; export them with NLP/export_embeddings.py");
+        }
+        long start = System.nanoTime();
+        int threads = buildThreads > 0 ? buildThreads : Runtime.getRuntime().availableProcessors();
+        ExecutorService inserters = Executors.newFixedThreadPool(threads);
+        CompletionService<Integer> completed = new ExecutorCompletionService<>(inserters);
+        int maxInFlight = threads * 2;
+        int inFlight = 0;
+        HnswIndex built = null;
+        try (EmbeddingFileReader reader = new EmbeddingFileReader(embeddings, objectMapper)) {
+            List<String> ids = new ArrayList<>(INSERT_CHUNK_SIZE);
+            List<float[]> vectors = new ArrayList<>(INSERT_CHUNK_SIZE);
+            boolean more = reader.next();
+            while (more) {
+                ids.add(reader.getId());
+                vectors.add(reader.getVector());
+                more = reader.next();
+                if (ids.size() == INSERT_CHUNK_SIZE || !more) {
+                    if (built == null) {
+                        built = new HnswIndex(vectors.get(0).length, m, efConstruction, efSearch, 42L);
+                    }
+                    if (inFlight == maxInFlight) {
+                        awaitChunk(completed);
+                        inFlight--;
+                    }
+                    HnswIndex target = built;
+                    List<String> chunkIds = ids;
+                    List<float[]> chunkVectors = vectors;
+                    completed.submit(() -> {
+                        for (int i = 0; i < chunkIds.size(); i++) {
+                            target.add(chunkIds.get(i), chunkVectors.get(i));
+                        }
+                        return chunkIds.size();
+                    });
+                    inFlight++;
+                    ids = new ArrayList<>(INSERT_CHUNK_SIZE);
+                    vectors = new ArrayList<>(INSERT_CHUNK_SIZE);
+                }
+            }
+            for (; inFlight > 0; inFlight--) {
+                awaitChunk(completed);
+            }
+        } finally {
+            inserters.shutdownNow();
+        }
+        if (built == null) {
+            throw new IOException("No embeddings in " + embeddingsPath);
+        }
+        Path path = Paths.get(indexPath);
+        if (path.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+        }
+        built.save(path);
+        index = built;
+        logger.info("Built HNSW index with {} vectors in {} ms", built.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static void awaitChunk(CompletionService<Integer> completed) throws Exception {
+        try {
+            completed.take().get();
+        } catch (ExecutionException e) {
+            throw (e.getCause() instanceof Exception) ? (Exception) e.getCause() : e;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.irs.researchengine.service;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexNotFoundException;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.ReferenceManager;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Holds a single long-lived reader over the Lucene index and hands out searchers per request.
+ * Callers must pair every {@link #acquire()} with a {@link #release(IndexSearcher)} in a finally block.
+ */
+@Service
+public class IndexSearcherManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndexSearcherManager.class);
+
+    @Value("${index.path}")
+    private String indexPath;
+
+    @Value("${index.refresh.interval.ms:1000}")
+    private long refreshIntervalMs;
+
+    private Directory directory;
+    private volatile SearcherManager searcherManager;
+    private ScheduledExecutorService refresher;
+    private final List<ReferenceManager.RefreshListener> listeners = new CopyOnWriteArrayList<>();
+
+    @PostConstruct
+    public void init() throws IOException {
+        directory = FSDirectory.open(Paths.get(indexPath));
+        refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "index-searcher-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Picks up commits made outside of refresh(), e.g. by another process writing the same index
+        refresher.scheduleWithFixedDelay(this::refreshQuietly, refreshIntervalMs, refreshIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public IndexSearcher acquire() throws IOException {
+        return getSearcherManager().acquire();
+    }
+
+    public void release(IndexSearcher searcher) throws IOException {
+        if (searcher != null) {
+            searcherManager.release(searcher);
+        }
+    }
+
+    /**
+     * Version of the current reader; it changes whenever a refresh opens a new one.
+     */
+    public long getReaderVersion() throws IOException {
+        IndexSearcher searcher = acquire();
+        try {
+            return getReaderVersion(searcher);
+        } finally {
+            release(searcher);
+        }
+    }
+
+    /**
+     * Version of the reader behind a searcher acquired from this manager.
+     */
+    public static long getReaderVersion(IndexSearcher searcher) {
+        return ((DirectoryReader) searcher.getIndexReader()).getVersion();
+    }
+
+    /**
+     * Makes the latest commit visible to new searchers. Called by the indexer after it commits.
+     */
+    public void refresh() throws IOException {
+        SearcherManager manager = searcherManager;
+        if (manager == null) {
+            openIfIndexExists();
+        } else {
+            manager.maybeRefreshBlocking();
+        }
+    }
+
+    /**
+     * Registers a listener notified after every refresh, including the first open of the index.
+     */
+    public synchronized void addRefreshListener(ReferenceManager.RefreshListener listener) throws IOException {
+        listeners.add(listener);
+        if (searcherManager != null) {
+            searcherManager.addListener(listener);
+            listener.afterRefresh(true);
+        }
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            logger.warn("Background index refresh failed: {}", e.getMessage());
+        }
+    }
+
+    private SearcherManager getSearcherManager() throws IOException {
+        SearcherManager manager = searcherManager;
+        if (manager == null) {
+            manager = openIfIndexExists();
+            if (manager == null) {
+                throw new IndexNotFoundException("No index found at " + indexPath);
+            }
+        }
+        return manager;
+    }
+
+    private synchronized SearcherManager openIfIndexExists() throws IOException {
+        if (searcherManager == null && DirectoryReader.indexExists(directory)) {
+            SearcherManager manager = new SearcherManager(directory, null);
+            for (ReferenceManager.RefreshListener listener : listeners) {
+                manager.addListener(listener);
+            }
+            searcherManager = manager;
+            logger.info("Opened shared index reader at: {}", indexPath);
+            // Opening is the first refresh as far as listeners are concerned
+            for (ReferenceManager.RefreshListener listener : listeners) {
+                listener.afterRefresh(true);
+            }
+        }
+        return searcherManager;
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+        if (searcherManager != null) {
+            searcherManager.close();
+        }
+        if (directory != null) {
+            directory.close();
+        }
+    }
+}
@@ -8,32 +8,48 @@ import org.apache.lucene.analysis.TokenStream;
 import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.SortedSetDocValuesField;
+import org.apache.lucene.document.StoredField;
 import org.apache.lucene.document.StringField;
 import org.apache.lucene.document.TextField;
 import org.apache.lucene.index.*;
-import org.apache.lucene.search.IndexSearcher;
-import org.apache.lucene.search.MatchAllDocsQuery;
-import org.apache.lucene.search.ScoreDoc;
-import org.apache.lucene.search.TermQuery;
-import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
 
 import java.io.File;
 import java.io.IOException;
 
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import com.irs.researchengine.nlp.CustomAnalyzer;
 import com.irs.researchengine.utils.CorpusUtils;
+import com.irs.researchengine.utils.DatasetReader;
+import com.irs.researchengine.utils.FeatureRescorer;
+import com.irs.researchengine.utils.MinHash;
 
 import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 @Service
@@ -48,121 +64,336 @@ public class IndexService {
     @Autowired
     private CorpusUtils corpusUtils;
     
+    @Autowired
+    private IndexSearcherManager searcherManager;
+    
+    @Autowired
+    private CustomAnalyzer analyzer;
+    
+    // Bulk ingest tuning: worker threads building documents, writer RAM buffer and commit cadence
+    @Value("${index.bulk.threads:0}")
+    private int bulkThreads;
+    
+    @Value("${index.bulk.ram-buffer-mb:256}")
+    private double ramBufferSizeMb;
+    
+    @Value("${index.bulk.commit-interval:50000}")
+    private long commitInterval;
+    
+    // Sorts segments newest first so "newest first" searches stop after the first hits of each segment. Lucene
+    // cannot change the sort of an index, so this only applies to indexes created while it is on
+    @Value("${index.sort.published:false}")
+    private boolean sortByPublished;
+    
+    public static final Sort NEWEST_FIRST = new Sort(new SortField(FeatureRescorer.PUBLISHED_FIELD, SortField.Type.LONG, true));
+    
+    private static final Logger logger = LoggerFactory.getLogger(IndexService.class);
+    private static final int BULK_CHUNK_SIZE = 500; // Papers handed to a worker at a time
+    
     private static final int SHINGLE_SIZE = 3; // Shingle size for character n-grams
     private static final double SIMILARITY_THRESHOLD = 0.85; // Near-duplicate similarity threshold
+    // 20 bands of 8 rows: pairs at the 0.85 threshold become LSH candidates with probability ~0.998
+    private static final int MINHASH_BANDS = 20;
+    private static final int MINHASH_ROWS = 8;
+    
+    private final MinHash minHash = new MinHash(MINHASH_BANDS * MINHASH_ROWS, 42L);
     
  // Data structure to track near-duplicates for manual review
-    private final List<DuplicateRecord> flaggedDuplicates = new ArrayList<>();
+    private final List<DuplicateRecord> flaggedDuplicates = Collections.synchronizedList(new ArrayList<>());
     
     public void indexFromDataset(String datasetPath) throws IOException {
-        List<Paper> papers = Arrays.asList(objectMapper.readValue(new File(datasetPath), Paper[].class));
-        try {
-            indexPapers(papers);
+        // Accepts both a JSON array and the JSON Lines datasets written by the harvester, read one batch at a time
+        try (DatasetReader reader = new DatasetReader(new File(datasetPath), objectMapper, BULK_CHUNK_SIZE)) {
+            indexBatches(reader);
+            logger.info("Read {} papers from {}", reader.getCount(), datasetPath);
         } catch (Exception e) {
             e.printStackTrace();
         }
     }
 
     public void indexPapers(List<Paper> papers) throws Exception {
+        List<List<Paper>> chunks = new ArrayList<>();
+        for (int from = 0; from < papers.size(); from += BULK_CHUNK_SIZE) {
+            chunks.add(papers.subList(from, Math.min(from + BULK_CHUNK_SIZE, papers.size())));
+        }
+        indexBatches(chunks.iterator());
+    }
+
+    // Synchronized with the other writer operations, the index allows a single IndexWriter at a time
+    private synchronized void indexBatches(Iterator<List<Paper>> batches) throws Exception {
+        IngestStats stats = new IngestStats();
         try (Directory dir = FSDirectory.open(Paths.get(indexPath))) {
-            Analyzer analyzer = new CustomAnalyzer();
-            IndexWriterConfig iwc = new IndexWriterConfig(analyzer);
-            iwc.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+            IndexWriterConfig iwc = newWriterConfig(dir, analyzer);
 
             try (IndexWriter writer = new IndexWriter(dir, iwc)) {
-                for (Paper paper : papers) {
-                	if (!isNearDuplicate(writer, paper)) {
-                        indexPaper(writer, paper);
-                    }
+                // Existing ids and signatures are loaded once instead of reopening a reader per paper
+                long loadStart = System.nanoTime();
+                try (NearDuplicateIndex duplicateIndex = NearDuplicateIndex.open(writer, minHash, MINHASH_BANDS, MINHASH_ROWS, SHINGLE_SIZE)) {
+                    stats.recordLoad(duplicateIndex.size(), System.nanoTime() - loadStart);
+                    indexInParallel(writer, duplicateIndex, batches, stats);
                 }
+                long commitStart = System.nanoTime();
+                writer.commit();
+                stats.recordCommit(System.nanoTime() - commitStart);
             }
         }
+        // Writer is closed and committed, let searchers see the new documents
+        searcherManager.refresh();
+        stats.log(logger);
     }
 
-    private void indexPaper(IndexWriter writer, Paper paper) throws Exception {
-    	// Check if the paper already exists in the index by ID
-        if (!documentExists(writer, paper.getId())) {
-            // If not, index the paper
-        	Document doc = new Document();
-        	doc.add(new StringField("id", paper.getId(), Field.Store.YES));
-        	doc.add(new TextField("title", paper.getTitle(), Field.Store.YES));
-        	doc.add(new TextField("summary", paper.getSummary(), Field.Store.YES));
-        	doc.add(new StringField("pdfLink", paper.getPdfLink(), Field.Store.YES));
-        	doc.add(new TextField("comment", paper.getComment(), Field.Store.YES));
-        	doc.add(new StringField("updated", paper.getUpdated(), Field.Store.YES));
-        	doc.add(new StringField("published", paper.getPublished(), Field.Store.YES));
-        	doc.add(new StringField("primaryCategory", paper.getPrimaryCategory(), Field.Store.YES));
-        	doc.add(new StringField("primaryCategoryCode", paper.getCategoryCode(), Field.Store.YES));
-        	if (paper.getAuthors() != null && !paper.getAuthors().isEmpty()) {
-        		String allAuthors = String.join(", ", paper.getAuthors());
-        		doc.add(new TextField("authors", allAuthors, Field.Store.YES));
-        	}
-        	
-        	// Extract and add n-grams from title
-            List<String> nGrams = extractSignificantNGrams(paper.getTitle());
-            for (String nGram : nGrams) {
-                doc.add(new TextField("domainTerms", nGram, Field.Store.YES));
+    /**
+     * Writes citation counts into the "citationCount" DocValues of already indexed papers,
+     * stamping "citationsUpdated" so a refresh can pick out stale documents.
+     */
+    public synchronized void updateCitationCounts(Map<String, Integer> counts, long updatedAt) throws IOException {
+        try (Directory dir = FSDirectory.open(Paths.get(indexPath));
+             IndexWriter writer = new IndexWriter(dir, newWriterConfig(dir, analyzer))) {
+            for (Map.Entry<String, Integer> count : counts.entrySet()) {
+                writer.updateDocValues(new Term("id", count.getKey()),
+                        new NumericDocValuesField("citationCount", count.getValue()),
+                        new NumericDocValuesField("citationsUpdated", updatedAt));
             }
-
-        	writer.addDocument(doc);
+            writer.commit();
         }
+        searcherManager.refresh();
     }
-    // Method to check if a document with the given ID exists
-    private boolean documentExists(IndexWriter writer, String paperId) throws IOException {
-        try (IndexReader reader = DirectoryReader.open(writer)) {
-            // Search for the paper by ID field
-            Term term = new Term("id", paperId);
-            TermQuery query = new TermQuery(term);
-            IndexSearcher searcher = new IndexSearcher(reader);
-            TopDocs topDocs = searcher.search(query, 1);
-            return topDocs.totalHits.value > 0;  // If total hits is greater than 0, it exists
+
+    /**
+     * Writes static ranks into the "staticRank" DocValues of already indexed papers, ranks[i] for ids.get(i).
+     */
+    public synchronized void updateStaticRanks(List<String> ids, float[] ranks) throws IOException {
+        try (Directory dir = FSDirectory.open(Paths.get(indexPath));
+             IndexWriter writer = new IndexWriter(dir, newWriterConfig(dir, analyzer))) {
+            for (int i = 0; i < ids.size(); i++) {
+                writer.updateDocValues(new Term("id", ids.get(i)),
+                        new NumericDocValuesField(FeatureRescorer.STATIC_RANK_FIELD, FeatureRescorer.encodeStaticRank(ranks[i])));
+            }
+            writer.commit();
         }
+        searcherManager.refresh();
     }
-    
-    private boolean isNearDuplicate(IndexWriter writer, Paper newPaper) throws IOException {
-        try (IndexReader reader = DirectoryReader.open(writer)) {
-            IndexSearcher searcher = new IndexSearcher(reader);
 
-            // Query for all existing papers
-            MatchAllDocsQuery query = new MatchAllDocsQuery();
-            TopDocs topDocs = searcher.search(query, Integer.MAX_VALUE);
+    private IndexWriterConfig newWriterConfig(Directory dir, Analyzer analyzer) throws IOException {
+        IndexWriterConfig iwc = new IndexWriterConfig(analyzer);
+        iwc.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        iwc.setRAMBufferSizeMB(ramBufferSizeMb);
+        Sort sort = indexSort(dir);
+        if (sort != null) {
+            iwc.setIndexSort(sort);
+        }
+        return iwc;
+    }
 
-            for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
-                Document existingDoc = searcher.doc(scoreDoc.doc);
-                String existingSummary = existingDoc.get("summary");
+    // A writer must open an existing index with the sort it was built with, or none if any segment is unsorted;
+    // only a new or empty index takes the configured sort
+    private Sort indexSort(Directory dir) throws IOException {
+        if (!DirectoryReader.indexExists(dir)) {
+            return sortByPublished ? NEWEST_FIRST : null;
+        }
+        SegmentInfos segments = SegmentInfos.readLatestCommit(dir);
+        if (segments.size() == 0) {
+            return sortByPublished ? NEWEST_FIRST : null;
+        }
+        Sort sort = null;
+        for (SegmentCommitInfo segment : segments) {
+            sort = segment.info.getIndexSort();
+            if (sort == null) {
+                break;
+            }
+        }
+        if (sortByPublished && !NEWEST_FIRST.equals(sort)) {
+            logger.warn("index.sort.published is set but the index at {} is not sorted by publication date; "
+                    + "delete it and reindex to sort it", indexPath);
+        }
+        return sort;
+    }
 
-                // Compute similarity
-                double similarity = computeJaccardSimilarity(newPaper.getSummary(), existingSummary);
-                if (similarity >= SIMILARITY_THRESHOLD) {
-                    // Flag as a near-duplicate for manual review
-                    flaggedDuplicates.add(new DuplicateRecord(newPaper, existingDoc));
-                    return true; // Skip indexing this paper
+    private void indexInParallel(IndexWriter writer, NearDuplicateIndex duplicateIndex, Iterator<List<Paper>> batches, IngestStats stats) throws Exception {
+        int threads = bulkThreads > 0 ? bulkThreads : Runtime.getRuntime().availableProcessors();
+        // Batches are pulled from the source while earlier ones are indexed; capping the number in flight
+        // keeps memory flat however large the dataset is
+        int maxInFlight = threads * 2;
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        CompletionService<Void> completed = new ExecutorCompletionService<>(workers);
+        AtomicLong lastCommitAt = new AtomicLong();
+        int inFlight = 0;
+        try {
+            while (batches.hasNext()) {
+                if (inFlight == maxInFlight) {
+                    awaitBatch(completed);
+                    inFlight--;
                 }
+                List<Paper> batch = batches.next();
+                completed.submit(() -> {
+                    for (Paper paper : batch) {
+                        indexPaper(writer, duplicateIndex, paper, stats);
+                        maybeCommit(writer, stats, lastCommitAt);
+                    }
+                    return null;
+                });
+                inFlight++;
+            }
+            for (; inFlight > 0; inFlight--) {
+                awaitBatch(completed);
             }
+        } finally {
+            workers.shutdownNow();
         }
-        return false; // No near-duplicates found
     }
-    
-    private double computeJaccardSimilarity(String text1, String text2) {
-        Set<String> shingles1 = generateShingles(text1, SHINGLE_SIZE);
-        Set<String> shingles2 = generateShingles(text2, SHINGLE_SIZE);
 
-        Set<String> intersection = new HashSet<>(shingles1);
-        intersection.retainAll(shingles2);
+    private static void awaitBatch(CompletionService<Void> completed) throws Exception {
+        try {
+            completed.take().get();
+        } catch (ExecutionException e) {
+            throw (e.getCause() instanceof Exception) ? (Exception) e.getCause() : e;
+        }
+    }
+
+    private void indexPaper(IndexWriter writer, NearDuplicateIndex duplicateIndex, Paper paper, IngestStats stats) throws Exception {
+        // Shingling and MinHash run on the worker thread; only the decision itself is serialized, so two
+        // near-duplicates in the same batch can't both get in
+        long dedupStart = System.nanoTime();
+        int[] shingles = MinHash.shingles(paper.getSummary(), SHINGLE_SIZE);
+        int[] signature = minHash.signature(shingles);
+        boolean skip;
+        synchronized (duplicateIndex) {
+            // The id lookup is cheapest, and a paper that is indexed already is not a near-duplicate of itself
+            skip = duplicateIndex.containsId(paper.getId())
+                    || isNearDuplicate(duplicateIndex, paper, shingles, signature);
+            if (!skip) {
+                // Later duplicate checks only read stored fields, the full document is built below
+                duplicateIndex.add(paper.getId(), storedFields(paper), signature);
+            }
+        }
+        stats.recordDedup(System.nanoTime() - dedupStart, skip);
+        if (skip) {
+            return;
+        }
+
+        // The n-gram analysis is only paid for papers that are written
+        long buildStart = System.nanoTime();
+        Document doc = buildDocument(paper, signature);
+        stats.recordBuild(System.nanoTime() - buildStart);
+
+        // IndexWriter is thread-safe, analysis happens concurrently on each worker
+        long writeStart = System.nanoTime();
+        writer.addDocument(doc);
+        stats.recordWrite(System.nanoTime() - writeStart);
+    }
 
-        Set<String> union = new HashSet<>(shingles1);
-        union.addAll(shingles2);
+    private void maybeCommit(IndexWriter writer, IngestStats stats, AtomicLong lastCommitAt) throws IOException {
+        long written = stats.getWrittenDocs();
+        long last = lastCommitAt.get();
+        if (written - last >= commitInterval && lastCommitAt.compareAndSet(last, written)) {
+            long commitStart = System.nanoTime();
+            writer.commit();
+            stats.recordCommit(System.nanoTime() - commitStart);
+            searcherManager.refresh();
+            logger.info("Committed {} documents", written);
+        }
+    }
 
-        return (double) intersection.size() / union.size();
+    // The paper's own stored fields, without the analysis-heavy ones
+    private Document storedFields(Paper paper) {
+    	Document doc = new Document();
+    	doc.add(new StringField("id", paper.getId(), Field.Store.YES));
+    	doc.add(new TextField("title", paper.getTitle(), Field.Store.YES));
+    	doc.add(new TextField("summary", paper.getSummary(), Field.Store.YES));
+    	doc.add(new StringField("pdfLink", paper.getPdfLink(), Field.Store.YES));
+    	doc.add(new TextField("comment", paper.getComment(), Field.Store.YES));
+    	doc.add(new StringField("updated", paper.getUpdated(), Field.Store.YES));
+    	doc.add(new StringField("published", paper.getPublished(), Field.Store.YES));
+    	doc.add(new StringField("primaryCategory", paper.getPrimaryCategory(), Field.Store.YES));
+    	doc.add(new StringField("primaryCategoryCode", paper.getCategoryCode(), Field.Store.YES));
+    	if (paper.getAuthors() != null && !paper.getAuthors().isEmpty()) {
+    		String allAuthors = String.join(", ", paper.getAuthors());
+    		doc.add(new TextField("authors", allAuthors, Field.Store.YES));
+    	}
+    	return doc;
+    }
+
+    private Document buildDocument(Paper paper, int[] signature) {
+    	Document doc = storedFields(paper);
+
+    	// Extract and add n-grams from title
+        List<String> nGrams = extractSignificantNGrams(paper.getTitle());
+        for (String nGram : nGrams) {
+            doc.add(new TextField("domainTerms", nGram, Field.Store.YES));
+        }
+        
+        // MinHash signature of the summary, reloaded into the LSH table on the next run
+        doc.add(new StoredField("minhash", MinHash.toBytes(signature)));
+        
+        // Citation features, filled in later by the citation enrichment job
+        doc.add(new NumericDocValuesField("citationCount", 0));
+        doc.add(new NumericDocValuesField("citationsUpdated", 0));
+        
+        // Facets, counted from DocValues during the search instead of from stored fields
+        doc.add(new SortedSetDocValuesField("categoryFacet", new BytesRef(paper.getCategoryCode())));
+        if (paper.getAuthors() != null) {
+            for (String author : paper.getAuthors()) {
+                if (author != null && !author.isBlank()) {
+                    doc.add(new SortedSetDocValuesField("authorFacet", new BytesRef(author.strip())));
+                }
+            }
+        }
+        long published = toEpochMillis(paper.getPublished());
+        if (published > 0) {
+            doc.add(new NumericDocValuesField("publishedYear", Instant.ofEpochMilli(published).atZone(ZoneOffset.UTC).getYear()));
+        }
+        
+        // Date range filters: points for selective ranges, DocValues to verify matches of other clauses. Both are
+        // left out for an unknown date, so either way of matching skips the paper. The published time is also a
+        // rescorer feature and the index sort, which read a missing value as 0
+        long updated = toEpochMillis(paper.getUpdated());
+        if (published > 0) {
+            doc.add(new LongPoint(FeatureRescorer.PUBLISHED_FIELD, published));
+            doc.add(new NumericDocValuesField(FeatureRescorer.PUBLISHED_FIELD, published));
+        }
+        if (updated > 0) {
+            doc.add(new LongPoint("updatedTime", updated));
+            doc.add(new NumericDocValuesField("updatedTime", updated));
+        }
+        
+        // The static rank stays 0 until StaticRankService computes one
+        doc.add(new NumericDocValuesField(FeatureRescorer.STATIC_RANK_FIELD, FeatureRescorer.encodeStaticRank(0)));
+        return doc;
     }
     
-    private Set<String> generateShingles(String text, int shingleSize) {
-        text = text.replaceAll("\\s+", "").toLowerCase(); // Normalize text
-        Set<String> shingles = new HashSet<>();
-        for (int i = 0; i <= text.length() - shingleSize; i++) {
-            shingles.add(text.substring(i, i + shingleSize));
+    // arXiv timestamps are ISO-8601 instants ("2024-01-15T18:00:00Z"); 0 when missing or malformed
+    static long toEpochMillis(String timestamp) {
+        if (timestamp == null || timestamp.isEmpty()) {
+            return 0;
+        }
+        try {
+            return Instant.parse(timestamp).toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return 0;
         }
-        return shingles;
+    }
+    
+    private boolean isNearDuplicate(NearDuplicateIndex duplicateIndex, Paper newPaper, int[] shingles, int[] signature) throws IOException {
+        // Only papers sharing an LSH band with the new paper are compared exactly
+        for (String candidateId : duplicateIndex.candidates(signature)) {
+            Document existingDoc = duplicateIndex.getDocument(candidateId);
+            if (existingDoc == null) {
+                continue;
+            }
+
+            // Compute similarity
+            double similarity = computeJaccardSimilarity(shingles, MinHash.shingles(existingDoc.get("summary"), SHINGLE_SIZE));
+            if (similarity >= SIMILARITY_THRESHOLD) {
+                // Flag as a near-duplicate for manual review
+                flaggedDuplicates.add(new DuplicateRecord(newPaper, existingDoc));
+                return true; // Skip indexing this paper
+            }
+        }
+        return false; // No near-duplicates found
+    }
+    
+    private double computeJaccardSimilarity(int[] shingles1, int[] shingles2) {
+        return MinHash.jaccard(shingles1, shingles2);
     }
 
     public List<DuplicateRecord> getFlaggedDuplicates() {
@@ -186,8 +417,8 @@ public class IndexService {
 
     private List<String> extractTokensWithAnalyzer(String text) {
         List<String> tokens = new ArrayList<>();
-        try (Analyzer analyzer = new CustomAnalyzer()) {
-            TokenStream tokenStream = analyzer.tokenStream("title", text);
+        // The stream must be closed before this thread can analyze again with the shared analyzer
+        try (TokenStream tokenStream = analyzer.tokenStream("title", text)) {
             tokenStream.reset();
             while (tokenStream.incrementToken()) {
                 CharTermAttribute attr = tokenStream.getAttribute(CharTermAttribute.class);
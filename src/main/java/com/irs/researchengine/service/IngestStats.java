@@ -0,0 +1,78 @@
+package com.irs.researchengine.service;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+
+/**
+ * Per-stage counters for a bulk indexing run. Stage times are summed over all worker threads,
+ * so per-stage rates are per thread while the overall rate is wall-clock.
+ */
+class IngestStats {
+
+    private final long startNanos = System.nanoTime();
+    private final LongAdder loadedDocs = new LongAdder();
+    private final LongAdder loadNanos = new LongAdder();
+    private final LongAdder builtDocs = new LongAdder();
+    private final LongAdder buildNanos = new LongAdder();
+    private final LongAdder dedupDocs = new LongAdder();
+    private final LongAdder dedupNanos = new LongAdder();
+    private final LongAdder writtenDocs = new LongAdder();
+    private final LongAdder writeNanos = new LongAdder();
+    private final LongAdder commits = new LongAdder();
+    private final LongAdder commitNanos = new LongAdder();
+    private final LongAdder skippedDocs = new LongAdder();
+
+    void recordLoad(long docs, long nanos) {
+        loadedDocs.add(docs);
+        loadNanos.add(nanos);
+    }
+
+    void recordBuild(long nanos) {
+        builtDocs.increment();
+        buildNanos.add(nanos);
+    }
+
+    void recordDedup(long nanos, boolean skipped) {
+        dedupDocs.increment();
+        dedupNanos.add(nanos);
+        if (skipped) {
+            skippedDocs.increment();
+        }
+    }
+
+    void recordWrite(long nanos) {
+        writtenDocs.increment();
+        writeNanos.add(nanos);
+    }
+
+    void recordCommit(long nanos) {
+        commits.increment();
+        commitNanos.add(nanos);
+    }
+
+    long getWrittenDocs() {
+        return writtenDocs.sum();
+    }
+
+    void log(Logger logger) {
+        double elapsedSeconds = (System.nanoTime() - startNanos) / 1e9;
+        logger.info("Bulk indexing finished: {} written, {} skipped in {} s ({} docs/sec)",
+                writtenDocs.sum(), skippedDocs.sum(), format(elapsedSeconds), format(writtenDocs.sum() / elapsedSeconds));
+        logStage(logger, "load existing ids/signatures", loadedDocs, loadNanos);
+        logStage(logger, "build documents", builtDocs, buildNanos);
+        logStage(logger, "near-duplicate check", dedupDocs, dedupNanos);
+        logStage(logger, "analyze and write", writtenDocs, writeNanos);
+        logger.info("  commits: {} taking {} s", commits.sum(), format(commitNanos.sum() / 1e9));
+    }
+
+    private void logStage(Logger logger, String stage, LongAdder docs, LongAdder nanos) {
+        double seconds = nanos.sum() / 1e9;
+        double rate = seconds > 0 ? docs.sum() / seconds : 0;
+        logger.info("  {}: {} docs in {} s ({} docs/sec)", stage, docs.sum(), format(seconds), format(rate));
+    }
+
+    private static String format(double value) {
+        return String.format("%.1f", value);
+    }
+}
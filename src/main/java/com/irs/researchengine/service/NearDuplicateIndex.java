@@ -0,0 +1,125 @@
+package com.irs.researchengine.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.MultiBits;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.util.Bits;
+import org.apache.lucene.util.BytesRef;
+
+import com.irs.researchengine.utils.LshIndex;
+import com.irs.researchengine.utils.MinHash;
+
+/**
+ * Candidate lookup for near-duplicate detection during one indexing run.
+ * Ids and signatures of already indexed papers are loaded once from the stored "id" and "minhash" fields,
+ * papers added during the run are kept in memory until an NRT reopen makes them searchable.
+ * Not thread-safe, callers synchronize on the instance.
+ */
+class NearDuplicateIndex implements Closeable {
+
+    private static final int REOPEN_INTERVAL = 10000;
+    private static final Set<String> SIGNATURE_FIELDS = Set.of("id", "minhash");
+
+    private final IndexWriter writer;
+    private final LshIndex lsh;
+    private final Set<String> ids = new HashSet<>();
+    private final Map<String, Document> pending = new HashMap<>();
+    private DirectoryReader reader;
+    private IndexSearcher searcher;
+
+    private NearDuplicateIndex(IndexWriter writer, LshIndex lsh) throws IOException {
+        this.writer = writer;
+        this.lsh = lsh;
+        this.reader = DirectoryReader.open(writer);
+        this.searcher = new IndexSearcher(reader);
+    }
+
+    static NearDuplicateIndex open(IndexWriter writer, MinHash minHash, int bands, int rows, int shingleSize) throws IOException {
+        NearDuplicateIndex index = new NearDuplicateIndex(writer, new LshIndex(bands, rows));
+        DirectoryReader reader = index.reader;
+        Bits liveDocs = MultiBits.getLiveDocs(reader);
+        for (int docId = 0; docId < reader.maxDoc(); docId++) {
+            if (liveDocs != null && !liveDocs.get(docId)) {
+                continue;
+            }
+            Document doc = reader.document(docId, SIGNATURE_FIELDS);
+            BytesRef stored = doc.getBinaryValue("minhash");
+            int[] signature;
+            if (stored != null && stored.length == minHash.getNumHashes() * Integer.BYTES) {
+                signature = MinHash.fromBytes(stored.bytes, stored.offset, stored.length);
+            } else {
+                // Indexed before signatures were stored, derive it from the summary once
+                String summary = reader.document(docId, Set.of("summary")).get("summary");
+                signature = minHash.signature(MinHash.shingles(summary, shingleSize));
+            }
+            index.lsh.add(doc.get("id"), signature);
+            index.ids.add(doc.get("id"));
+        }
+        return index;
+    }
+
+    boolean containsId(String id) {
+        return ids.contains(id);
+    }
+
+    int size() {
+        return ids.size();
+    }
+
+    Set<String> candidates(int[] signature) {
+        return lsh.candidates(signature);
+    }
+
+    Document getDocument(String id) throws IOException {
+        Document doc = pending.get(id);
+        if (doc != null) {
+            return doc;
+        }
+        TopDocs hits = searcher.search(new TermQuery(new Term("id", id)), 1);
+        return hits.scoreDocs.length > 0 ? searcher.doc(hits.scoreDocs[0].doc) : null;
+    }
+
+    /**
+     * Registers a paper that is about to be written. The caller adds it to the writer afterwards,
+     * possibly outside of the lock, so pending entries are only dropped once the reader can see them.
+     */
+    void add(String id, Document doc, int[] signature) throws IOException {
+        lsh.add(id, signature);
+        ids.add(id);
+        pending.put(id, doc);
+        if (pending.size() >= REOPEN_INTERVAL) {
+            DirectoryReader newReader = DirectoryReader.openIfChanged(reader, writer);
+            if (newReader != null) {
+                reader.close();
+                reader = newReader;
+                searcher = new IndexSearcher(reader);
+                pending.keySet().removeIf(this::isVisible);
+            }
+        }
+    }
+
+    private boolean isVisible(String id) {
+        try {
+            return searcher.count(new TermQuery(new Term("id", id))) > 0;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
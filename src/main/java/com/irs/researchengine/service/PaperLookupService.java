@@ -0,0 +1,149 @@
+package com.irs.researchengine.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.PostingsEnum;
+import org.apache.lucene.index.Terms;
+import org.apache.lucene.index.TermsEnum;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.util.Bits;
+import org.apache.lucene.util.BytesRef;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.irs.researchengine.data.Paper;
+import com.irs.researchengine.utils.PaperFieldVisitor;
+
+/**
+ * Resolves paper ids to papers in one pass over the index: ids are sorted and seeked in order on each segment's
+ * id terms, then the stored fields of the hits are read in doc id order through a {@link PaperFieldVisitor}.
+ * Hits that already carry doc ids skip the id lookup.
+ */
+@Service
+public class PaperLookupService {
+
+    @Autowired
+    private IndexSearcherManager searcherManager;
+
+    /**
+     * Papers for the given ids in the caller's order; ids not in the index are left out.
+     */
+    public List<Paper> getPapers(List<String> ids) throws IOException {
+        return getPapers(ids, PaperFieldVisitor.ALL_FIELDS);
+    }
+
+    public List<Paper> getPapers(List<String> ids, Set<String> fields) throws IOException {
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            return getPapers(searcher, ids, fields);
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    /**
+     * Same as {@link #getPapers(List, Set)} against a searcher the caller already holds.
+     */
+    public List<Paper> getPapers(IndexSearcher searcher, List<String> ids, Set<String> fields) throws IOException {
+        String[] unique = new LinkedHashSet<>(ids).toArray(new String[0]);
+        Arrays.sort(unique); // Seeking in sorted order moves forward through the terms dictionary
+        Map<String, Paper> found = new HashMap<>(unique.length * 2);
+        PaperFieldVisitor visitor = new PaperFieldVisitor(withId(fields));
+        PostingsEnum postings = null;
+
+        for (LeafReaderContext leaf : searcher.getIndexReader().leaves()) {
+            LeafReader reader = leaf.reader();
+            Terms terms = reader.terms("id");
+            if (terms == null) {
+                continue;
+            }
+            TermsEnum termsEnum = terms.iterator();
+            Bits liveDocs = reader.getLiveDocs();
+            int[] docs = new int[unique.length];
+            int hits = 0;
+            for (String id : unique) {
+                if (found.containsKey(id) || !termsEnum.seekExact(new BytesRef(id))) {
+                    continue;
+                }
+                postings = termsEnum.postings(postings, PostingsEnum.NONE);
+                for (int doc = postings.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = postings.nextDoc()) {
+                    if (liveDocs == null || liveDocs.get(doc)) {
+                        docs[hits++] = doc;
+                        found.put(id, null); // Claimed by this segment, loaded below
+                        break;
+                    }
+                }
+            }
+            // Stored fields are compressed in blocks, so reading in doc order decompresses each block once
+            Arrays.sort(docs, 0, hits);
+            for (int i = 0; i < hits; i++) {
+                Paper paper = visitor.reset();
+                reader.document(docs[i], visitor);
+                found.put(paper.getId(), paper);
+            }
+        }
+        return inCallerOrder(ids, found);
+    }
+
+    /**
+     * Papers for hits of the given searcher, in the caller's order; stored fields are read in doc id order.
+     */
+    public List<Paper> getPapers(IndexSearcher searcher, ScoreDoc[] hits, Set<String> fields) throws IOException {
+        int[] docs = new int[hits.length];
+        for (int i = 0; i < hits.length; i++) {
+            docs[i] = hits[i].doc;
+        }
+        Arrays.sort(docs);
+        Map<Integer, Paper> found = new HashMap<>(docs.length * 2);
+        PaperFieldVisitor visitor = new PaperFieldVisitor(withId(fields));
+        for (int doc : docs) {
+            Paper paper = visitor.reset();
+            searcher.doc(doc, visitor);
+            if (paper.getId() != null) {
+                found.put(doc, paper);
+            }
+        }
+        List<Paper> papers = new ArrayList<>(hits.length);
+        for (ScoreDoc hit : hits) {
+            Paper paper = found.get(hit.doc);
+            if (paper != null) {
+                papers.add(paper);
+            }
+        }
+        return papers;
+    }
+
+    // The id is always read, it is how hits are put back in the caller's order
+    private static Set<String> withId(Set<String> fields) {
+        if (fields.contains("id")) {
+            return fields;
+        }
+        Set<String> withId = new HashSet<>(fields);
+        withId.add("id");
+        return withId;
+    }
+
+    private static List<Paper> inCallerOrder(Collection<String> ids, Map<String, Paper> found) {
+        List<Paper> papers = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Paper paper = found.get(id);
+            if (paper != null) {
+                papers.add(paper);
+            }
+        }
+        return papers;
+    }
+}
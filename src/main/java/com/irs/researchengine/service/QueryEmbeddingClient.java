@@ -0,0 +1,75 @@
+package com.irs.researchengine.service;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.irs.researchengine.service.SemanticSearchClient.SemanticSearchUnavailableException;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Embeds query text with the Python service's /embed/ endpoint, for the in-process vector search paths
+ * (HNSW backend, embedding re-ranking). Failures surface as {@link SemanticSearchUnavailableException}.
+ */
+@Service
+public class QueryEmbeddingClient {
+
+    @Value("${faiss.api.url}")
+    private String embeddingApiUrl;
+
+    @Value("${faiss.search.connect-timeout-ms:500}")
+    private long connectTimeoutMs;
+
+    @Value("${faiss.search.timeout-ms:1500}")
+    private long timeoutMs;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private HttpClient httpClient;
+
+    @PostConstruct
+    public void init() {
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+    }
+
+    public float[] embed(String text) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(embeddingApiUrl + "/embed/?text="
+                        + URLEncoder.encode(text, StandardCharsets.UTF_8)))
+                .timeout(Duration.ofMillis(timeoutMs))
+                .GET()
+                .build();
+        try {
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != 200) {
+                throw new IOException("Embedding service returned HTTP " + response.statusCode());
+            }
+            JsonNode embedding = objectMapper.readTree(response.body()).get("embedding");
+            float[] vector = new float[embedding.size()];
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] = (float) embedding.get(i).asDouble();
+            }
+            return vector;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SemanticSearchUnavailableException("Interrupted embedding the query", e);
+        } catch (IOException | RuntimeException e) {
+            throw new SemanticSearchUnavailableException("Query embedding failed: " + e.getMessage(), e);
+        }
+    }
+}
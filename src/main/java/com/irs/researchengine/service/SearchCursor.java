@@ -0,0 +1,121 @@
+package com.irs.researchengine.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.apache.lucene.search.FieldDoc;
+import org.apache.lucene.search.ScoreDoc;
+
+/**
+ * Opaque continuation token for result paging. Either an offset into the cached ranking (semantic, hybrid and
+ * re-ranked searches, and Lucene pages still inside the cached window) or the last Lucene hit, from which the
+ * next page is collected with searchAfter at the cost of one page whatever the depth.
+ *
+ * Tokens carry a fingerprint of the query and options they were issued for and are rejected for any other. A
+ * Lucene hit is only meaningful on the reader it came from, so those tokens also carry the reader version.
+ */
+class SearchCursor {
+
+    private static final String VERSION = "c2";
+
+    private final int fingerprint;
+    private final int offset;
+    private final long readerVersion;
+    private final ScoreDoc after;
+
+    private SearchCursor(int fingerprint, int offset, long readerVersion, ScoreDoc after) {
+        this.fingerprint = fingerprint;
+        this.offset = offset;
+        this.readerVersion = readerVersion;
+        this.after = after;
+    }
+
+    static SearchCursor atOffset(int fingerprint, int offset) {
+        return new SearchCursor(fingerprint, offset, -1, null);
+    }
+
+    /**
+     * Continues after the given hit of the reader with the given version; a {@link FieldDoc} must come from the
+     * citation sort (count, score) or the newest first sort (publication time).
+     */
+    static SearchCursor after(int fingerprint, int offset, long readerVersion, ScoreDoc hit) {
+        return new SearchCursor(fingerprint, offset, readerVersion, hit);
+    }
+
+    /**
+     * Position of the next result in the whole ranking.
+     */
+    int getOffset() {
+        return offset;
+    }
+
+    /**
+     * The last hit returned, or null for an offset cursor.
+     */
+    ScoreDoc getAfter() {
+        return after;
+    }
+
+    /**
+     * Version of the reader the last hit came from, or -1 for an offset cursor.
+     */
+    long getReaderVersion() {
+        return readerVersion;
+    }
+
+    String encode() {
+        StringBuilder token = new StringBuilder(VERSION).append(':').append(Integer.toHexString(fingerprint))
+                .append(':').append(offset);
+        if (after != null) {
+            token.append(':').append(Long.toHexString(readerVersion))
+                    .append(':').append(after.doc).append(':').append(Float.floatToIntBits(after.score));
+            if (after instanceof FieldDoc) {
+                FieldDoc fieldDoc = (FieldDoc) after;
+                token.append(':').append(((Number) fieldDoc.fields[0]).longValue());
+                if (fieldDoc.fields.length > 1) {
+                    token.append(':').append(Float.floatToIntBits(((Number) fieldDoc.fields[1]).floatValue()));
+                }
+            }
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token is malformed or was issued for another search
+     */
+    static SearchCursor decode(String token, int fingerprint) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":");
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        if (!VERSION.equals(parts[0]) || (parts.length != 3 && (parts.length < 6 || parts.length > 8))) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        try {
+            if ((int) Long.parseLong(parts[1], 16) != fingerprint) {
+                throw new IllegalArgumentException("Cursor belongs to a different search");
+            }
+            int offset = Integer.parseInt(parts[2]);
+            if (offset < 0) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            if (parts.length == 3) {
+                return atOffset(fingerprint, offset);
+            }
+            long readerVersion = Long.parseUnsignedLong(parts[3], 16);
+            int doc = Integer.parseInt(parts[4]);
+            float score = Float.intBitsToFloat(Integer.parseInt(parts[5]));
+            if (parts.length == 6) {
+                return after(fingerprint, offset, readerVersion, new ScoreDoc(doc, score));
+            }
+            Object[] fields = parts.length == 7
+                    ? new Object[]{Long.parseLong(parts[6])}
+                    : new Object[]{Long.parseLong(parts[6]), Float.intBitsToFloat(Integer.parseInt(parts[7]))};
+            return after(fingerprint, offset, readerVersion, new FieldDoc(doc, score, fields));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.irs.researchengine.service;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.lucene.search.FieldDoc;
+import org.apache.lucene.search.ScoreDoc;
+
+/**
+ * LRU cache of ranked results, so paging through a query or repeating a popular one does not search again.
+ * Concurrent requests for a missing key share one computation. Keys carry the index reader version, and the
+ * cache is cleared on refresh, so entries never outlive the index they were ranked on; the TTL covers the
+ * semantic rankings, which can change without a new reader.
+ */
+class SearchResultCache {
+
+    // Rough heap cost of a cached id: String and byte[] headers and the list slot
+    private static final int BYTES_PER_ID_OVERHEAD = 64;
+    // A ScoreDoc, or a FieldDoc with its boxed sort values
+    private static final int BYTES_PER_HIT = 32;
+    private static final int BYTES_PER_FIELD_HIT = 96;
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final LinkedHashMap<String, Entry> entries;
+    private long bytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    SearchResultCache(int maxEntries, long ttlMillis) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > SearchResultCache.this.maxEntries) {
+                    bytes -= eldest.getValue().bytes;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * The cached ranking for the key if it has at least {@code needed} results (or is the complete result),
+     * otherwise computes one, sharing the computation with concurrent callers of the same key. Rankings that are
+     * not {@link Ranking#isCacheable() cacheable} go to the callers waiting for them but are not kept.
+     */
+    Ranking get(String key, int needed, Callable<Ranking> compute) throws Exception {
+        while (true) {
+            CompletableFuture<Ranking> future;
+            Entry owned = null;
+            synchronized (this) {
+                Entry entry = entries.get(key);
+                if (entry != null && (isExpired(entry) || (entry.future.isDone() && !covers(entry.future.join(), needed)))) {
+                    remove(key, entry);
+                    entry = null;
+                }
+                if (entry == null) {
+                    owned = new Entry(new CompletableFuture<>(), System.currentTimeMillis());
+                    entries.put(key, owned);
+                    misses.incrementAndGet();
+                    future = owned.future;
+                } else {
+                    hits.incrementAndGet();
+                    future = entry.future;
+                }
+            }
+            if (owned != null) {
+                return compute(key, owned, compute);
+            }
+            Ranking ranking = await(future);
+            // Joined a computation for a smaller window: compute a larger one
+            if (covers(ranking, needed)) {
+                return ranking;
+            }
+        }
+    }
+
+    synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized long estimatedBytes() {
+        return bytes;
+    }
+
+    long hitCount() {
+        return hits.get();
+    }
+
+    long missCount() {
+        return misses.get();
+    }
+
+    double hitRatio() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0 : (double) hits.get() / total;
+    }
+
+    private Ranking compute(String key, Entry entry, Callable<Ranking> compute) throws Exception {
+        Ranking ranking;
+        try {
+            ranking = compute.call();
+        } catch (Exception | Error e) {
+            synchronized (this) {
+                remove(key, entry);
+            }
+            entry.future.completeExceptionally(e);
+            throw e;
+        }
+        synchronized (this) {
+            if (!ranking.isCacheable()) {
+                remove(key, entry);
+            } else if (entries.get(key) == entry) {
+                entry.bytes = ranking.estimatedBytes();
+                bytes += entry.bytes;
+            }
+        }
+        entry.future.complete(ranking);
+        return ranking;
+    }
+
+    private static Ranking await(CompletableFuture<Ranking> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException | CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw e;
+        }
+    }
+
+    // Caller holds the lock; only removes the mapping if it is still this entry
+    private void remove(String key, Entry entry) {
+        if (entries.get(key) == entry) {
+            entries.remove(key);
+            bytes -= entry.bytes;
+        }
+    }
+
+    private boolean isExpired(Entry entry) {
+        return System.currentTimeMillis() - entry.createdAt > ttlMillis;
+    }
+
+    private static boolean covers(Ranking ranking, int needed) {
+        return ranking.isComplete() || ranking.size() >= needed;
+    }
+
+    private static class Entry {
+        private final CompletableFuture<Ranking> future;
+        private final long createdAt;
+        private long bytes;
+
+        Entry(CompletableFuture<Ranking> future, long createdAt) {
+            this.future = future;
+            this.createdAt = createdAt;
+        }
+    }
+
+    /**
+     * A window of pages in rank order: the Lucene hits of the reader in the cache key, whose paper ids are only
+     * read for the page served, or the paper ids of a semantic or hybrid ranking.
+     */
+    static class Ranking {
+        private final List<String> ids;
+        private final ScoreDoc[] hits;
+        private final boolean resumable;
+        private final boolean complete;
+        private final boolean cacheable;
+
+        /**
+         * @param complete  true if the ranking holds every hit, so no larger window would add any
+         * @param cacheable false for degraded results (a fallback or a partial hybrid search)
+         */
+        Ranking(List<String> ids, boolean complete, boolean cacheable) {
+            this.ids = ids;
+            this.hits = null;
+            this.resumable = false;
+            this.complete = complete;
+            this.cacheable = cacheable;
+        }
+
+        /**
+         * @param resumable true if the hits are in Lucene's order, so paging can continue with searchAfter from
+         *                  the last one
+         */
+        Ranking(ScoreDoc[] hits, boolean resumable, boolean complete, boolean cacheable) {
+            this.ids = null;
+            this.hits = hits;
+            this.resumable = resumable;
+            this.complete = complete;
+            this.cacheable = cacheable;
+        }
+
+        // Null for a ranking of hits
+        List<String> getIds() {
+            return ids;
+        }
+
+        // Null for a ranking of ids
+        ScoreDoc[] getHits() {
+            return hits;
+        }
+
+        boolean isResumable() {
+            return resumable;
+        }
+
+        boolean isComplete() {
+            return complete;
+        }
+
+        boolean isCacheable() {
+            return cacheable;
+        }
+
+        int size() {
+            return ids != null ? ids.size() : hits.length;
+        }
+
+        /**
+         * Up to {@code count} ids from {@code offset}, empty past the end.
+         */
+        List<String> slice(int offset, int count) {
+            int start = Math.min(offset, ids.size());
+            int end = Math.min(start + count, ids.size());
+            return ids.subList(start, end);
+        }
+
+        /**
+         * Up to {@code count} hits from {@code offset}, empty past the end.
+         */
+        ScoreDoc[] sliceHits(int offset, int count) {
+            int start = Math.min(offset, hits.length);
+            int end = Math.min(start + count, hits.length);
+            return Arrays.copyOfRange(hits, start, end);
+        }
+
+        long estimatedBytes() {
+            long total = 0;
+            if (ids != null) {
+                for (String id : ids) {
+                    total += BYTES_PER_ID_OVERHEAD + id.length();
+                }
+            }
+            if (hits != null && hits.length > 0) {
+                total += (long) hits.length * (hits[0] instanceof FieldDoc ? BYTES_PER_FIELD_HIT : BYTES_PER_HIT);
+            }
+            return total;
+        }
+    }
+}
@@ -1,237 +1,566 @@
 package com.irs.researchengine.service;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.irs.researchengine.data.CitationInfo;
+import com.irs.researchengine.data.FacetValue;
 import com.irs.researchengine.data.Paper;
+import com.irs.researchengine.data.SearchPage;
+import com.irs.researchengine.data.SearchResult;
 import com.irs.researchengine.nlp.CustomAnalyzer;
-import org.apache.lucene.document.Document;
-import org.apache.lucene.index.DirectoryReader;
+import com.irs.researchengine.service.SearchResultCache.Ranking;
+import com.irs.researchengine.service.SemanticSearchClient.SemanticSearchUnavailableException;
+import com.irs.researchengine.utils.FacetCountsCollector;
+import com.irs.researchengine.utils.PaperFieldVisitor;
+import com.irs.researchengine.utils.RankFusion;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.SortedSetDocValuesField;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
 import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
 import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MultiCollector;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ReferenceManager;
+import org.apache.lucene.search.Rescorer;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermInSetQuery;
 import org.apache.lucene.search.TermQuery;
 import org.apache.lucene.search.TopDocs;
-import org.apache.lucene.store.Directory;
-import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.search.TopScoreDocCollector;
+import org.apache.lucene.util.BytesRef;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.net.URLEncoder;
-import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Service
 public class SearchService {
 
-    @Value("${index.path}")
-    private String INDEX_PATH;
+    private static final Logger logger = LoggerFactory.getLogger(SearchService.class);
+
+    @Autowired
+    private IndexSearcherManager searcherManager;
+    
+    @Autowired
+    private SemanticBackend semanticBackend;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private CitationService citationService;
+    
+    @Autowired
+    private CustomAnalyzer analyzer;
+    
+    @Autowired
+    private PaperLookupService paperLookupService;
+    
+    @Autowired
+    private EmbeddingStoreService embeddingStoreService;
+    
+    // Second-stage ranking model, absent unless search.rescore.model selects one
+    @Autowired(required = false)
+    private Rescorer rescorer;
+    
+    // Lucene hits re-ranked by the rescorer
+    @Value("${search.rescore.depth:1000}")
+    private int rescoreDepth;
+    
+    // Top Lucene hits re-ranked by embedding similarity to the query, 0 disables
+    @Value("${search.rerank.semantic-depth:0}")
+    private int semanticRerankDepth;
+    
+    // Shared deadline for both legs of a hybrid search; a leg that misses it is left out of the fusion
+    @Value("${search.hybrid.deadline-ms:1500}")
+    private long hybridDeadlineMs;
+    
+    // Hits taken from each leg before fusion
+    @Value("${search.hybrid.depth:100}")
+    private int hybridDepth;
+    
+    @Value("${search.hybrid.rrf-k:60}")
+    private int rrfK;
+    
+    @Value("${search.hybrid.threads:16}")
+    private int hybridThreads;
     
-    @Value("${faiss.api.url}")
-    private String faissApiUrl;
+    @Value("${search.cache.max-entries:1000}")
+    private int cacheMaxEntries;
     
-    private static final String SEMANTIC_SCHOLAR_API_URL = "https://api.semanticscholar.org/graph/v1/paper/arXiv:%s?fields=citationCount,citations.url";
+    @Value("${search.cache.ttl-minutes:10}")
+    private long cacheTtlMinutes;
+    
+    // Hits ranked per search, rounded up from what the page needs, so the next pages come from the cache
+    @Value("${search.cache.window:100}")
+    private int cacheWindow;
+    
+    // Values returned per facet
+    @Value("${search.facets.top-n:10}")
+    private int facetTopN;
+    
+    private static final Set<String> ID_FIELD = Set.of("id");
+    
+    // Facet name and the DocValues field it is counted from
+    private static final String[] SORTED_SET_FACET_FIELDS = {"categoryFacet", "authorFacet"};
+    private static final String[] NUMERIC_FACET_FIELDS = {"publishedYear"};
+    private static final Map<String, String> FACETS = Map.of("category", "categoryFacet", "author", "authorFacet", "year", "publishedYear");
+    
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    
+    // Semantic hits fetched per hit wanted, at most, when filtering them by date
+    private static final int MAX_RANGE_OVERFETCH = 8;
+    
+    private ExecutorService legPool;
+    private SearchResultCache resultCache;
+    
+    // Citation count from the index DocValues, relevance breaks ties
+    private static final Sort CITATION_SORT = new Sort(new SortField("citationCount", SortField.Type.LONG, true), SortField.FIELD_SCORE);
 
-    public List<Paper> searchPapers(String queryStr, int page, int pageSize, boolean proximitySearch, int proximityDistance, boolean semanticSearch) throws Exception {
+    @PostConstruct
+    public void init() throws IOException {
+        legPool = Executors.newFixedThreadPool(hybridThreads, runnable -> {
+            Thread thread = new Thread(runnable, "search-leg");
+            thread.setDaemon(true);
+            return thread;
+        });
+        resultCache = new SearchResultCache(cacheMaxEntries, TimeUnit.MINUTES.toMillis(cacheTtlMinutes));
+        // Keys carry the reader version already; clearing frees the old reader's entries right away
+        searcherManager.addRefreshListener(new ReferenceManager.RefreshListener() {
+            @Override
+            public void beforeRefresh() {
+            }
+
+            @Override
+            public void afterRefresh(boolean didRefresh) {
+                if (didRefresh) {
+                    resultCache.clear();
+                }
+            }
+        });
+        Gauge.builder("search.cache.size", resultCache, SearchResultCache::size).register(meterRegistry);
+        Gauge.builder("search.cache.bytes", resultCache, SearchResultCache::estimatedBytes).register(meterRegistry);
+        Gauge.builder("search.cache.hit.ratio", resultCache, SearchResultCache::hitRatio).register(meterRegistry);
+        FunctionCounter.builder("search.cache.requests", resultCache, SearchResultCache::hitCount).tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("search.cache.requests", resultCache, SearchResultCache::missCount).tag("result", "miss").register(meterRegistry);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        legPool.shutdownNow();
+    }
+    
+    /**
+     * One page of results. With a cursor from a previous page the search continues where that page ended and
+     * {@code page} is ignored; otherwise it starts at {@code page * pageSize}. Keyword results can be ordered by
+     * citations or newest first instead of relevance, and all results can be limited to a date range (null for
+     * none).
+     *
+     * @throws IllegalArgumentException for an empty query, or a malformed cursor or one from another search
+     */
+    public SearchPage searchPapers(String queryStr, int page, int pageSize, boolean proximitySearch, int proximityDistance, boolean semanticSearch, boolean hybridSearch, boolean sortByCitations, boolean newestFirst, DateRange dateRange, String cursor) throws Exception {
         if (queryStr == null || queryStr.isBlank()) {
             throw new IllegalArgumentException("Search query cannot be null or empty");
         }       
-        List<Paper> papers = semanticSearch ? getSemanticRanking(queryStr, page, pageSize) : searchLucene(queryStr, page, pageSize, proximitySearch, proximityDistance);
+        Sort sort = sortByCitations ? CITATION_SORT : newestFirst ? IndexService.NEWEST_FIRST : null;
+        String options = searchOptions(queryStr, proximitySearch, proximityDistance, semanticSearch, hybridSearch, sortByCitations, newestFirst, dateRange);
+        int fingerprint = options.hashCode();
+        SearchCursor position = cursor != null && !cursor.isEmpty()
+                ? SearchCursor.decode(cursor, fingerprint)
+                : SearchCursor.atOffset(fingerprint, page * pageSize);
+        
+        List<Paper> papers;
+        SearchCursor next;
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            long readerVersion = IndexSearcherManager.getReaderVersion(searcher);
+            boolean resume = position.getAfter() != null;
+            if (resume && position.getReaderVersion() != readerVersion) {
+                // The hit's doc id may name another document on a newer reader: rank again up to the cursor's offset
+                meterRegistry.counter("search.cursor.stale").increment();
+                resume = false;
+            }
+            if (resume) {
+                // Past the cached window: collect one page after the last hit instead of every hit before it
+                Ranking ranking = luceneRanking(searcher, queryStr, position.getAfter(), pageSize, proximitySearch, proximityDistance, sort, dateRange);
+                ScoreDoc[] hits = ranking.getHits();
+                int end = position.getOffset() + hits.length;
+                next = ranking.isComplete() || hits.length == 0 ? null
+                        : SearchCursor.after(fingerprint, end, readerVersion, hits[hits.length - 1]);
+                papers = paperLookupService.getPapers(searcher, hits, PaperFieldVisitor.ALL_FIELDS);
+            } else {
+                int offset = position.getOffset();
+                int needed = offset + pageSize;
+                // Rank a whole window of pages at once; identical concurrent searches share one ranking. Lucene
+                // rankings hold doc ids of this searcher's reader, whose version is in the key
+                int step = Math.max(1, cacheWindow);
+                int window = (needed + step - 1) / step * step;
+                String key = readerVersion + "|" + options;
+                Ranking ranking = resultCache.get(key, needed,
+                        () -> rank(searcher, queryStr, window, proximitySearch, proximityDistance, semanticSearch, hybridSearch, sort, dateRange));
+                int served = Math.max(0, Math.min(pageSize, ranking.size() - offset));
+                next = nextCursor(fingerprint, readerVersion, ranking, offset + served);
+                // Paper ids are read for this page only; semantic and hybrid ids are looked up in one pass
+                papers = ranking.getHits() != null
+                        ? paperLookupService.getPapers(searcher, ranking.sliceHits(offset, pageSize), PaperFieldVisitor.ALL_FIELDS)
+                        : paperLookupService.getPapers(searcher, ranking.slice(offset, pageSize), PaperFieldVisitor.ALL_FIELDS);
+            }
+        } finally {
+            searcherManager.release(searcher);
+        }
 
+        // Cached lookups, misses are fetched concurrently under one deadline
+        Map<String, CitationInfo> citations = citationService.getCitationInfos(
+                papers.stream().map(Paper::getId).collect(Collectors.toList()));
         for (Paper paper : papers) {
-            CitationInfo citationInfo = fetchCitationInfo(paper.getId());
-            paper.setCitationInfo(citationInfo);
+            paper.setCitationInfo(citations.get(paper.getId()));
         }
-        
-        // Sort papers based on citation count
-        papers.sort((p1, p2) -> Integer.compare(p2.getCitationInfo().getCitationCount(), p1.getCitationInfo().getCitationCount()));
 
-        return papers;
+        return new SearchPage(papers, next != null ? next.encode() : null);
     }
+    
+    /**
+     * One page of keyword search results with facet counts over every matching paper, optionally narrowed to a
+     * category code, an author, a publication year and a date range. Hits and facets are collected in one pass.
+     *
+     * @throws IllegalArgumentException for an empty query
+     */
+    public SearchResult searchFaceted(String queryStr, int page, int pageSize, String category, String author, Integer year, DateRange dateRange) throws Exception {
+        if (queryStr == null || queryStr.isBlank()) {
+            throw new IllegalArgumentException("Search query cannot be null or empty");
+        }
+        Query query = withFacetFilters(withDateRange(parseQuery(queryStr, false, 0), dateRange), category, author, year);
+        List<String> ids = new ArrayList<>(pageSize);
+        Map<String, List<FacetValue>> counts;
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            long start = System.nanoTime();
+            // Facets need every hit, so total hit counting is never cut short
+            TopScoreDocCollector topHits = TopScoreDocCollector.create((page + 1) * pageSize, Integer.MAX_VALUE);
+            FacetCountsCollector facets = new FacetCountsCollector(SORTED_SET_FACET_FIELDS, NUMERIC_FACET_FIELDS);
+            searcher.search(query, MultiCollector.wrap(topHits, facets));
+            counts = facets.topValues(facetTopN);
+            meterRegistry.timer("search.facets.latency").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
 
-    private List<Paper> searchLucene(String queryStr, int page, int pageSize, boolean proximitySearch, int proximityDistance) throws Exception {
-        List<Paper> papers = new ArrayList<>();
-        try (Directory dir = FSDirectory.open(Paths.get(INDEX_PATH));
-             DirectoryReader reader = DirectoryReader.open(dir)) {
-            IndexSearcher searcher = new IndexSearcher(reader);
-            QueryParser parser = new MultiFieldQueryParser(
-                new String[]{"title", "summary", "authors"}, 
-                new CustomAnalyzer()
-            );
-            if (proximitySearch) {
-                queryStr = "\"" + queryStr + "\"~" + proximityDistance;
+            PaperFieldVisitor visitor = new PaperFieldVisitor(ID_FIELD);
+            for (ScoreDoc hit : topHits.topDocs(page * pageSize, pageSize).scoreDocs) {
+                Paper paper = visitor.reset();
+                searcher.doc(hit.doc, visitor);
+                if (paper.getId() != null) {
+                    ids.add(paper.getId());
+                }
             }
-            Query query = parser.parse(queryStr);
-            TopDocs results = searcher.search(query, (page + 1) * pageSize);
-            int start = Math.min(page * pageSize, results.scoreDocs.length);
-            int end = Math.min(start + pageSize, results.scoreDocs.length);
-            for (int i = start; i < end; i++) {
-                Document doc = searcher.doc(results.scoreDocs[i].doc);
-                String authors = doc.get("authors");
-                papers.add(new Paper(
-                    doc.get("id"),
-                    doc.get("title"),
-                    doc.get("summary"),
-                    doc.get("pdfLink"),
-                    doc.get("comment"),
-                    doc.get("updated"),
-                    doc.get("published"),
-                    doc.get("primaryCategory"),
-                    doc.get("primaryCategoryCode"),
-                    authors != null ? List.of(authors.split(", ")) : new ArrayList<>()
-                ));
+        } finally {
+            searcherManager.release(searcher);
+        }
+
+        List<Paper> papers = paperLookupService.getPapers(ids);
+        Map<String, CitationInfo> citations = citationService.getCitationInfos(
+                papers.stream().map(Paper::getId).collect(Collectors.toList()));
+        for (Paper paper : papers) {
+            paper.setCitationInfo(citations.get(paper.getId()));
+        }
+        
+        Map<String, List<FacetValue>> facets = new LinkedHashMap<>();
+        for (String facet : List.of("category", "year", "author")) {
+            facets.put(facet, counts.get(FACETS.get(facet)));
+        }
+        return new SearchResult(papers, facets);
+    }
+    
+    // Filter clauses do not score, so the hits rank as for the query alone
+    private static Query withFacetFilters(Query query, String category, String author, Integer year) {
+        if (isEmpty(category) && isEmpty(author) && year == null) {
+            return query;
+        }
+        BooleanQuery.Builder filtered = new BooleanQuery.Builder().add(query, BooleanClause.Occur.MUST);
+        if (!isEmpty(category)) {
+            filtered.add(new TermQuery(new Term("primaryCategoryCode", category)), BooleanClause.Occur.FILTER);
+        }
+        if (!isEmpty(author)) {
+            filtered.add(SortedSetDocValuesField.newSlowExactQuery(FACETS.get("author"), new BytesRef(author.strip())), BooleanClause.Occur.FILTER);
+        }
+        if (year != null) {
+            filtered.add(NumericDocValuesField.newSlowExactQuery(FACETS.get("year"), year), BooleanClause.Occur.FILTER);
+        }
+        return filtered.build();
+    }
+    
+    private static boolean isEmpty(String value) {
+        return value == null || value.isBlank();
+    }
+    
+    private static Query withDateRange(Query query, DateRange dateRange) {
+        if (dateRange == null) {
+            return query;
+        }
+        return new BooleanQuery.Builder()
+                .add(query, BooleanClause.Occur.MUST)
+                .add(dateRange.toQuery(), BooleanClause.Occur.FILTER)
+                .build();
+    }
+    
+    // The ids of the index within the date range, in the given order
+    private List<String> retainInRange(List<String> ids, DateRange dateRange) throws IOException {
+        if (dateRange == null || ids.isEmpty()) {
+            return ids;
+        }
+        List<BytesRef> terms = ids.stream().map(BytesRef::new).collect(Collectors.toList());
+        Query query = withDateRange(new TermInSetQuery("id", terms), dateRange);
+        Set<String> inRange = new HashSet<>();
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            PaperFieldVisitor visitor = new PaperFieldVisitor(ID_FIELD);
+            for (ScoreDoc hit : searcher.search(query, ids.size()).scoreDocs) {
+                Paper paper = visitor.reset();
+                searcher.doc(hit.doc, visitor);
+                inRange.add(paper.getId());
             }
+        } finally {
+            searcherManager.release(searcher);
         }
-        return papers;
+        return ids.stream().filter(inRange::contains).collect(Collectors.toList());
     }
     
-    // Retrieves a paginated list of relevant papers based on the query from the FAISS semantic search service
-    private List<Paper> getSemanticRanking(String query, int page, int pageSize) throws Exception {
-    	
-    	RestTemplate restTemplate = new RestTemplate();
-        
-        // Calculate the total number of results needed for the requested page
-        int topK = (page + 1) * pageSize;
-        
-        // Build the FAISS search request URL with encoded query and required number of results (top_k)
-        String url = faissApiUrl + "/search?query=" + URLEncoder.encode(query, "UTF-8") + "&top_k=" + topK;
-        
-        // Send a GET request to the FAISS API and receive a list of result maps (each map contains document info)
-        ResponseEntity<List<Map<String, Object>>> response = restTemplate.exchange(
-            url,
-            HttpMethod.GET,
-            null,
-            new ParameterizedTypeReference<List<Map<String, Object>>>() {}
-        );
-        
-        // Get the list of results returned by FAISS
-        List<Map<String, Object>> faissResults = response.getBody();
-        
-        // Calculate start and end indices for the requested page of results, ensuring we don’t exceed list size
-        int start = Math.min(page * pageSize, faissResults.size());
-        int end = Math.min(start + pageSize, faissResults.size());
-        
-        // Extract the subset of results corresponding to the requested page
-        List<Map<String, Object>> pageResults = faissResults.subList(start, end);
-        
-        // Initialize an empty list to store Paper objects for each result
-        List<Paper> papers = new ArrayList<>();
-        
-        // Loop through each result in the current page
-        for (Map<String, Object> result : pageResults) {
-            
-            // Retrieve the document ID from the result map
-            String docId = (String) result.get("id");
-            
-            // Get the Paper object corresponding to this document ID
-            Paper paper = getPaperById(docId);
-            
-            // If a valid Paper is found, add it to the list of results
-            if (paper != null) {
-                papers.add(paper);
+    // Offsets while the next page is in the cached ranking; past its end a Lucene ranking continues with
+    // searchAfter from its last hit, other rankings are extended by a larger window
+    private static SearchCursor nextCursor(int fingerprint, long readerVersion, Ranking ranking, int end) {
+        if (end < ranking.size()) {
+            return SearchCursor.atOffset(fingerprint, end);
+        }
+        if (ranking.isComplete() || end == 0) {
+            return null;
+        }
+        return ranking.isResumable()
+                ? SearchCursor.after(fingerprint, end, readerVersion, ranking.getHits()[end - 1])
+                : SearchCursor.atOffset(fingerprint, end);
+    }
+    
+    private Ranking rank(IndexSearcher searcher, String queryStr, int numHits, boolean proximitySearch, int proximityDistance, boolean semanticSearch, boolean hybridSearch, Sort sort, DateRange dateRange) throws Exception {
+        if (hybridSearch) {
+            return getHybridRanking(queryStr, numHits, proximitySearch, proximityDistance, dateRange);
+        }
+        if (semanticSearch) {
+            try {
+                return getSemanticRanking(queryStr, numHits, dateRange);
+            } catch (SemanticSearchUnavailableException e) {
+                // Degrade to keyword search rather than failing the request, but do not cache the fallback
+                logger.warn("Falling back to Lucene search: {}", e.getMessage());
+                meterRegistry.counter("search.semantic.fallback").increment();
+                Ranking fallback = searchLucene(searcher, queryStr, numHits, proximitySearch, proximityDistance, sort, dateRange);
+                return new Ranking(fallback.getHits(), fallback.isResumable(), fallback.isComplete(), false);
             }
         }
-        
-        // Return the list of Paper objects for the current page
-        return papers;
+        return searchLucene(searcher, queryStr, numHits, proximitySearch, proximityDistance, sort, dateRange);
+    }
+    
+    // Whitespace is collapsed but case kept: the query parser's AND/OR/NOT operators are case sensitive
+    private static String searchOptions(String queryStr, boolean proximitySearch, int proximityDistance, boolean semanticSearch, boolean hybridSearch, boolean sortByCitations, boolean newestFirst, DateRange dateRange) {
+        String mode = hybridSearch ? "hybrid" : semanticSearch ? "semantic" : sortByCitations ? "citations" : newestFirst ? "newest" : "bm25";
+        String proximity = proximitySearch ? "~" + proximityDistance : "";
+        String range = dateRange != null ? "@" + dateRange.key() : "";
+        return mode + proximity + range + "|" + WHITESPACE.matcher(queryStr.strip()).replaceAll(" ");
     }
 
-    private Paper getPaperById(String docId) throws IOException {
-    	try (Directory dir = FSDirectory.open(Paths.get(INDEX_PATH));
-    	         DirectoryReader reader = DirectoryReader.open(dir)) {
-    	        IndexSearcher luceneSearcher = new IndexSearcher(reader);
-    	        Query query = new TermQuery(new Term("id", docId));
-    	        TopDocs hits = luceneSearcher.search(query, 1);
-
-    	        if (hits.totalHits.value > 0) {
-    	            Document doc = luceneSearcher.doc(hits.scoreDocs[0].doc);
-    	            return mapDocumentToPaper(doc);
-    	        }
-    	    }
-    	    return null;
-    }
-    
-    private Paper mapDocumentToPaper(Document doc) {
-        List<String> authors = doc.get("authors") != null
-            ? Arrays.asList(doc.get("authors").split(", "))
-            : new ArrayList<>();
-
-        return new Paper(
-            doc.get("id"),
-            doc.get("title"),
-            doc.get("summary"),
-            doc.get("pdfLink"),
-            doc.get("comment"),
-            doc.get("updated"),
-            doc.get("published"),
-            doc.get("primaryCategory"),
-            doc.get("primaryCategoryCode"),
-            authors
+    // Relevance-ordered (sort == null) hits are reranked by embedding similarity when configured
+    private Ranking searchLucene(IndexSearcher searcher, String queryStr, int numHits, boolean proximitySearch, int proximityDistance, Sort sort, DateRange dateRange) throws Exception {
+        boolean rerank = sort == null && semanticRerankDepth > 0 && embeddingStoreService.isAvailable();
+        Ranking hits = luceneRanking(searcher, queryStr, null, rerank ? Math.max(numHits, semanticRerankDepth) : numHits,
+                proximitySearch, proximityDistance, sort, dateRange);
+        return rerank ? rerankBySimilarity(searcher, queryStr, hits) : hits;
+    }
+    
+    // Reorders the first semanticRerankDepth hits by embedding similarity; later hits keep the Lucene order so
+    // pages stay consistent whatever the page size. Only the reordered hits need their paper ids
+    private Ranking rerankBySimilarity(IndexSearcher searcher, String queryText, Ranking hits) throws IOException {
+        ScoreDoc[] all = hits.getHits();
+        int depth = Math.min(semanticRerankDepth, all.length);
+        Map<String, ScoreDoc> head = new LinkedHashMap<>();
+        PaperFieldVisitor visitor = new PaperFieldVisitor(ID_FIELD);
+        for (int i = 0; i < depth; i++) {
+            Paper paper = visitor.reset();
+            searcher.doc(all[i].doc, visitor);
+            if (paper.getId() != null) {
+                head.put(paper.getId(), all[i]);
+            }
+        }
+        List<String> ranked;
+        try {
+            ranked = embeddingStoreService.rerank(queryText, new ArrayList<>(head.keySet()));
+        } catch (SemanticSearchUnavailableException e) {
+            logger.warn("Keeping Lucene order: {}", e.getMessage());
+            meterRegistry.counter("search.rerank.fallback").increment();
+            return new Ranking(all, hits.isResumable(), hits.isComplete(), false);
+        }
+        List<ScoreDoc> reordered = new ArrayList<>(all.length);
+        for (String id : ranked) {
+            reordered.add(head.get(id));
+        }
+        reordered.addAll(Arrays.asList(all).subList(depth, all.length));
+        return new Ranking(reordered.toArray(new ScoreDoc[0]), false, hits.isComplete(), true);
+    }
+    
+    private Query parseQuery(String queryStr, boolean proximitySearch, int proximityDistance) throws ParseException {
+        QueryParser parser = new MultiFieldQueryParser(
+            new String[]{"title", "summary", "authors"}, 
+            analyzer
         );
+        if (proximitySearch) {
+            queryStr = "\"" + queryStr + "\"~" + proximityDistance;
+        }
+        return parser.parse(queryStr);
     }
     
-    public CitationInfo fetchCitationInfo(String arxivId) {
-        String cleanId = arxivId.contains("/abs/") ? arxivId.split("/abs/")[1].split("v")[0] : arxivId;
-        String url = String.format(SEMANTIC_SCHOLAR_API_URL, cleanId);
-
-        HttpURLConnection connection = null;
-        ObjectMapper objectMapper = new ObjectMapper();
-
+    // The top hits after the given one (null for the first), in rank order; no stored fields are read. A first
+    // page of relevance-ordered hits (sort == null) goes through the rescorer, if any
+    private Ranking luceneRanking(IndexSearcher searcher, String queryStr, ScoreDoc after, int numHits, boolean proximitySearch, int proximityDistance, Sort sort, DateRange dateRange) throws Exception {
+        boolean rescore = rescorer != null && rescoreDepth > 0 && after == null && sort == null;
+        int fetched = rescore ? Math.max(numHits, rescoreDepth) : numHits;
+        Query query = withDateRange(parseQuery(queryStr, proximitySearch, proximityDistance), dateRange);
+        // Sorting in the collector orders the whole result set, not just the current page. When the index is
+        // sorted newest first as well, the newest first sort stops collecting each segment once it has enough hits
+        TopDocs results = sort != null
+                ? searcher.searchAfter(after, query, fetched, sort)
+                : searcher.searchAfter(after, query, fetched);
+        if (rescore) {
+            rescore(searcher, results);
+        }
+        // Rescored hits no longer carry the scores searchAfter needs, so those rankings page by offset
+        return new Ranking(results.scoreDocs, !rescore, results.scoreDocs.length < fetched, true);
+    }
+    
+    // Paper ids of the top relevance-ordered hits, on a searcher of the leg's own
+    private List<String> luceneIds(String queryStr, int numHits, boolean proximitySearch, int proximityDistance, DateRange dateRange) throws Exception {
+        IndexSearcher searcher = searcherManager.acquire();
         try {
-            // Create and configure the connection
-            URL requestUrl = new URL(url);
-            connection = (HttpURLConnection) requestUrl.openConnection();
-            connection.setRequestMethod("GET");
-            connection.setConnectTimeout(5000);
-            connection.setReadTimeout(5000);
-
-            // Check if the response is successful
-            if (connection.getResponseCode() == HttpURLConnection.HTTP_OK) {
-                try (InputStream inputStream = connection.getInputStream()) {
-                    // Parse the response as a Map
-                    Map<String, Object> response = objectMapper.readValue(inputStream, new TypeReference<Map<String, Object>>() {});
-
-                    // Extract data safely
-                    int citationCount = response.get("citationCount") != null ? (int) response.get("citationCount") : 0;
-                    List<Map<String, String>> citations = objectMapper.convertValue(
-                            response.get("citations"),
-                            new TypeReference<List<Map<String, String>>>() {}
-                    );
-
-                    List<String> citationUrls = citations.stream()
-                            .map(citation -> citation.get("url"))
-                            .filter(Objects::nonNull)
-                            .collect(Collectors.toList());
-
-                    return new CitationInfo(citationCount, citationUrls);
+            ScoreDoc[] hits = luceneRanking(searcher, queryStr, null, numHits, proximitySearch, proximityDistance, null, dateRange).getHits();
+            List<String> ids = new ArrayList<>(hits.length);
+            PaperFieldVisitor visitor = new PaperFieldVisitor(ID_FIELD);
+            for (ScoreDoc hit : hits) {
+                Paper paper = visitor.reset();
+                searcher.doc(hit.doc, visitor);
+                if (paper.getId() != null) {
+                    ids.add(paper.getId());
                 }
-            } else {
-                System.err.println("Failed to fetch data. Response code: " + connection.getResponseCode());
             }
-        } catch (Exception e) {
-            e.printStackTrace(); // Log the exception or use a logger
+            return ids;
         } finally {
-            if (connection != null) {
-                connection.disconnect();
+            searcherManager.release(searcher);
+        }
+    }
+    
+    // Re-ranks the first rescoreDepth hits in place; later hits keep the BM25 order so pages stay consistent
+    // whatever the window size
+    private void rescore(IndexSearcher searcher, TopDocs results) throws IOException {
+        ScoreDoc[] hits = results.scoreDocs;
+        int depth = Math.min(rescoreDepth, hits.length);
+        long start = System.nanoTime();
+        TopDocs head = rescorer.rescore(searcher, new TopDocs(results.totalHits, Arrays.copyOf(hits, depth)), depth);
+        System.arraycopy(head.scoreDocs, 0, hits, 0, depth);
+        meterRegistry.timer("search.rescore.latency").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+    
+    // Runs the BM25 and semantic legs concurrently under one deadline and fuses whichever finished with
+    // reciprocal rank fusion, so the response takes the slower leg's latency rather than the sum of both
+    private Ranking getHybridRanking(String queryStr, int numHits, boolean proximitySearch, int proximityDistance, DateRange dateRange) throws Exception {
+        int depth = Math.max(numHits, hybridDepth);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(hybridDeadlineMs);
+        Future<List<String>> lexical = legPool.submit(timedLeg("lucene",
+                () -> luceneIds(queryStr, depth, proximitySearch, proximityDistance, dateRange)));
+        Future<List<String>> semantic = legPool.submit(timedLeg("semantic",
+                () -> getSemanticRanking(queryStr, depth, dateRange).getIds()));
+        
+        List<List<String>> rankings = new ArrayList<>(2);
+        // Interrupting a Lucene search can close the index's file channels, so only the HTTP leg is interrupted,
+        // and not while it filters by date against the index
+        List<String> lexicalRanking = awaitLeg("lucene", lexical, deadline, false);
+        if (lexicalRanking != null) {
+            rankings.add(lexicalRanking);
+        }
+        List<String> semanticRanking = awaitLeg("semantic", semantic, deadline, dateRange == null);
+        if (semanticRanking != null) {
+            rankings.add(semanticRanking);
+        }
+        
+        List<String> fused = RankFusion.reciprocalRank(rankings, rrfK);
+        boolean complete = lexicalRanking != null && lexicalRanking.size() < depth
+                && semanticRanking != null && semanticRanking.size() < depth;
+        // Partial results are served but not cached, so the next request tries both legs again
+        return new Ranking(fused, complete, rankings.size() == 2);
+    }
+    
+    private Callable<List<String>> timedLeg(String leg, Callable<List<String>> ranking) {
+        return () -> {
+            long start = System.nanoTime();
+            try {
+                return ranking.call();
+            } finally {
+                meterRegistry.timer("search.hybrid.leg.latency", "leg", leg).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        };
+    }
+    
+    // The leg's ranking, or null if it failed or missed the deadline
+    private List<String> awaitLeg(String leg, Future<List<String>> future, long deadline, boolean interrupt) throws InterruptedException {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(interrupt);
+            logger.warn("Hybrid search without the {} leg: missed the {} ms deadline", leg, hybridDeadlineMs);
+        } catch (ExecutionException e) {
+            logger.warn("Hybrid search without the {} leg: {}", leg, e.getCause().getMessage());
+        }
+        meterRegistry.counter("search.hybrid.partial", "leg", leg).increment();
+        return null;
+    }
+    
+    // Retrieves the ranked document ids for the query from the FAISS semantic search service (or the in-process
+    // HNSW index, depending on the configured backend); the backend returns no scores. Backends know nothing of
+    // dates, so with a date range their hits are filtered against the index, asking for more until topK are in
+    // range; the nearest topK * MAX_RANGE_OVERFETCH hits are as far as it looks
+    private Ranking getSemanticRanking(String query, int topK, DateRange dateRange) throws Exception {
+        int requested = topK;
+        while (true) {
+            List<String> ids = semanticBackend.search(query, requested);
+            List<String> inRange = retainInRange(ids, dateRange);
+            if (inRange.size() >= topK) {
+                return new Ranking(new ArrayList<>(inRange.subList(0, topK)), false, true);
             }
+            if (ids.size() < requested || requested >= topK * MAX_RANGE_OVERFETCH) {
+                return new Ranking(inRange, true, true);
+            }
+            requested *= 2;
         }
-
-        return new CitationInfo(0, new ArrayList<>());
     }
 
 }
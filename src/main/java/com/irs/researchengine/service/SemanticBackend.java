@@ -0,0 +1,24 @@
+package com.irs.researchengine.service;
+
+import java.util.List;
+
+import com.irs.researchengine.service.SemanticSearchClient.SemanticSearchUnavailableException;
+
+/**
+ * Where semantic search runs. Selected with semantic.backend: "faiss" (default) uses the Python FAISS service,
+ * "hnsw" the in-process HNSW index.
+ */
+public interface SemanticBackend {
+
+    /**
+     * Ids of the topK documents closest to the query, best first.
+     *
+     * @throws SemanticSearchUnavailableException if the backend cannot answer, so callers can fall back to Lucene
+     */
+    List<String> search(String query, int topK);
+
+    /**
+     * Makes the papers of the dataset searchable.
+     */
+    void indexFromDataset(String datasetPath) throws Exception;
+}
@@ -1,46 +1,149 @@
 package com.irs.researchengine.service;
 
 import java.io.File;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.irs.researchengine.data.Paper;
+import com.irs.researchengine.utils.BatchLedger;
+import com.irs.researchengine.utils.DatasetReader;
 
+/**
+ * Bulk upload of the dataset to the FAISS service. Batches are streamed from the dataset and posted with a bounded
+ * number in flight; every acknowledged batch is recorded in a ledger so a restarted upload skips finished work.
+ */
 @Service
 public class SemanticIndexService {
 
+    private static final Logger logger = LoggerFactory.getLogger(SemanticIndexService.class);
+
     @Value("${faiss.api.url}")
     private String faissApiUrl;
 
+    // Papers read from the dataset and sent to the FAISS service per request
+    @Value("${faiss.upload.batch-size:500}")
+    private int batchSize;
+
+    @Value("${faiss.upload.max-in-flight:2}")
+    private int maxInFlight;
+
+    // Ids of acknowledged batches; delete the file to force a full re-upload (e.g. after wiping the FAISS index)
+    @Value("${faiss.upload.progress-path:./dataset/faiss_upload.progress}")
+    private String progressPath;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private RestTemplate faissRestTemplate;
+
     public void indexFromDataset(String datasetPath) throws Exception {
-        ObjectMapper mapper = new ObjectMapper();
-        List<Paper> papers = mapper.readValue(new File(datasetPath), new TypeReference<List<Paper>>() {});
-        List<Map<String, String>> faissDocs = new ArrayList<>();
+        UploadProgress progress = new UploadProgress();
+        ExecutorService uploaders = Executors.newFixedThreadPool(maxInFlight);
+        CompletionService<Integer> completed = new ExecutorCompletionService<>(uploaders);
+        int inFlight = 0;
+        try (DatasetReader reader = new DatasetReader(new File(datasetPath), objectMapper, batchSize);
+             BatchLedger ledger = new BatchLedger(Paths.get(progressPath))) {
+            try {
+                for (int sequence = 0; reader.hasNext(); sequence++) {
+                    List<Paper> papers = reader.next();
+                    String batchId = batchId(sequence, papers);
+                    if (ledger.isCompleted(batchId)) {
+                        progress.skipped.addAndGet(papers.size());
+                        continue;
+                    }
+                    if (inFlight == maxInFlight) {
+                        progress.record(awaitBatch(completed));
+                        inFlight--;
+                    }
+                    completed.submit(() -> {
+                        sendDocumentsToFaiss(toFaissDocs(papers));
+                        ledger.markCompleted(batchId);
+                        return papers.size();
+                    });
+                    inFlight++;
+                }
+                for (; inFlight > 0; inFlight--) {
+                    progress.record(awaitBatch(completed));
+                }
+            } finally {
+                // On failure the batches already sent are allowed to finish so their acknowledgements are recorded
+                uploaders.shutdown();
+                uploaders.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            }
+        }
+        logger.info("Semantic indexing finished: {} documents sent, {} skipped as already uploaded, {} docs/s",
+                progress.sent.get(), progress.skipped.get(), progress.docsPerSecond());
+    }
 
+    private List<Map<String, String>> toFaissDocs(List<Paper> papers) {
+        List<Map<String, String>> faissDocs = new ArrayList<>(papers.size());
         for (Paper paper : papers) {
             Map<String, String> faissDoc = new HashMap<>();
             faissDoc.put("id", paper.getId());
             faissDoc.put("text", paper.getSummary());  // Use summary or other relevant fields
             faissDocs.add(faissDoc);
         }
-
-        // Send the documents to the FAISS service
-        sendDocumentsToFaiss(faissDocs);
+        return faissDocs;
     }
 
-    private void sendDocumentsToFaiss(List<Map<String, String>> documents) throws Exception {
-        RestTemplate restTemplate = new RestTemplate();
+    private void sendDocumentsToFaiss(List<Map<String, String>> documents) {
         HttpEntity<List<Map<String, String>>> request = new HttpEntity<>(documents);
-        restTemplate.postForEntity(faissApiUrl + "/index_documents/", request, String.class);
+        faissRestTemplate.postForEntity(faissApiUrl + "/index_documents/", request, String.class);
     }
-}
 
+    // Position plus content, so an edited or reordered dataset does not match stale ledger entries
+    private static String batchId(int sequence, List<Paper> papers) {
+        int hash = 1;
+        for (Paper paper : papers) {
+            hash = 31 * hash + String.valueOf(paper.getId()).hashCode();
+        }
+        return sequence + "-" + papers.size() + "-" + Integer.toHexString(hash);
+    }
+
+    private static int awaitBatch(CompletionService<Integer> completed) throws Exception {
+        try {
+            return completed.take().get();
+        } catch (ExecutionException e) {
+            // The failed batch never reaches the ledger, so the next run sends it again
+            throw (e.getCause() instanceof Exception) ? (Exception) e.getCause() : e;
+        }
+    }
+
+    private static class UploadProgress {
+        private final long startNanos = System.nanoTime();
+        private final AtomicLong sent = new AtomicLong();
+        private final AtomicLong skipped = new AtomicLong();
+        private long batches;
+
+        private void record(int documents) {
+            long total = sent.addAndGet(documents);
+            batches++;
+            logger.info("Uploaded batch {} to the semantic index: {} documents sent, {} docs/s", batches, total, docsPerSecond());
+        }
+
+        private long docsPerSecond() {
+            double seconds = (System.nanoTime() - startNanos) / 1e9;
+            return seconds > 0 ? Math.round(sent.get() / seconds) : 0;
+        }
+    }
+}
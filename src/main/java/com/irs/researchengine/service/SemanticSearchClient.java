@@ -0,0 +1,190 @@
+package com.irs.researchengine.service;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.irs.researchengine.utils.CircuitBreaker;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Client for the FAISS /search/ endpoint. Requests share one keep-alive HttpClient and run under a hard deadline,
+ * a circuit breaker stops calling a failing service, and an optional hedged request covers slow responses.
+ * Callers get a {@link SemanticSearchUnavailableException} instead of a hung thread and can fall back to Lucene.
+ */
+@Service
+public class SemanticSearchClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(SemanticSearchClient.class);
+
+    @Value("${faiss.api.url}")
+    private String faissApiUrl;
+
+    @Value("${faiss.search.connect-timeout-ms:500}")
+    private long connectTimeoutMs;
+
+    // Overall deadline for a search, hedged request included
+    @Value("${faiss.search.timeout-ms:1500}")
+    private long timeoutMs;
+
+    // Send a second request if the first has not answered after this long, 0 disables hedging
+    @Value("${faiss.search.hedge-delay-ms:0}")
+    private long hedgeDelayMs;
+
+    @Value("${faiss.search.breaker.failure-threshold:5}")
+    private int breakerFailureThreshold;
+
+    @Value("${faiss.search.breaker.open-ms:30000}")
+    private long breakerOpenMs;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private HttpClient httpClient;
+    private CircuitBreaker circuitBreaker;
+    private Timer successTimer;
+    private Timer failureTimer;
+    private Counter rejectedCounter;
+    private Counter hedgeCounter;
+
+    @PostConstruct
+    public void init() {
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+        circuitBreaker = new CircuitBreaker(breakerFailureThreshold, breakerOpenMs);
+
+        successTimer = Timer.builder("semantic.search.latency").tag("outcome", "success").register(meterRegistry);
+        failureTimer = Timer.builder("semantic.search.latency").tag("outcome", "failure").register(meterRegistry);
+        rejectedCounter = Counter.builder("semantic.search.rejected")
+                .description("Searches rejected because the circuit was open").register(meterRegistry);
+        hedgeCounter = Counter.builder("semantic.search.hedged")
+                .description("Hedged requests sent after the hedge delay").register(meterRegistry);
+        // 0 = closed, 1 = half-open, 2 = open
+        Gauge.builder("semantic.search.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the ids of the topK nearest documents, best first.
+     */
+    public List<String> search(String query, int topK) {
+        if (!circuitBreaker.allowRequest()) {
+            rejectedCounter.increment();
+            throw new SemanticSearchUnavailableException("Semantic search circuit is open", null);
+        }
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(faissApiUrl + "/search/?query="
+                        + URLEncoder.encode(query, StandardCharsets.UTF_8) + "&top_k=" + topK))
+                .timeout(Duration.ofMillis(timeoutMs))
+                .GET()
+                .build();
+
+        long start = System.nanoTime();
+        try {
+            List<String> ids = hedged(request).get(timeoutMs, TimeUnit.MILLISECONDS);
+            circuitBreaker.onSuccess();
+            successTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return ids;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            circuitBreaker.onFailure();
+            throw new SemanticSearchUnavailableException("Interrupted waiting for semantic search", e);
+        } catch (ExecutionException | TimeoutException e) {
+            circuitBreaker.onFailure();
+            failureTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+            logger.warn("Semantic search failed ({}), circuit is {}", cause.toString(), circuitBreaker.getState());
+            throw new SemanticSearchUnavailableException("Semantic search failed: " + cause.getMessage(), cause);
+        }
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    // Completes with the first successful response; fails only once every request sent has failed
+    private CompletableFuture<List<String>> hedged(HttpRequest request) {
+        CompletableFuture<List<String>> result = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(1);
+        send(request).whenComplete((ids, error) -> complete(result, pending, ids, error));
+
+        if (hedgeDelayMs > 0 && hedgeDelayMs < timeoutMs) {
+            pending.incrementAndGet();
+            CompletableFuture.delayedExecutor(hedgeDelayMs, TimeUnit.MILLISECONDS).execute(() -> {
+                if (!result.isDone()) {
+                    hedgeCounter.increment();
+                    send(request).whenComplete((ids, error) -> complete(result, pending, ids, error));
+                }
+            });
+        }
+        return result;
+    }
+
+    private static void complete(CompletableFuture<List<String>> result, AtomicInteger pending, List<String> ids, Throwable error) {
+        if (error == null) {
+            result.complete(ids);
+        } else if (pending.decrementAndGet() == 0) {
+            result.completeExceptionally(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+        }
+    }
+
+    private CompletableFuture<List<String>> send(HttpRequest request) {
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()).thenApply(response -> {
+            // The service answers 404 while nothing is indexed yet
+            if (response.statusCode() == 404) {
+                return List.<String>of();
+            }
+            if (response.statusCode() != 200) {
+                throw new CompletionException(new IOException("FAISS service returned HTTP " + response.statusCode()));
+            }
+            try {
+                List<Map<String, Object>> results = objectMapper.readValue(response.body(), new TypeReference<List<Map<String, Object>>>() {});
+                List<String> ids = new ArrayList<>(results.size());
+                for (Map<String, Object> result : results) {
+                    ids.add((String) result.get("id"));
+                }
+                return ids;
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    public static class SemanticSearchUnavailableException extends RuntimeException {
+        public SemanticSearchUnavailableException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
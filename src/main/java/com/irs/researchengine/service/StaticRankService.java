@@ -0,0 +1,232 @@
+package com.irs.researchengine.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.util.Bits;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.irs.researchengine.graph.CsrGraph;
+import com.irs.researchengine.graph.PageRank;
+import com.irs.researchengine.vector.EmbeddingScorer;
+import com.irs.researchengine.vector.EmbeddingStore;
+import com.irs.researchengine.vector.HnswIndex;
+import com.irs.researchengine.vector.VectorHit;
+
+/**
+ * Offline job that ranks indexed papers by PageRank over a graph of similarity edges (each paper to its nearest
+ * embedding neighbours) and optional citation edges, and stores the ranks as the "staticRank" DocValues used by
+ * the search rescorer. Replaces NLP/calculate_page_rank.py: the graph lives in primitive CSR arrays and the
+ * iterations run on a fork-join pool.
+ */
+@Service
+public class StaticRankService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StaticRankService.class);
+    private static final Set<String> ID_FIELD = Set.of("id");
+
+    @Autowired
+    private IndexSearcherManager searcherManager;
+
+    @Autowired
+    private IndexService indexService;
+
+    @Autowired
+    private EmbeddingStoreService embeddingStoreService;
+
+    @Autowired
+    private ClusterService clusterService;
+
+    // Nearest neighbours linked from each paper, 0 leaves out similarity edges
+    @Value("${graph.similarity.k:10}")
+    private int similarityK;
+
+    // Cosine similarity below which neighbours are not linked, as in the previous script
+    @Value("${graph.similarity.threshold:0.7}")
+    private float similarityThreshold;
+
+    // Neighbours come from the HNSW index when it has been built, otherwise from exact scans of every paper
+    @Value("${semantic.hnsw.index-path:./dataset/hnsw.index}")
+    private String hnswIndexPath;
+
+    @Value("${semantic.hnsw.ef-search:50}")
+    private int efSearch;
+
+    // Tab-separated "citing id, cited id" lines with arXiv ids; empty for none
+    @Value("${graph.citations-path:}")
+    private String citationsPath;
+
+    @Value("${graph.citation-weight:1.0}")
+    private float citationWeight;
+
+    @Value("${graph.pagerank.damping:0.85}")
+    private double damping;
+
+    @Value("${graph.pagerank.tolerance:1e-6}")
+    private double tolerance;
+
+    @Value("${graph.pagerank.max-iterations:100}")
+    private int maxIterations;
+
+    // 0 uses one thread per core
+    @Value("${graph.threads:0}")
+    private int threads;
+
+    /**
+     * Builds the paper graph, computes PageRank and writes it to the index. Ranks are stored times the number
+     * of papers, so an average paper has 1 whatever the size of the corpus. Returns the number of papers ranked.
+     */
+    public synchronized int computeStaticRanks() throws Exception {
+        long start = System.nanoTime();
+        List<String> ids = liveIds();
+        Map<String, Integer> nodes = new HashMap<>(ids.size() * 2);
+        for (int i = 0; i < ids.size(); i++) {
+            nodes.put(ids.get(i), i);
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+        try {
+            CsrGraph.Builder builder = new CsrGraph.Builder(ids.size(), ids.size() * Math.max(1, similarityK));
+            int similarityEdges = addSimilarityEdges(builder, nodes, pool);
+            int citationEdges = addCitationEdges(builder, ids);
+            CsrGraph graph = builder.build();
+            long built = System.nanoTime();
+            logger.info("Built paper graph: {} nodes, {} similarity and {} citation edges, {} MB, in {} ms",
+                    graph.nodeCount(), similarityEdges, citationEdges, graph.estimatedBytes() >> 20, (built - start) / 1_000_000);
+
+            PageRank.Result result = new PageRank(damping, tolerance, maxIterations, pool).compute(graph);
+            logger.info("PageRank {} after {} iterations (delta {}) in {} ms", result.isConverged() ? "converged" : "stopped",
+                    result.getIterations(), result.getDelta(), (System.nanoTime() - built) / 1_000_000);
+
+            double[] ranks = result.getRanks();
+            float[] scaled = new float[ranks.length];
+            for (int i = 0; i < ranks.length; i++) {
+                scaled[i] = (float) (ranks[i] * ranks.length);
+            }
+            indexService.updateStaticRanks(ids, scaled);
+            clusterService.updateStaticRanks(ids, scaled);
+        } finally {
+            pool.shutdown();
+        }
+        logger.info("Static ranks stored for {} papers in {} ms", ids.size(), (System.nanoTime() - start) / 1_000_000);
+        return ids.size();
+    }
+
+    // Links every paper to its similarityK nearest neighbours above the threshold, weighted by similarity.
+    // Neighbour searches run in parallel into fixed slots per paper, then are added in order
+    private int addSimilarityEdges(CsrGraph.Builder builder, Map<String, Integer> nodes, ForkJoinPool pool) throws Exception {
+        EmbeddingScorer scorer = embeddingStoreService.getScorer();
+        if (similarityK <= 0 || scorer == null) {
+            logger.info("No embedding store, the graph has no similarity edges");
+            return 0;
+        }
+        EmbeddingStore store = scorer.store();
+        Path hnswPath = Paths.get(hnswIndexPath);
+        HnswIndex hnsw = Files.exists(hnswPath) ? HnswIndex.load(hnswPath, Math.max(efSearch, 2 * similarityK)) : null;
+        int k = similarityK;
+        int count = store.size();
+        int[] targets = new int[count * k];
+        float[] weights = new float[count * k];
+        Arrays.fill(targets, -1);
+        pool.submit(() -> IntStream.range(0, count).parallel().forEach(ordinal -> {
+            String id = store.id(ordinal);
+            if (!nodes.containsKey(id)) {
+                return;
+            }
+            List<VectorHit> hits = hnsw != null ? hnsw.search(store.vector(ordinal), k + 1) : scorer.neighbours(id, k);
+            int slot = ordinal * k;
+            int end = slot + k;
+            for (VectorHit hit : hits) {
+                Integer target = nodes.get(hit.getId());
+                if (slot < end && target != null && !hit.getId().equals(id) && hit.getScore() >= similarityThreshold) {
+                    targets[slot] = target;
+                    weights[slot] = hit.getScore();
+                    slot++;
+                }
+            }
+        })).get();
+
+        int added = 0;
+        for (int ordinal = 0; ordinal < count; ordinal++) {
+            Integer source = nodes.get(store.id(ordinal));
+            if (source == null) {
+                continue;
+            }
+            for (int slot = ordinal * k; slot < (ordinal + 1) * k && targets[slot] >= 0; slot++) {
+                builder.addEdge(source, targets[slot], weights[slot]);
+                added++;
+            }
+        }
+        return added;
+    }
+
+    private int addCitationEdges(CsrGraph.Builder builder, List<String> ids) throws IOException {
+        if (citationsPath == null || citationsPath.isEmpty()) {
+            return 0;
+        }
+        // Index ids are abs URLs, the file has bare arXiv ids
+        Map<String, Integer> byArxivId = new HashMap<>(ids.size() * 2);
+        for (int i = 0; i < ids.size(); i++) {
+            byArxivId.put(CitationService.cleanId(ids.get(i)), i);
+        }
+        int added = 0;
+        int skipped = 0;
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(citationsPath), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int tab = line.indexOf('\t');
+                if (tab < 0) {
+                    continue;
+                }
+                Integer citing = byArxivId.get(CitationService.cleanId(line.substring(0, tab).trim()));
+                Integer cited = byArxivId.get(CitationService.cleanId(line.substring(tab + 1).trim()));
+                if (citing == null || cited == null || citing.equals(cited)) {
+                    skipped++; // Papers outside the index
+                    continue;
+                }
+                builder.addEdge(citing, cited, citationWeight);
+                added++;
+            }
+        }
+        logger.info("Read {} citation edges, skipped {}", added, skipped);
+        return added;
+    }
+
+    private List<String> liveIds() throws IOException {
+        List<String> ids = new ArrayList<>();
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            for (LeafReaderContext leaf : searcher.getIndexReader().leaves()) {
+                LeafReader reader = leaf.reader();
+                Bits liveDocs = reader.getLiveDocs();
+                for (int doc = 0; doc < reader.maxDoc(); doc++) {
+                    if (liveDocs == null || liveDocs.get(doc)) {
+                        ids.add(reader.document(doc, ID_FIELD).get("id"));
+                    }
+                }
+            }
+        } finally {
+            searcherManager.release(searcher);
+        }
+        return ids;
+    }
+}
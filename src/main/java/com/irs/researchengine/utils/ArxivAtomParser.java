@@ -0,0 +1,142 @@
+package com.irs.researchengine.utils;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import com.irs.researchengine.config.CategoryConfig;
+import com.irs.researchengine.data.Paper;
+
+/**
+ * Streaming (StAX) parser for arXiv Atom responses. Each entry is handed to the consumer as soon as
+ * its closing tag is read, so memory use does not depend on the size of the response.
+ */
+public class ArxivAtomParser {
+
+    private static final String ARXIV_NAMESPACE = "http://arxiv.org/schemas/atom";
+    private static final String NO_COMMENT = "No comments available";
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = createFactory();
+
+    private static XMLInputFactory createFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    /**
+     * Parses the feed and passes every entry to the consumer. Returns the number of entries read.
+     */
+    public static int parse(InputStream inputStream, String category, Consumer<Paper> consumer) throws XMLStreamException {
+        XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(inputStream);
+        int count = 0;
+        try {
+            Entry entry = null;
+            boolean inAuthor = false;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String name = reader.getLocalName();
+                    if ("entry".equals(name)) {
+                        entry = new Entry();
+                    } else if (entry != null) {
+                        switch (name) {
+                            case "id":
+                                entry.id = firstText(entry.id, reader);
+                                break;
+                            case "title":
+                                entry.title = firstText(entry.title, reader);
+                                break;
+                            case "summary":
+                                entry.summary = firstText(entry.summary, reader);
+                                break;
+                            case "updated":
+                                entry.updated = firstText(entry.updated, reader);
+                                break;
+                            case "published":
+                                entry.published = firstText(entry.published, reader);
+                                break;
+                            case "comment":
+                                if (ARXIV_NAMESPACE.equals(reader.getNamespaceURI())) {
+                                    entry.comment = firstText(entry.comment, reader);
+                                }
+                                break;
+                            case "author":
+                                inAuthor = true;
+                                break;
+                            case "name":
+                                if (inAuthor) {
+                                    entry.authors.add(reader.getElementText());
+                                }
+                                break;
+                            case "link":
+                                if (entry.pdfLink == null && "pdf".equals(reader.getAttributeValue(null, "title"))) {
+                                    entry.pdfLink = reader.getAttributeValue(null, "href");
+                                }
+                                break;
+                            default:
+                                break;
+                        }
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    String name = reader.getLocalName();
+                    if ("author".equals(name)) {
+                        inAuthor = false;
+                    } else if ("entry".equals(name) && entry != null) {
+                        consumer.accept(entry.toPaper(category));
+                        count++;
+                        entry = null;
+                    }
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return count;
+    }
+
+    // Keeps the first occurrence, like getElementsByTagName(...).item(0) did
+    private static String firstText(String current, XMLStreamReader reader) throws XMLStreamException {
+        String text = reader.getElementText();
+        return current != null ? current : text;
+    }
+
+    private static class Entry {
+        private String id;
+        private String title;
+        private String summary;
+        private String pdfLink;
+        private String comment;
+        private String updated;
+        private String published;
+        private final List<String> authors = new ArrayList<>();
+
+        private Paper toPaper(String category) {
+            return new Paper(
+                valueOrEmpty(id),
+                valueOrEmpty(title),
+                valueOrEmpty(summary),
+                valueOrEmpty(pdfLink),
+                (comment == null || comment.isEmpty()) ? NO_COMMENT : comment,
+                valueOrEmpty(updated),
+                valueOrEmpty(published),
+                CategoryConfig.getFullCategoryName(category),
+                category,
+                authors
+            );
+        }
+
+        private static String valueOrEmpty(String value) {
+            return value != null ? value : "";
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.irs.researchengine.utils;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Append-only record of batches a remote service has acknowledged, one batch id per line.
+ * Each id is flushed as soon as it is recorded, so a restarted job can skip everything already done.
+ */
+public class BatchLedger implements Closeable {
+
+    private final Set<String> completed = new HashSet<>();
+    private final BufferedWriter writer;
+
+    public BatchLedger(Path path) throws IOException {
+        if (Files.exists(path)) {
+            for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                if (!line.isBlank()) {
+                    completed.add(line.trim());
+                }
+            }
+        } else if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        this.writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    public synchronized boolean isCompleted(String batchId) {
+        return completed.contains(batchId);
+    }
+
+    public synchronized void markCompleted(String batchId) throws IOException {
+        if (completed.add(batchId)) {
+            writer.write(batchId);
+            writer.newLine();
+            writer.flush();
+        }
+    }
+
+    public synchronized int size() {
+        return completed.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,132 @@
+package com.irs.researchengine.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable cluster to members inverted index. Document ids are mapped to dense ordinals once; each cluster's
+ * members are a contiguous, score-ordered run of one int array (compressed sparse rows), so listing the best
+ * members of a document's cluster touches only those members, whatever the corpus size.
+ */
+public class ClusterIndex {
+
+    private static final ClusterIndex EMPTY = new Builder().build(Collections.emptyMap());
+
+    private final Map<String, Integer> ordinals;
+    private final String[] docIds;
+    private final int[] clusterOf;
+    // Members of cluster c are members[clusterStart[c]] .. members[clusterStart[c + 1] - 1], best score first
+    private final int[] clusterStart;
+    private final int[] members;
+
+    private ClusterIndex(Map<String, Integer> ordinals, String[] docIds, int[] clusterOf, int[] clusterStart, int[] members) {
+        this.ordinals = ordinals;
+        this.docIds = docIds;
+        this.clusterOf = clusterOf;
+        this.clusterStart = clusterStart;
+        this.members = members;
+    }
+
+    public static ClusterIndex empty() {
+        return EMPTY;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public boolean contains(String docId) {
+        return ordinals.containsKey(docId);
+    }
+
+    /**
+     * Up to k other members of the document's cluster, highest score first; null if the document is not clustered.
+     */
+    public List<String> related(String docId, int k) {
+        Integer ordinal = ordinals.get(docId);
+        if (ordinal == null) {
+            return null;
+        }
+        int cluster = clusterOf[ordinal];
+        List<String> related = new ArrayList<>(Math.max(0, Math.min(k, clusterStart[cluster + 1] - clusterStart[cluster] - 1)));
+        for (int i = clusterStart[cluster]; i < clusterStart[cluster + 1] && related.size() < k; i++) {
+            if (members[i] != ordinal) {
+                related.add(docIds[members[i]]);
+            }
+        }
+        return related;
+    }
+
+    public int size() {
+        return docIds.length;
+    }
+
+    public int clusterCount() {
+        return clusterStart.length - 1;
+    }
+
+    public static class Builder {
+
+        private final List<String> docIds = new ArrayList<>();
+        private int[] labels = new int[1024];
+
+        private Builder() {
+        }
+
+        public Builder add(String docId, int label) {
+            if (docIds.size() == labels.length) {
+                labels = Arrays.copyOf(labels, labels.length * 2);
+            }
+            labels[docIds.size()] = label;
+            docIds.add(docId);
+            return this;
+        }
+
+        /**
+         * Builds the index, ordering each cluster by descending score; unscored documents sort last.
+         */
+        public ClusterIndex build(Map<String, Double> scores) {
+            int n = docIds.size();
+            Map<String, Integer> ordinals = new HashMap<>(n * 2);
+            String[] ids = new String[n];
+            double[] score = new double[n];
+            for (int i = 0; i < n; i++) {
+                ids[i] = docIds.get(i);
+                ordinals.put(ids[i], i);
+                Double value = scores.get(ids[i]);
+                score[i] = value != null ? value : Double.NEGATIVE_INFINITY;
+            }
+
+            // Labels from the clustering job are arbitrary ints, so map them to dense cluster numbers
+            Map<Integer, Integer> clusterNumbers = new HashMap<>();
+            int[] clusterOf = new int[n];
+            for (int i = 0; i < n; i++) {
+                clusterOf[i] = clusterNumbers.computeIfAbsent(labels[i], label -> clusterNumbers.size());
+            }
+            int[] clusterStart = new int[clusterNumbers.size() + 1];
+            for (int i = 0; i < n; i++) {
+                clusterStart[clusterOf[i] + 1]++;
+            }
+            for (int c = 0; c < clusterNumbers.size(); c++) {
+                clusterStart[c + 1] += clusterStart[c];
+            }
+
+            // Sorting all documents by score once and then bucketing keeps every cluster in score order
+            Integer[] byScore = new Integer[n];
+            for (int i = 0; i < n; i++) {
+                byScore[i] = i;
+            }
+            Arrays.sort(byScore, (a, b) -> score[a] != score[b] ? Double.compare(score[b], score[a]) : Integer.compare(a, b));
+            int[] next = Arrays.copyOf(clusterStart, clusterStart.length - 1);
+            int[] members = new int[n];
+            for (int ordinal : byScore) {
+                members[next[clusterOf[ordinal]]++] = ordinal;
+            }
+            return new ClusterIndex(ordinals, ids, clusterOf, clusterStart, members);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.irs.researchengine.utils;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only view of a corpus statistics file written by {@link CorpusStatsBuilder}: term counts and counts of
+ * term pairs seen within a window. The file is memory-mapped, so opening it costs milliseconds whatever its
+ * size, and lookups hash the text in place without allocating.
+ *
+ * Layout (little endian): a {@link #HEADER_BYTES} header, then the term table and the pair table. Each table is
+ * an open-addressing array of (long key, int count) slots with linear probing; the key is a 64-bit hash of the
+ * text and 0 marks an empty slot. Only hashes are stored, so distinct texts colliding on all 64 bits would share
+ * a count, which is negligible at corpus sizes.
+ */
+public class CorpusStats {
+
+    static final int MAGIC = 0x43535431; // "CST1"
+    static final int HEADER_BYTES = 32;
+    static final int SLOT_BYTES = 12;
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final MappedByteBuffer buffer;
+    private final int window;
+    private final long totalTerms;
+    private final int termMask;
+    private final int pairMask;
+    private final long termBase;
+    private final long pairBase;
+
+    private CorpusStats(MappedByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a corpus statistics file");
+        }
+        this.window = buffer.getInt(4);
+        this.totalTerms = buffer.getLong(8);
+        int termCapacity = buffer.getInt(16);
+        int pairCapacity = buffer.getInt(20);
+        if (Integer.bitCount(termCapacity) != 1 || Integer.bitCount(pairCapacity) != 1
+                || buffer.capacity() != HEADER_BYTES + (long) (termCapacity + pairCapacity) * SLOT_BYTES) {
+            throw new IOException("Corrupt corpus statistics file");
+        }
+        this.termMask = termCapacity - 1;
+        this.pairMask = pairCapacity - 1;
+        this.termBase = HEADER_BYTES;
+        this.pairBase = HEADER_BYTES + (long) termCapacity * SLOT_BYTES;
+    }
+
+    public static CorpusStats open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Corpus statistics file too large to map: " + path);
+            }
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return new CorpusStats(buffer);
+        }
+    }
+
+    public long getTotalTerms() {
+        return totalTerms;
+    }
+
+    public int getWindow() {
+        return window;
+    }
+
+    /**
+     * Occurrences of a single term, 0 if unseen.
+     */
+    public int termCount(CharSequence text, int start, int end) {
+        return lookup(termBase, termMask, finish(hash(FNV_OFFSET, text, start, end)));
+    }
+
+    /**
+     * Times two whitespace-separated terms occurred in that order within the window, 0 if never.
+     */
+    public int pairCount(CharSequence text) {
+        return lookup(pairBase, pairMask, hashWords(text));
+    }
+
+    private int lookup(long base, int mask, long key) {
+        int slot = (int) mix(key) & mask;
+        while (true) {
+            int offset = (int) (base + (long) slot * SLOT_BYTES);
+            long stored = buffer.getLong(offset);
+            if (stored == key) {
+                return buffer.getInt(offset + 8);
+            }
+            if (stored == 0) {
+                return 0;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    // Hash of the words of text joined by single spaces, so "a  b" and "a b" hash alike
+    static long hashWords(CharSequence text) {
+        long h = FNV_OFFSET;
+        boolean started = false;
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = started;
+            } else {
+                if (pendingSpace) {
+                    h = step(h, ' ');
+                    pendingSpace = false;
+                }
+                h = step(h, c);
+                started = true;
+            }
+        }
+        return finish(h);
+    }
+
+    static long hash(long h, CharSequence text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            h = step(h, text.charAt(i));
+        }
+        return h;
+    }
+
+    // Pair key for two terms, equal to hashWords(first + " " + second)
+    static long pairKey(String first, String second) {
+        long h = hash(FNV_OFFSET, first, 0, first.length());
+        h = step(h, ' ');
+        return finish(hash(h, second, 0, second.length()));
+    }
+
+    static long termKey(String term) {
+        return finish(hash(FNV_OFFSET, term, 0, term.length()));
+    }
+
+    private static long step(long h, char c) {
+        return (h ^ c) * FNV_PRIME;
+    }
+
+    private static long finish(long h) {
+        return h == 0 ? 1 : h; // 0 is the empty slot
+    }
+
+    // FNV has weak low bits, so slots come from a mixed copy of the key
+    static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+}
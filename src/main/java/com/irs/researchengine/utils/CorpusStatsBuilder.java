@@ -0,0 +1,199 @@
+package com.irs.researchengine.utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Offline builder for the {@link CorpusStats} file. Reads a whitespace-tokenized corpus line by line and counts
+ * every term and every ordered pair of terms at most {@code window} positions apart on the same line.
+ *
+ * Run once after changing the corpus:
+ * <pre>
+ * java -cp build/libs/... com.irs.researchengine.utils.CorpusStatsBuilder dataset/brown_corpus.txt dataset/corpus_stats.bin 10
+ * </pre>
+ */
+public class CorpusStatsBuilder {
+
+    private final int window;
+    private final LongIntCounter terms = new LongIntCounter();
+    private final LongIntCounter pairs = new LongIntCounter();
+    private long totalTerms;
+
+    public CorpusStatsBuilder(int window) {
+        if (window < 1) {
+            throw new IllegalArgumentException("window must be at least 1");
+        }
+        this.window = window;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: CorpusStatsBuilder <corpus.txt> <stats.bin> [window]");
+            System.exit(1);
+        }
+        int window = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        long start = System.currentTimeMillis();
+        CorpusStatsBuilder builder = new CorpusStatsBuilder(window);
+        builder.addCorpus(Paths.get(args[0]));
+        builder.write(Paths.get(args[1]));
+        System.out.printf("Wrote %d terms and %d pairs in %d ms%n", builder.terms.size(), builder.pairs.size(),
+                System.currentTimeMillis() - start);
+    }
+
+    public void addCorpus(Path corpus) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(corpus, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                addLine(line);
+            }
+        }
+    }
+
+    public void addLine(String line) {
+        List<String> tokens = tokenize(line);
+        for (int i = 0; i < tokens.size(); i++) {
+            terms.increment(CorpusStats.termKey(tokens.get(i)));
+            totalTerms++;
+            int last = Math.min(tokens.size() - 1, i + window);
+            for (int j = i + 1; j <= last; j++) {
+                pairs.increment(CorpusStats.pairKey(tokens.get(i), tokens.get(j)));
+            }
+        }
+    }
+
+    /**
+     * Writes the tables to a temporary file and moves it into place, so readers never map a partial file.
+     */
+    public void write(Path path) throws IOException {
+        int termCapacity = tableCapacity(terms.size());
+        int pairCapacity = tableCapacity(pairs.size());
+        long size = CorpusStats.HEADER_BYTES + (long) (termCapacity + pairCapacity) * CorpusStats.SLOT_BYTES;
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Corpus statistics would not fit in one mapped file; reduce the window");
+        }
+        if (path.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+        }
+
+        ByteBuffer out = ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(0, CorpusStats.MAGIC);
+        out.putInt(4, window);
+        out.putLong(8, totalTerms);
+        out.putInt(16, termCapacity);
+        out.putInt(20, pairCapacity);
+        terms.writeTable(out, CorpusStats.HEADER_BYTES, termCapacity);
+        pairs.writeTable(out, CorpusStats.HEADER_BYTES + termCapacity * CorpusStats.SLOT_BYTES, pairCapacity);
+
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+            channel.force(true);
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Load factor of at most one half keeps probe sequences short
+    private static int tableCapacity(int entries) {
+        int capacity = Integer.highestOneBit(Math.max(entries, 1) * 2 - 1) << 1;
+        return Math.max(capacity, 2);
+    }
+
+    private static List<String> tokenize(String line) {
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= line.length(); i++) {
+            boolean space = i == line.length() || Character.isWhitespace(line.charAt(i));
+            if (space && start >= 0) {
+                tokens.add(line.substring(start, i));
+                start = -1;
+            } else if (!space && start < 0) {
+                start = i;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Growable open-addressing long to int counter, so building does not box millions of entries.
+     */
+    private static class LongIntCounter {
+
+        private long[] keys = new long[1 << 16];
+        private int[] counts = new int[1 << 16];
+        private int size;
+
+        private void increment(long key) {
+            int mask = keys.length - 1;
+            int slot = (int) CorpusStats.mix(key) & mask;
+            while (keys[slot] != 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (keys[slot] == 0) {
+                keys[slot] = key;
+                if (++size * 2 > keys.length) {
+                    counts[slot] = 1;
+                    grow();
+                    return;
+                }
+            }
+            if (counts[slot] != Integer.MAX_VALUE) {
+                counts[slot]++;
+            }
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            int[] oldCounts = counts;
+            keys = new long[oldKeys.length * 2];
+            counts = new int[oldKeys.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    int slot = insertSlot(keys, oldKeys[i]);
+                    keys[slot] = oldKeys[i];
+                    counts[slot] = oldCounts[i];
+                }
+            }
+        }
+
+        // Lays the entries out in a table of the given capacity, probing exactly as CorpusStats does
+        private void writeTable(ByteBuffer out, int base, int capacity) {
+            long[] table = new long[capacity];
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != 0) {
+                    int slot = insertSlot(table, keys[i]);
+                    table[slot] = keys[i];
+                    int offset = base + slot * CorpusStats.SLOT_BYTES;
+                    out.putLong(offset, keys[i]);
+                    out.putInt(offset + 8, counts[i]);
+                }
+            }
+        }
+
+        private static int insertSlot(long[] table, long key) {
+            int mask = table.length - 1;
+            int slot = (int) CorpusStats.mix(key) & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+    }
+}
@@ -2,56 +2,85 @@ package com.irs.researchengine.utils;
 
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import jakarta.annotation.PostConstruct;
 
+/**
+ * General-corpus term and co-occurrence probabilities, served from the memory-mapped {@link CorpusStats} file.
+ */
 @Component
 public class CorpusUtils {
-	
+
+    private static final Logger logger = LoggerFactory.getLogger(CorpusUtils.class);
+
 	@Value("${corpus.file.path}")
     private String corpusFilePath;
-	
-    private Map<String, Integer> termFrequencies = new HashMap<>();
-    private Map<String, Integer> coOccurrences = new HashMap<>();
-    private int totalTerms;
+
+    // Built from the corpus by CorpusStatsBuilder; rebuilt at startup only if missing, stale or built with another window
+    @Value("${corpus.stats.path:./dataset/corpus_stats.bin}")
+    private String statsPath;
+
+    // Pairs are counted for terms at most this many positions apart on a line
+    @Value("${corpus.cooccurrence.window:10}")
+    private int window;
+
+    private CorpusStats stats;
 
     @PostConstruct
     public void loadCorpus() throws IOException {
-    	List<String> lines = Files.readAllLines(Paths.get(corpusFilePath));
-        for (String line : lines) {
-            String[] tokens = line.split("\\s+");
-            for (String token : tokens) {
-                termFrequencies.put(token, termFrequencies.getOrDefault(token, 0) + 1);
-                totalTerms++;
-            }
-            for (int i = 0; i < tokens.length; i++) {
-                for (int j = i + 1; j < tokens.length; j++) {
-                    String pair = tokens[i] + " " + tokens[j];
-                    coOccurrences.put(pair, coOccurrences.getOrDefault(pair, 0) + 1);
-                }
-            }
+        Path statsFile = Paths.get(statsPath);
+        Path corpusFile = Paths.get(corpusFilePath);
+        if (isStale(statsFile, corpusFile)) {
+            build(statsFile, corpusFile);
+        }
+        stats = CorpusStats.open(statsFile);
+        if (stats.getWindow() != window) {
+            logger.info("Corpus statistics were built with window {}, configured window is {}", stats.getWindow(), window);
+            build(statsFile, corpusFile);
+            stats = CorpusStats.open(statsFile);
         }
     }
 
     public double getJointProbability(String term) {
-        return (double) coOccurrences.getOrDefault(term, 0) / totalTerms;
+        return (double) stats.pairCount(term) / stats.getTotalTerms();
     }
 
     public double getIndependentProbability(String term) {
-        String[] words = term.split("\\s+");
         double probability = 1.0;
-        for (String word : words) {
-            probability *= (double) termFrequencies.getOrDefault(word, 1) / totalTerms;
+        int start = -1;
+        for (int i = 0; i <= term.length(); i++) {
+            boolean space = i == term.length() || Character.isWhitespace(term.charAt(i));
+            if (space && start >= 0) {
+                // Unseen words count once so they do not zero the product
+                int count = stats.termCount(term, start, i);
+                probability *= (double) (count == 0 ? 1 : count) / stats.getTotalTerms();
+                start = -1;
+            } else if (!space && start < 0) {
+                start = i;
+            }
         }
         return probability;
     }
-}
 
+    private void build(Path statsFile, Path corpusFile) throws IOException {
+        logger.info("Building corpus statistics {} from {}", statsFile, corpusFile);
+        CorpusStatsBuilder builder = new CorpusStatsBuilder(window);
+        builder.addCorpus(corpusFile);
+        builder.write(statsFile);
+    }
 
+    private static boolean isStale(Path statsFile, Path corpusFile) throws IOException {
+        if (!Files.exists(statsFile)) {
+            return true;
+        }
+        return Files.exists(corpusFile)
+                && Files.getLastModifiedTime(corpusFile).compareTo(Files.getLastModifiedTime(statsFile)) > 0;
+    }
+}
@@ -0,0 +1,106 @@
+package com.irs.researchengine.utils;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.irs.researchengine.data.Paper;
+
+/**
+ * Reads a dataset lazily with Jackson's token-level parser and hands out papers in fixed-size batches.
+ * Accepts both a top-level JSON array (the downloadable dataset) and JSON Lines (the harvester output),
+ * and only one batch is ever materialized, so heap use does not depend on the size of the file.
+ */
+public class DatasetReader implements Iterator<List<Paper>>, Closeable {
+
+    private final JsonParser parser;
+    private final ObjectReader paperReader;
+    private final int batchSize;
+    private final boolean array;
+    private long count;
+
+    public DatasetReader(File datasetFile, ObjectMapper objectMapper, int batchSize) throws IOException {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        this.parser = objectMapper.getFactory().createParser(datasetFile);
+        this.paperReader = objectMapper.readerFor(Paper.class);
+        this.batchSize = batchSize;
+
+        JsonToken first = parser.nextToken();
+        this.array = first == JsonToken.START_ARRAY;
+        if (array) {
+            parser.nextToken(); // Step onto the first element
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        JsonToken token = parser.currentToken();
+        return token != null && !(array && token == JsonToken.END_ARRAY);
+    }
+
+    @Override
+    public List<Paper> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        try {
+            return nextBatch();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Hands every remaining paper to the consumer as soon as it is read. If a record fails to parse, e.g. a truncated
+     * last line, the papers before it have been consumed already and only it and what follows are lost.
+     */
+    public void forEachPaper(Consumer<Paper> consumer) throws IOException {
+        while (hasNext()) {
+            consumer.accept(readPaper());
+            count++;
+        }
+    }
+
+    private List<Paper> nextBatch() throws IOException {
+        List<Paper> batch = new ArrayList<>(batchSize);
+        while (batch.size() < batchSize && hasNext()) {
+            batch.add(readPaper());
+        }
+        count += batch.size();
+        return batch;
+    }
+
+    private Paper readPaper() throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Expected a paper object at " + parser.currentLocation() + " but found " + parser.currentToken());
+        }
+        // Binds exactly one object and leaves the parser on its END_OBJECT
+        Paper paper = paperReader.readValue(parser);
+        parser.nextToken();
+        return paper;
+    }
+
+    /**
+     * Number of papers read so far.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
@@ -0,0 +1,188 @@
+package com.irs.researchengine.utils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NumericDocValues;
+import org.apache.lucene.index.SortedSetDocValues;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.SimpleCollector;
+
+import com.irs.researchengine.data.FacetValue;
+
+/**
+ * Counts the values of DocValues fields over every matching document, meant to be wrapped in a MultiCollector
+ * with the top hits collector so facets come from the same pass over the postings as the hits.
+ *
+ * SortedSet fields are counted by segment ordinal into a reused int array and resolved to their terms once per
+ * segment, so only values that occur among the hits are ever looked up. Numeric fields are counted in a dense
+ * array over the range of values seen, which suits small ranges like years; a value that would widen that range
+ * beyond {@value #MAX_NUMERIC_SPAN} is not counted.
+ */
+public class FacetCountsCollector extends SimpleCollector {
+
+    static final int MAX_NUMERIC_SPAN = 1 << 16;
+
+    private static final Comparator<FacetValue> BY_COUNT = Comparator.comparingInt(FacetValue::getCount).reversed()
+            .thenComparing(FacetValue::getValue);
+
+    private final String[] sortedSetFields;
+    private final String[] numericFields;
+
+    // Per sorted set field: this segment's values and counts by ordinal, and the totals of earlier segments
+    private final SortedSetDocValues[] sortedSetValues;
+    private final int[][] ordinalCounts;
+    private final List<Map<String, Integer>> termCounts = new ArrayList<>();
+
+    // Per numeric field: counts of values base[i], base[i] + 1, ...
+    private final NumericDocValues[] numericValues;
+    private final long[] numericBase;
+    private final int[][] numericCounts;
+
+    private int hits;
+
+    public FacetCountsCollector(String[] sortedSetFields, String[] numericFields) {
+        this.sortedSetFields = sortedSetFields.clone();
+        this.numericFields = numericFields.clone();
+        this.sortedSetValues = new SortedSetDocValues[sortedSetFields.length];
+        this.ordinalCounts = new int[sortedSetFields.length][];
+        for (int i = 0; i < sortedSetFields.length; i++) {
+            ordinalCounts[i] = new int[0];
+            termCounts.add(new HashMap<>());
+        }
+        this.numericValues = new NumericDocValues[numericFields.length];
+        this.numericBase = new long[numericFields.length];
+        this.numericCounts = new int[numericFields.length][];
+    }
+
+    @Override
+    protected void doSetNextReader(LeafReaderContext context) throws IOException {
+        flushSegment();
+        LeafReader reader = context.reader();
+        for (int i = 0; i < sortedSetFields.length; i++) {
+            sortedSetValues[i] = DocValues.getSortedSet(reader, sortedSetFields[i]);
+            int valueCount = (int) sortedSetValues[i].getValueCount();
+            if (ordinalCounts[i].length < valueCount) {
+                ordinalCounts[i] = new int[valueCount];
+            }
+        }
+        for (int i = 0; i < numericFields.length; i++) {
+            numericValues[i] = DocValues.getNumeric(reader, numericFields[i]);
+        }
+    }
+
+    @Override
+    public void collect(int doc) throws IOException {
+        hits++;
+        for (int i = 0; i < sortedSetValues.length; i++) {
+            SortedSetDocValues values = sortedSetValues[i];
+            if (values.advanceExact(doc)) {
+                int[] counts = ordinalCounts[i];
+                for (long ord = values.nextOrd(); ord != SortedSetDocValues.NO_MORE_ORDS; ord = values.nextOrd()) {
+                    counts[(int) ord]++;
+                }
+            }
+        }
+        for (int i = 0; i < numericValues.length; i++) {
+            NumericDocValues values = numericValues[i];
+            if (values.advanceExact(doc)) {
+                countNumeric(i, values.longValue());
+            }
+        }
+    }
+
+    @Override
+    public ScoreMode scoreMode() {
+        return ScoreMode.COMPLETE_NO_SCORES;
+    }
+
+    /**
+     * Number of documents collected.
+     */
+    public int getHits() {
+        return hits;
+    }
+
+    /**
+     * The topN most frequent values of each field, keyed by field name, most frequent first and ties by value.
+     */
+    public Map<String, List<FacetValue>> topValues(int topN) throws IOException {
+        flushSegment();
+        Map<String, List<FacetValue>> facets = new HashMap<>();
+        for (int i = 0; i < sortedSetFields.length; i++) {
+            List<FacetValue> values = new ArrayList<>(termCounts.get(i).size());
+            for (Map.Entry<String, Integer> count : termCounts.get(i).entrySet()) {
+                values.add(new FacetValue(count.getKey(), count.getValue()));
+            }
+            facets.put(sortedSetFields[i], top(values, topN));
+        }
+        for (int i = 0; i < numericFields.length; i++) {
+            List<FacetValue> values = new ArrayList<>();
+            int[] counts = numericCounts[i];
+            for (int offset = 0; counts != null && offset < counts.length; offset++) {
+                if (counts[offset] > 0) {
+                    values.add(new FacetValue(Long.toString(numericBase[i] + offset), counts[offset]));
+                }
+            }
+            facets.put(numericFields[i], top(values, topN));
+        }
+        return facets;
+    }
+
+    private static List<FacetValue> top(List<FacetValue> values, int topN) {
+        values.sort(BY_COUNT);
+        return values.size() > topN ? new ArrayList<>(values.subList(0, topN)) : values;
+    }
+
+    // Resolves the ordinals counted in the current segment to terms and clears their counts for the next one
+    private void flushSegment() throws IOException {
+        for (int i = 0; i < sortedSetFields.length; i++) {
+            SortedSetDocValues values = sortedSetValues[i];
+            if (values == null) {
+                continue;
+            }
+            int[] counts = ordinalCounts[i];
+            Map<String, Integer> totals = termCounts.get(i);
+            int valueCount = (int) values.getValueCount();
+            for (int ord = 0; ord < valueCount; ord++) {
+                if (counts[ord] > 0) {
+                    totals.merge(values.lookupOrd(ord).utf8ToString(), counts[ord], Integer::sum);
+                    counts[ord] = 0;
+                }
+            }
+            sortedSetValues[i] = null;
+        }
+    }
+
+    private void countNumeric(int field, long value) {
+        int[] counts = numericCounts[field];
+        if (counts == null) {
+            numericBase[field] = value;
+            counts = numericCounts[field] = new int[16];
+        }
+        long offset = value - numericBase[field];
+        if (offset < 0 || offset >= counts.length) {
+            long low = Math.min(numericBase[field], value);
+            long high = Math.max(numericBase[field] + counts.length, value + 1);
+            if (high - low > MAX_NUMERIC_SPAN) {
+                return;
+            }
+            // Grow with headroom on the side the value fell off
+            int length = (int) Math.min(MAX_NUMERIC_SPAN, Math.max(high - low, 2L * counts.length));
+            long base = value < numericBase[field] ? high - length : low;
+            int[] grown = new int[length];
+            System.arraycopy(counts, 0, grown, (int) (numericBase[field] - base), counts.length);
+            numericBase[field] = base;
+            counts = numericCounts[field] = grown;
+            offset = value - base;
+        }
+        counts[(int) offset]++;
+    }
+}
@@ -0,0 +1,148 @@
+package com.irs.researchengine.utils;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NumericDocValues;
+import org.apache.lucene.index.ReaderUtil;
+import org.apache.lucene.search.Explanation;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Rescorer;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.util.NumericUtils;
+
+/**
+ * Second-stage ranking of the top Lucene hits by a linear model over per-document features:
+ * <pre>
+ *   score = w_bm25 * bm25 + w_citations * log(1 + citations) + w_recency * 2^(-age / halfLife) + w_rank * staticRank
+ * </pre>
+ * Features come from DocValues, read segment by segment with forward-only iterators, so hits are visited in doc
+ * id order and rescoring allocates nothing per hit. Papers without a feature (e.g. indexed before it existed)
+ * score 0 for it. Like Lucene's QueryRescorer, the scores of the given hits are replaced.
+ */
+public class FeatureRescorer extends Rescorer {
+
+    public static final String CITATIONS_FIELD = "citationCount";
+    public static final String PUBLISHED_FIELD = "publishedTime";
+    public static final String STATIC_RANK_FIELD = "staticRank";
+
+    private static final double MILLIS_PER_DAY = 86_400_000d;
+
+    private static final Comparator<ScoreDoc> DOC_ORDER = (a, b) -> Integer.compare(a.doc, b.doc);
+    private static final Comparator<ScoreDoc> SCORE_ORDER = (a, b) -> {
+        int byScore = Float.compare(b.score, a.score);
+        return byScore != 0 ? byScore : Integer.compare(a.doc, b.doc);
+    };
+
+    private final float bm25Weight;
+    private final float citationWeight;
+    private final float recencyWeight;
+    private final float staticRankWeight;
+    // ln 2 / half-life, so exp(-decay * age) halves every half-life
+    private final double recencyDecayPerMilli;
+
+    public FeatureRescorer(float bm25Weight, float citationWeight, float recencyWeight, float staticRankWeight,
+                           double recencyHalfLifeDays) {
+        if (recencyHalfLifeDays <= 0) {
+            throw new IllegalArgumentException("Recency half-life must be positive: " + recencyHalfLifeDays);
+        }
+        this.bm25Weight = bm25Weight;
+        this.citationWeight = citationWeight;
+        this.recencyWeight = recencyWeight;
+        this.staticRankWeight = staticRankWeight;
+        this.recencyDecayPerMilli = Math.log(2) / (recencyHalfLifeDays * MILLIS_PER_DAY);
+    }
+
+    /**
+     * The "staticRank" DocValues value of a rank. Sortable, so the field can also be used in a sort.
+     */
+    public static long encodeStaticRank(float rank) {
+        return NumericUtils.floatToSortableInt(rank);
+    }
+
+    public static float decodeStaticRank(long value) {
+        return NumericUtils.sortableIntToFloat((int) value);
+    }
+
+    @Override
+    public TopDocs rescore(IndexSearcher searcher, TopDocs firstPassTopDocs, int topN) throws IOException {
+        ScoreDoc[] hits = firstPassTopDocs.scoreDocs.clone();
+        Arrays.sort(hits, DOC_ORDER);
+        List<LeafReaderContext> leaves = searcher.getIndexReader().leaves();
+        long now = System.currentTimeMillis();
+
+        int leafIndex = -1;
+        int docBase = 0;
+        int leafEnd = 0;
+        NumericDocValues citations = null;
+        NumericDocValues published = null;
+        NumericDocValues staticRank = null;
+        for (ScoreDoc hit : hits) {
+            // Hits are in doc id order: move to the segment holding this one, skipping segments without hits
+            while (hit.doc >= leafEnd) {
+                LeafReaderContext leaf = leaves.get(++leafIndex);
+                LeafReader reader = leaf.reader();
+                docBase = leaf.docBase;
+                leafEnd = docBase + reader.maxDoc();
+                citations = DocValues.getNumeric(reader, CITATIONS_FIELD);
+                published = DocValues.getNumeric(reader, PUBLISHED_FIELD);
+                staticRank = DocValues.getNumeric(reader, STATIC_RANK_FIELD);
+            }
+            int doc = hit.doc - docBase;
+            hit.score = score(hit.score, value(citations, doc), value(published, doc),
+                    decodeStaticRank(value(staticRank, doc)), now);
+        }
+
+        Arrays.sort(hits, SCORE_ORDER);
+        if (topN < hits.length) {
+            hits = Arrays.copyOf(hits, topN);
+        }
+        return new TopDocs(firstPassTopDocs.totalHits, hits);
+    }
+
+    @Override
+    public Explanation explain(IndexSearcher searcher, Explanation firstPassExplanation, int docID) throws IOException {
+        List<LeafReaderContext> leaves = searcher.getIndexReader().leaves();
+        LeafReaderContext leaf = leaves.get(ReaderUtil.subIndex(docID, leaves));
+        int doc = docID - leaf.docBase;
+        long citations = value(DocValues.getNumeric(leaf.reader(), CITATIONS_FIELD), doc);
+        long published = value(DocValues.getNumeric(leaf.reader(), PUBLISHED_FIELD), doc);
+        float rank = decodeStaticRank(value(DocValues.getNumeric(leaf.reader(), STATIC_RANK_FIELD), doc));
+        long now = System.currentTimeMillis();
+
+        float bm25 = firstPassExplanation.getValue().floatValue();
+        return Explanation.match(score(bm25, citations, published, rank, now), "linear feature model, sum of:",
+                Explanation.match(bm25Weight * bm25, "weight " + bm25Weight + " * first pass score", firstPassExplanation),
+                Explanation.match((float) (citationWeight * Math.log1p(Math.max(0, citations))),
+                        "weight " + citationWeight + " * log(1 + citations), citations=" + citations),
+                Explanation.match((float) (recencyWeight * recency(published, now)),
+                        "weight " + recencyWeight + " * recency, published=" + published),
+                Explanation.match(staticRankWeight * rank, "weight " + staticRankWeight + " * static rank, rank=" + rank));
+    }
+
+    float score(float bm25, long citations, long publishedMillis, float staticRank, long now) {
+        double score = bm25Weight * bm25
+                + citationWeight * Math.log1p(Math.max(0, citations))
+                + recencyWeight * recency(publishedMillis, now)
+                + staticRankWeight * staticRank;
+        return (float) score;
+    }
+
+    // 1 for a paper published now, halving every half-life; 0 when the date is unknown
+    private double recency(long publishedMillis, long now) {
+        if (publishedMillis <= 0) {
+            return 0;
+        }
+        return Math.exp(-recencyDecayPerMilli * Math.max(0, now - publishedMillis));
+    }
+
+    private static long value(NumericDocValues values, int doc) throws IOException {
+        return values.advanceExact(doc) ? values.longValue() : 0;
+    }
+}
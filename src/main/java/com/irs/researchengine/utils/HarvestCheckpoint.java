@@ -0,0 +1,74 @@
+package com.irs.researchengine.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+/**
+ * Harvest progress persisted as category=nextStart lines, so an interrupted run resumes where it stopped.
+ * Completed categories are stored as category=done. Every update is written to disk atomically.
+ */
+public class HarvestCheckpoint {
+
+    private static final String DONE = "done";
+
+    private final Path path;
+    private final Properties offsets = new Properties();
+
+    private HarvestCheckpoint(Path path) {
+        this.path = path;
+    }
+
+    public static HarvestCheckpoint load(Path path) throws IOException {
+        HarvestCheckpoint checkpoint = new HarvestCheckpoint(path);
+        if (Files.exists(path)) {
+            try (InputStream in = Files.newInputStream(path)) {
+                checkpoint.offsets.load(in);
+            }
+        }
+        return checkpoint;
+    }
+
+    public synchronized boolean isEmpty() {
+        return offsets.isEmpty();
+    }
+
+    public synchronized boolean isDone(String category) {
+        return DONE.equals(offsets.getProperty(category));
+    }
+
+    public synchronized int getStart(String category) {
+        String value = offsets.getProperty(category);
+        return (value == null || DONE.equals(value)) ? 0 : Integer.parseInt(value);
+    }
+
+    public synchronized void setStart(String category, int start) throws IOException {
+        offsets.setProperty(category, String.valueOf(start));
+        save();
+    }
+
+    public synchronized void markDone(String category) throws IOException {
+        offsets.setProperty(category, DONE);
+        save();
+    }
+
+    public synchronized void delete() throws IOException {
+        offsets.clear();
+        Files.deleteIfExists(path);
+    }
+
+    private void save() throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            offsets.store(out, "arXiv harvest progress");
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,64 @@
+package com.irs.researchengine.utils;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.irs.researchengine.data.Paper;
+
+/**
+ * Appends papers to a JSON Lines dataset, one JSON object per line.
+ * Thread-safe, so several harvesters can share one writer.
+ */
+public class JsonLinesDatasetWriter implements Consumer<Paper>, Closeable {
+
+    private final Writer writer;
+    private final ObjectWriter paperWriter;
+    private long count;
+
+    public JsonLinesDatasetWriter(File datasetFile, ObjectMapper objectMapper, boolean append) throws IOException {
+        if (datasetFile.getParentFile() != null && !datasetFile.getParentFile().exists()) {
+            datasetFile.getParentFile().mkdirs();
+        }
+        this.writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(datasetFile, append), StandardCharsets.UTF_8));
+        this.paperWriter = objectMapper.writerFor(Paper.class);
+    }
+
+    public synchronized void write(Paper paper) throws IOException {
+        // Jackson escapes newlines inside values, so each paper stays on one line
+        writer.write(paperWriter.writeValueAsString(paper));
+        writer.write('\n');
+        count++;
+    }
+
+    @Override
+    public void accept(Paper paper) {
+        try {
+            write(paper);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public synchronized void flush() throws IOException {
+        writer.flush();
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+}
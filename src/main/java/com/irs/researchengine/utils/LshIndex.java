@@ -0,0 +1,86 @@
+package com.irs.researchengine.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Locality-sensitive hashing over MinHash signatures using the banding technique.
+ * A signature is split into bands of rows; two keys become candidates when any band hashes identically.
+ * With b bands of r rows, a pair with Jaccard similarity s is a candidate with probability 1 - (1 - s^r)^b.
+ */
+public class LshIndex {
+
+    private final int bands;
+    private final int rows;
+    private final Map<Long, int[]> buckets = new HashMap<>();
+    private final List<String> keys = new ArrayList<>();
+
+    public LshIndex(int bands, int rows) {
+        this.bands = bands;
+        this.rows = rows;
+    }
+
+    public void add(String key, int[] signature) {
+        int ordinal = keys.size();
+        keys.add(key);
+        for (int band = 0; band < bands; band++) {
+            long bucketKey = bucketKey(signature, band);
+            int[] members = buckets.get(bucketKey);
+            if (members == null) {
+                // Slot 0 holds the member count
+                members = new int[2];
+            } else if (members[0] + 1 == members.length) {
+                members = Arrays.copyOf(members, members.length * 2);
+            }
+            members[++members[0]] = ordinal;
+            buckets.put(bucketKey, members);
+        }
+    }
+
+    /**
+     * Returns the keys sharing at least one band with the signature, in insertion order.
+     */
+    public Set<String> candidates(int[] signature) {
+        int[] ordinals = new int[8];
+        int count = 0;
+        for (int band = 0; band < bands; band++) {
+            int[] members = buckets.get(bucketKey(signature, band));
+            if (members == null) {
+                continue;
+            }
+            for (int i = 1; i <= members[0]; i++) {
+                if (count == ordinals.length) {
+                    ordinals = Arrays.copyOf(ordinals, count * 2);
+                }
+                ordinals[count++] = members[i];
+            }
+        }
+        Arrays.sort(ordinals, 0, count);
+
+        Set<String> candidates = new LinkedHashSet<>();
+        for (int i = 0; i < count; i++) {
+            if (i == 0 || ordinals[i] != ordinals[i - 1]) {
+                candidates.add(keys.get(ordinals[i]));
+            }
+        }
+        return candidates;
+    }
+
+    public int size() {
+        return keys.size();
+    }
+
+    private long bucketKey(int[] signature, int band) {
+        int hash = 1;
+        int from = band * rows;
+        for (int i = from; i < from + rows; i++) {
+            hash = 31 * hash + signature[i];
+        }
+        return ((long) band << 32) | (hash & 0xffffffffL);
+    }
+}
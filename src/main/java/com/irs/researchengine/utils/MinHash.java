@@ -0,0 +1,133 @@
+package com.irs.researchengine.utils;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * MinHash signatures over hashed character shingles.
+ * Two signatures agree in a given slot with probability equal to the Jaccard similarity of the shingle sets.
+ */
+public class MinHash {
+
+    private final long[] multipliers;
+    private final long[] offsets;
+
+    public MinHash(int numHashes, long seed) {
+        Random random = new Random(seed);
+        multipliers = new long[numHashes];
+        offsets = new long[numHashes];
+        for (int i = 0; i < numHashes; i++) {
+            multipliers[i] = random.nextLong() | 1L;
+            offsets[i] = random.nextLong();
+        }
+    }
+
+    public int getNumHashes() {
+        return multipliers.length;
+    }
+
+    public int[] signature(int[] shingles) {
+        int[] signature = new int[multipliers.length];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (int shingle : shingles) {
+            long x = shingle & 0xffffffffL;
+            for (int i = 0; i < signature.length; i++) {
+                // Multiply-shift hashing, the high 32 bits are the best mixed
+                int hash = (int) ((multipliers[i] * x + offsets[i]) >>> 32);
+                if (hash < signature[i]) {
+                    signature[i] = hash;
+                }
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * Hashes every character shingle of the text, ignoring whitespace and case.
+     * Returns a sorted array of distinct shingle hashes.
+     */
+    public static int[] shingles(String text, int shingleSize) {
+        if (text == null) {
+            return new int[0];
+        }
+        String lower = text.toLowerCase();
+        char[] chars = new char[lower.length()];
+        int length = 0;
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            if (!isWhitespace(c)) {
+                chars[length++] = c;
+            }
+        }
+        if (length < shingleSize) {
+            return new int[0];
+        }
+
+        int[] hashes = new int[length - shingleSize + 1];
+        for (int i = 0; i < hashes.length; i++) {
+            long packed = 0;
+            for (int j = 0; j < shingleSize; j++) {
+                packed = (packed << 16) ^ chars[i + j] ^ (packed >>> 48);
+            }
+            hashes[i] = (int) mix(packed);
+        }
+        Arrays.sort(hashes);
+
+        int distinct = 0;
+        for (int i = 0; i < hashes.length; i++) {
+            if (i == 0 || hashes[i] != hashes[distinct - 1]) {
+                hashes[distinct++] = hashes[i];
+            }
+        }
+        return Arrays.copyOf(hashes, distinct);
+    }
+
+    /**
+     * Exact Jaccard similarity of two sorted, distinct shingle arrays.
+     */
+    public static double jaccard(int[] shingles1, int[] shingles2) {
+        int i = 0;
+        int j = 0;
+        int intersection = 0;
+        while (i < shingles1.length && j < shingles2.length) {
+            if (shingles1[i] == shingles2[j]) {
+                intersection++;
+                i++;
+                j++;
+            } else if (shingles1[i] < shingles2[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        int union = shingles1.length + shingles2.length - intersection;
+        return union == 0 ? 0.0 : (double) intersection / union;
+    }
+
+    public static byte[] toBytes(int[] signature) {
+        ByteBuffer buffer = ByteBuffer.allocate(signature.length * Integer.BYTES);
+        buffer.asIntBuffer().put(signature);
+        return buffer.array();
+    }
+
+    public static int[] fromBytes(byte[] bytes, int offset, int length) {
+        int[] signature = new int[length / Integer.BYTES];
+        ByteBuffer.wrap(bytes, offset, length).asIntBuffer().get(signature);
+        return signature;
+    }
+
+    // Same characters as the regex \s used for normalisation elsewhere
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,68 @@
+package com.irs.researchengine.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Set;
+
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.index.StoredFieldVisitor;
+
+import com.irs.researchengine.data.Paper;
+
+/**
+ * Loads only the requested stored fields of a document straight into a {@link Paper}, skipping everything else
+ * (the summary and MinHash signature are the bulk of a stored document). Stops reading once all are found.
+ */
+public class PaperFieldVisitor extends StoredFieldVisitor {
+
+    public static final Set<String> ALL_FIELDS = Set.of("id", "title", "summary", "pdfLink", "comment", "updated",
+            "published", "primaryCategory", "primaryCategoryCode", "authors");
+
+    private final Set<String> fields;
+    private Paper paper;
+    private int remaining;
+
+    public PaperFieldVisitor(Set<String> fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * Starts a new document; the visitor can be reused across documents on one thread.
+     */
+    public Paper reset() {
+        paper = new Paper();
+        if (fields.contains("authors")) {
+            paper.setAuthors(new ArrayList<>()); // Papers without authors have no stored field
+        }
+        remaining = fields.size();
+        return paper;
+    }
+
+    @Override
+    public Status needsField(FieldInfo fieldInfo) {
+        if (remaining == 0) {
+            return Status.STOP;
+        }
+        return fields.contains(fieldInfo.name) ? Status.YES : Status.NO;
+    }
+
+    @Override
+    public void stringField(FieldInfo fieldInfo, byte[] value) {
+        String text = new String(value, StandardCharsets.UTF_8);
+        switch (fieldInfo.name) {
+            case "id": paper.setId(text); break;
+            case "title": paper.setTitle(text); break;
+            case "summary": paper.setSummary(text); break;
+            case "pdfLink": paper.setPdfLink(text); break;
+            case "comment": paper.setComment(text); break;
+            case "updated": paper.setUpdated(text); break;
+            case "published": paper.setPublished(text); break;
+            case "primaryCategory": paper.setPrimaryCategory(text); break;
+            case "primaryCategoryCode": paper.setCategoryCode(text); break;
+            case "authors": paper.setAuthors(new ArrayList<>(Arrays.asList(text.split(", ")))); break;
+            default: return;
+        }
+        remaining--;
+    }
+}
@@ -0,0 +1,367 @@
+package com.irs.researchengine.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable in-memory suggester over weighted phrases. Every phrase is reachable from the start of each of its
+ * words, so "neur" suggests "Graph Neural Networks". Lookups never touch the index.
+ *
+ * Keys (phrase suffixes starting at a word) are kept in one sorted array. Prefixes that match more than
+ * {@link #SCAN_LIMIT} keys are trie nodes with their top-k phrases precomputed at build time; rarer prefixes
+ * resolve to a short range of the sorted array that is scanned directly. Either way a lookup costs a binary
+ * search plus at most a few hundred comparisons.
+ */
+public class PrefixSuggester {
+
+    private static final int SCAN_LIMIT = 256;
+
+    private final int maxSuggestions;
+    // Phrases ordered by descending weight, so a lower index always means a better suggestion
+    private final String[] phrases;
+    private final String[] normalized;
+    // Sorted keys: key i is normalized[keyPhrase[i]] starting at keyOffset[i]
+    private final int[] keyPhrase;
+    private final int[] keyOffset;
+    private final Map<String, int[]> topByPrefix;
+
+    private PrefixSuggester(int maxSuggestions, String[] phrases, String[] normalized, int[] keyPhrase, int[] keyOffset) {
+        this.maxSuggestions = maxSuggestions;
+        this.phrases = phrases;
+        this.normalized = normalized;
+        this.keyPhrase = keyPhrase;
+        this.keyOffset = keyOffset;
+        this.topByPrefix = new HashMap<>();
+        precompute(0, keyPhrase.length, 0);
+    }
+
+    public static Builder builder(int maxSuggestions) {
+        return new Builder(maxSuggestions);
+    }
+
+    /**
+     * Best phrases, highest weight first, with a word starting with the given prefix.
+     */
+    public List<String> suggest(String prefix) {
+        String query = normalize(prefix);
+        if (query.isEmpty()) {
+            return Collections.emptyList();
+        }
+        int[] top = topByPrefix.get(query);
+        if (top == null) {
+            int lo = lowerBound(query);
+            int hi = upperBound(query, lo);
+            top = topInRange(lo, hi);
+        }
+        List<String> suggestions = new ArrayList<>(top.length);
+        for (int phrase : top) {
+            suggestions.add(phrases[phrase]);
+        }
+        return suggestions;
+    }
+
+    public int size() {
+        return phrases.length;
+    }
+
+    // Lowercase, and collapse everything that is not a letter or digit into single spaces
+    static String normalize(String text) {
+        StringBuilder out = new StringBuilder(text.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && out.length() > 0) {
+                    out.append(' ');
+                }
+                pendingSpace = false;
+                out.append(Character.toLowerCase(c));
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return out.toString();
+    }
+
+    // Fills topByPrefix for every prefix of length >= 1 shared by more than SCAN_LIMIT keys; returns the range's top-k
+    private int[] precompute(int lo, int hi, int depth) {
+        if (hi - lo <= SCAN_LIMIT) {
+            return topInRange(lo, hi);
+        }
+        List<int[]> children = new ArrayList<>();
+        int start = lo;
+        // Keys exhausted at this depth sort first and have no child
+        while (start < hi && keyLength(start) == depth) {
+            start++;
+        }
+        if (start > lo) {
+            children.add(topInRange(lo, start));
+        }
+        while (start < hi) {
+            char c = keyChar(start, depth);
+            int end = start + 1;
+            while (end < hi && keyChar(end, depth) == c) {
+                end++;
+            }
+            children.add(precompute(start, end, depth + 1));
+            start = end;
+        }
+        int[] top = merge(children);
+        if (depth > 0) {
+            topByPrefix.put(keyPrefix(lo, depth), top);
+        }
+        return top;
+    }
+
+    private int[] topInRange(int lo, int hi) {
+        // Smallest distinct phrase indices, kept sorted by insertion
+        int[] best = new int[maxSuggestions];
+        int count = 0;
+        for (int i = lo; i < hi; i++) {
+            count = offer(best, count, keyPhrase[i]);
+        }
+        return Arrays.copyOf(best, count);
+    }
+
+    private int[] merge(List<int[]> lists) {
+        int[] best = new int[maxSuggestions];
+        int count = 0;
+        for (int[] list : lists) {
+            for (int phrase : list) {
+                count = offer(best, count, phrase);
+            }
+        }
+        return Arrays.copyOf(best, count);
+    }
+
+    private int offer(int[] best, int count, int phrase) {
+        int pos = Arrays.binarySearch(best, 0, count, phrase);
+        if (pos >= 0) {
+            return count; // Same phrase reached through another of its words
+        }
+        pos = -pos - 1;
+        if (pos >= best.length) {
+            return count;
+        }
+        int moved = Math.min(count, best.length - 1) - pos;
+        if (moved > 0) {
+            System.arraycopy(best, pos, best, pos + 1, moved);
+        }
+        best[pos] = phrase;
+        return Math.min(count + 1, best.length);
+    }
+
+    private int keyLength(int key) {
+        return normalized[keyPhrase[key]].length() - keyOffset[key];
+    }
+
+    private char keyChar(int key, int depth) {
+        return normalized[keyPhrase[key]].charAt(keyOffset[key] + depth);
+    }
+
+    private String keyPrefix(int key, int length) {
+        int offset = keyOffset[key];
+        return normalized[keyPhrase[key]].substring(offset, offset + length);
+    }
+
+    // First key >= query
+    private int lowerBound(String query) {
+        int lo = 0;
+        int hi = keyPhrase.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compareKey(mid, query) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // First key at or after from that does not start with query
+    private int upperBound(String query, int from) {
+        int lo = from;
+        int hi = keyPhrase.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (normalized[keyPhrase[mid]].startsWith(query, keyOffset[mid])) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private int compareKey(int key, String query) {
+        return compare(normalized[keyPhrase[key]], keyOffset[key], query, 0);
+    }
+
+    private static int compare(String a, int aOffset, String b, int bOffset) {
+        int aLength = a.length() - aOffset;
+        int bLength = b.length() - bOffset;
+        int n = Math.min(aLength, bLength);
+        for (int i = 0; i < n; i++) {
+            int diff = a.charAt(aOffset + i) - b.charAt(bOffset + i);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return aLength - bLength;
+    }
+
+    /**
+     * Collects phrases and their weights; adding the same phrase again adds to its weight.
+     */
+    public static class Builder {
+
+        private final int maxSuggestions;
+        private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+        private Builder(int maxSuggestions) {
+            this.maxSuggestions = maxSuggestions;
+        }
+
+        public Builder add(String phrase, long weight) {
+            if (phrase == null) {
+                return this;
+            }
+            String key = normalize(phrase);
+            if (!key.isEmpty()) {
+                entries.computeIfAbsent(key, k -> new Entry(phrase.trim(), k)).weight += weight;
+            }
+            return this;
+        }
+
+        public PrefixSuggester build() {
+            List<Entry> sorted = new ArrayList<>(entries.values());
+            sorted.sort((a, b) -> a.weight != b.weight ? Long.compare(b.weight, a.weight) : a.normalized.compareTo(b.normalized));
+
+            String[] phrases = new String[sorted.size()];
+            String[] normalized = new String[sorted.size()];
+            int keyCount = 0;
+            for (int i = 0; i < sorted.size(); i++) {
+                phrases[i] = sorted.get(i).phrase;
+                normalized[i] = sorted.get(i).normalized;
+                keyCount += wordCount(normalized[i]);
+            }
+
+            // One key per word start, sorted by the text from that word on
+            int[] keyPhrase = new int[keyCount];
+            int[] keyOffset = new int[keyCount];
+            int k = 0;
+            for (int i = 0; i < normalized.length; i++) {
+                String text = normalized[i];
+                for (int offset = 0; offset < text.length(); offset++) {
+                    if (offset == 0 || text.charAt(offset - 1) == ' ') {
+                        keyPhrase[k] = i;
+                        keyOffset[k] = offset;
+                        k++;
+                    }
+                }
+            }
+            new KeySorter(normalized, keyPhrase, keyOffset).sort(0, keyCount, 0);
+            return new PrefixSuggester(maxSuggestions, phrases, normalized, keyPhrase, keyOffset);
+        }
+
+        private static int wordCount(String text) {
+            int words = 1;
+            for (int i = 0; i < text.length(); i++) {
+                if (text.charAt(i) == ' ') {
+                    words++;
+                }
+            }
+            return words;
+        }
+    }
+
+    /**
+     * Multikey (three-way radix) quicksort of the keys. Keys sharing a prefix are never compared on that prefix
+     * again, which matters because many titles share their leading words.
+     */
+    private static class KeySorter {
+
+        private static final int INSERTION_SORT_THRESHOLD = 12;
+
+        private final String[] normalized;
+        private final int[] keyPhrase;
+        private final int[] keyOffset;
+
+        private KeySorter(String[] normalized, int[] keyPhrase, int[] keyOffset) {
+            this.normalized = normalized;
+            this.keyPhrase = keyPhrase;
+            this.keyOffset = keyOffset;
+        }
+
+        private void sort(int lo, int hi, int depth) {
+            while (hi - lo > INSERTION_SORT_THRESHOLD) {
+                int pivot = charAt(lo + (hi - lo) / 2, depth);
+                int lt = lo;
+                int gt = hi - 1;
+                int i = lo;
+                while (i <= gt) {
+                    int c = charAt(i, depth);
+                    if (c < pivot) {
+                        swap(lt++, i++);
+                    } else if (c > pivot) {
+                        swap(i, gt--);
+                    } else {
+                        i++;
+                    }
+                }
+                sort(lo, lt, depth);
+                sort(gt + 1, hi, depth);
+                if (pivot < 0) {
+                    return; // Keys in the middle are exhausted and equal
+                }
+                // Continue on the middle partition one character deeper without recursing
+                lo = lt;
+                hi = gt + 1;
+                depth++;
+            }
+            insertionSort(lo, hi, depth);
+        }
+
+        private void insertionSort(int lo, int hi, int depth) {
+            for (int i = lo + 1; i < hi; i++) {
+                for (int j = i; j > lo && compare(normalized[keyPhrase[j]], keyOffset[j] + depth,
+                        normalized[keyPhrase[j - 1]], keyOffset[j - 1] + depth) < 0; j--) {
+                    swap(j, j - 1);
+                }
+            }
+        }
+
+        // -1 once the key is exhausted, so shorter keys sort first
+        private int charAt(int key, int depth) {
+            String text = normalized[keyPhrase[key]];
+            int index = keyOffset[key] + depth;
+            return index < text.length() ? text.charAt(index) : -1;
+        }
+
+        private void swap(int a, int b) {
+            int phrase = keyPhrase[a];
+            keyPhrase[a] = keyPhrase[b];
+            keyPhrase[b] = phrase;
+            int offset = keyOffset[a];
+            keyOffset[a] = keyOffset[b];
+            keyOffset[b] = offset;
+        }
+    }
+
+    private static class Entry {
+        private final String phrase;
+        private final String normalized;
+        private long weight;
+
+        private Entry(String phrase, String normalized) {
+            this.phrase = phrase;
+            this.normalized = normalized;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.irs.researchengine.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reciprocal rank fusion: a document scores the sum of 1 / (k + rank) over the rankings that contain it
+ * (rank from 1). Only ranks are used, so BM25 and cosine scores never need to be put on one scale, and a
+ * larger k flattens the advantage of the very top ranks.
+ */
+public final class RankFusion {
+
+    public static final int DEFAULT_K = 60;
+
+    private RankFusion() {
+    }
+
+    /**
+     * Fused ranking of all ids in the given rankings, best first. Ties keep the order in which ids were first
+     * seen, earlier rankings first.
+     */
+    public static List<String> reciprocalRank(List<List<String>> rankings, int k) {
+        Map<String, Double> scores = new HashMap<>();
+        List<String> ids = new ArrayList<>();
+        for (List<String> ranking : rankings) {
+            for (int rank = 0; rank < ranking.size(); rank++) {
+                String id = ranking.get(rank);
+                if (!scores.containsKey(id)) {
+                    ids.add(id);
+                }
+                scores.merge(id, 1.0 / (k + rank + 1), Double::sum);
+            }
+        }
+        // Stable sort, so first-seen order breaks ties
+        ids.sort((a, b) -> Double.compare(scores.get(b), scores.get(a)));
+        return ids;
+    }
+}
@@ -0,0 +1,77 @@
+package com.irs.researchengine.vector;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Streams precomputed embeddings from a JSON Lines file of {"id": "...", "embedding": [...]} records, as written
+ * by NLP/export_embeddings.py. Only the current record is held in memory.
+ */
+public class EmbeddingFileReader implements Closeable {
+
+    private final JsonParser parser;
+    private String id;
+    private float[] vector = new float[0];
+    private int length;
+
+    public EmbeddingFileReader(File file, ObjectMapper objectMapper) throws IOException {
+        this.parser = objectMapper.getFactory().createParser(file);
+    }
+
+    /**
+     * Advances to the next record; false at the end of the file.
+     */
+    public boolean next() throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == null) {
+            return false;
+        }
+        if (token != JsonToken.START_OBJECT) {
+            throw new IOException("Expected an embedding record at " + parser.currentLocation());
+        }
+        id = null;
+        length = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("id".equals(field)) {
+                id = parser.getValueAsString();
+            } else if ("embedding".equals(field) && value == JsonToken.START_ARRAY) {
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    if (length == vector.length) {
+                        vector = Arrays.copyOf(vector, Math.max(16, length * 2));
+                    }
+                    vector[length++] = parser.getFloatValue();
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (id == null || length == 0) {
+            throw new IOException("Embedding record without id or embedding at " + parser.currentLocation());
+        }
+        return true;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * A copy of the current record's embedding.
+     */
+    public float[] getVector() {
+        return Arrays.copyOf(vector, length);
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
@@ -0,0 +1,142 @@
+package com.irs.researchengine.vector;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Exact cosine scoring against an {@link EmbeddingStore}: a candidate set (re-ranking) or the whole corpus
+ * (nearest neighbours). Full scans are split into contiguous ordinal ranges on a fork-join pool, each keeping
+ * its own top k, so every core streams its own slice of the mapped file. Each score is a plain scalar loop (see
+ * {@link EmbeddingStore}); throughput comes from the parallel scan, not from SIMD.
+ */
+public class EmbeddingScorer {
+
+    // Ordinals per leaf task; large enough to amortise the task and heap overhead
+    private static final int SPLIT_THRESHOLD = 8192;
+
+    private final EmbeddingStore store;
+    private final ForkJoinPool pool;
+
+    public EmbeddingScorer(EmbeddingStore store) {
+        this(store, ForkJoinPool.commonPool());
+    }
+
+    public EmbeddingScorer(EmbeddingStore store, ForkJoinPool pool) {
+        this.store = store;
+        this.pool = pool;
+    }
+
+    public EmbeddingStore store() {
+        return store;
+    }
+
+    /**
+     * Scores the candidates in their given order; ids without a stored vector are left out.
+     */
+    public List<VectorHit> score(float[] query, Collection<String> ids) {
+        float[] unit = unitQuery(query);
+        float sum = sum(unit);
+        List<VectorHit> hits = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            int ordinal = store.ordinal(id);
+            if (ordinal >= 0) {
+                hits.add(new VectorHit(id, store.score(unit, sum, ordinal)));
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * The k stored vectors most similar to the query, best first.
+     */
+    public List<VectorHit> topK(float[] query, int k) {
+        return topK(query, k, -1);
+    }
+
+    /**
+     * The k nearest neighbours of a stored paper, excluding the paper itself; null if it has no vector.
+     */
+    public List<VectorHit> neighbours(String id, int k) {
+        int ordinal = store.ordinal(id);
+        if (ordinal < 0) {
+            return null;
+        }
+        return topK(store.vector(ordinal), k, ordinal);
+    }
+
+    private List<VectorHit> topK(float[] query, int k, int excluded) {
+        if (k <= 0 || store.size() == 0) {
+            return List.of();
+        }
+        float[] unit = unitQuery(query);
+        ScoreHeap top = pool.invoke(new ScanTask(unit, sum(unit), k, excluded, 0, store.size()));
+        int[] ordinals = new int[top.size()];
+        float[] scores = new float[top.size()];
+        int count = top.drainBestFirst(ordinals, scores);
+        List<VectorHit> hits = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            hits.add(new VectorHit(store.id(ordinals[i]), scores[i]));
+        }
+        return hits;
+    }
+
+    private float[] unitQuery(float[] query) {
+        if (query.length != store.dimension()) {
+            throw new IllegalArgumentException("Expected dimension " + store.dimension() + " but got " + query.length);
+        }
+        return VectorMath.normalize(query);
+    }
+
+    private static float sum(float[] vector) {
+        float sum = 0;
+        for (float v : vector) {
+            sum += v;
+        }
+        return sum;
+    }
+
+    private class ScanTask extends RecursiveTask<ScoreHeap> {
+
+        private final float[] query;
+        private final float querySum;
+        private final int k;
+        private final int excluded;
+        private final int from;
+        private final int to;
+
+        ScanTask(float[] query, float querySum, int k, int excluded, int from, int to) {
+            this.query = query;
+            this.querySum = querySum;
+            this.k = k;
+            this.excluded = excluded;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected ScoreHeap compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                ScoreHeap top = new ScoreHeap(k, false);
+                for (int ordinal = from; ordinal < to; ordinal++) {
+                    if (ordinal != excluded) {
+                        top.offerBounded(ordinal, store.score(query, querySum, ordinal), k);
+                    }
+                }
+                return top;
+            }
+            int middle = (from + to) >>> 1;
+            ScanTask left = new ScanTask(query, querySum, k, excluded, from, middle);
+            left.fork();
+            ScoreHeap right = new ScanTask(query, querySum, k, excluded, middle, to).compute();
+            ScoreHeap merged = left.join();
+            while (right.size() > 0) {
+                float score = right.topScore();
+                merged.offerBounded(right.pop(), score, k);
+            }
+            return merged;
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.irs.researchengine.vector;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Read-only, memory-mapped embeddings keyed by paper id. Vectors are unit length and stored at a fixed stride,
+ * either as float32 or as int8 with one scale/offset pair for the whole file (a quarter of the memory, with
+ * cosine scores within about 1% of float32).
+ *
+ * Layout (little endian): {@link #HEADER_BYTES} header (magic, version, encoding, dimension, count, scale,
+ * offset), the vectors, then the ids as length-prefixed UTF-8.
+ */
+public class EmbeddingStore {
+
+    public enum Encoding {
+        FLOAT32(Float.BYTES),
+        INT8(Byte.BYTES);
+
+        private final int bytesPerComponent;
+
+        Encoding(int bytesPerComponent) {
+            this.bytesPerComponent = bytesPerComponent;
+        }
+    }
+
+    private static final int MAGIC = 0x454d4231; // "EMB1"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+
+    private final ByteBuffer buffer;
+    private final Encoding encoding;
+    private final int dimension;
+    private final int count;
+    private final int stride;
+    private final float scale;
+    private final float offset;
+    private final String[] ids;
+    private final Map<String, Integer> ordinals;
+
+    private EmbeddingStore(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not an embedding store");
+        }
+        this.encoding = Encoding.values()[buffer.getInt(8)];
+        this.dimension = buffer.getInt(12);
+        this.count = buffer.getInt(16);
+        this.scale = buffer.getFloat(20);
+        this.offset = buffer.getFloat(24);
+        this.stride = dimension * encoding.bytesPerComponent;
+
+        this.ids = new String[count];
+        this.ordinals = new HashMap<>(count * 2);
+        int position = HEADER_BYTES + count * stride;
+        for (int i = 0; i < count; i++) {
+            byte[] id = new byte[buffer.getShort(position) & 0xffff];
+            position += Short.BYTES;
+            buffer.get(position, id);
+            position += id.length;
+            ids[i] = new String(id, StandardCharsets.UTF_8);
+            ordinals.put(ids[i], i);
+        }
+    }
+
+    public static EmbeddingStore open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Embedding store too large to map: " + path);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new EmbeddingStore(buffer.order(ByteOrder.LITTLE_ENDIAN));
+        }
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int dimension() {
+        return dimension;
+    }
+
+    public Encoding encoding() {
+        return encoding;
+    }
+
+    /**
+     * Ordinal of the paper's vector, -1 if the store has none.
+     */
+    public int ordinal(String id) {
+        Integer ordinal = ordinals.get(id);
+        return ordinal != null ? ordinal : -1;
+    }
+
+    public String id(int ordinal) {
+        return ids[ordinal];
+    }
+
+    /**
+     * The stored vector (dequantized for int8).
+     */
+    public float[] vector(int ordinal) {
+        float[] vector = new float[dimension];
+        int base = HEADER_BYTES + ordinal * stride;
+        if (encoding == Encoding.FLOAT32) {
+            for (int i = 0; i < dimension; i++) {
+                vector[i] = buffer.getFloat(base + i * Float.BYTES);
+            }
+        } else {
+            for (int i = 0; i < dimension; i++) {
+                vector[i] = buffer.get(base + i) * scale + offset;
+            }
+        }
+        return vector;
+    }
+
+    /**
+     * Cosine similarity between a unit-length query and a stored vector. For int8 the query's component sum
+     * folds the offset in: q . (scale * c + offset) = scale * (q . c) + offset * sum(q).
+     * Scalar code with four independent accumulators; the Vector API is an incubator module on Java 17, so
+     * there is no explicit SIMD path.
+     */
+    float score(float[] query, float querySum, int ordinal) {
+        int base = HEADER_BYTES + ordinal * stride;
+        float s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int i = 0;
+        int bound = dimension & ~3;
+        if (encoding == Encoding.FLOAT32) {
+            for (; i < bound; i += 4) {
+                int at = base + i * Float.BYTES;
+                s0 += query[i] * buffer.getFloat(at);
+                s1 += query[i + 1] * buffer.getFloat(at + 4);
+                s2 += query[i + 2] * buffer.getFloat(at + 8);
+                s3 += query[i + 3] * buffer.getFloat(at + 12);
+            }
+            for (; i < dimension; i++) {
+                s0 += query[i] * buffer.getFloat(base + i * Float.BYTES);
+            }
+            return (s0 + s1) + (s2 + s3);
+        }
+        for (; i < bound; i += 4) {
+            int at = base + i;
+            s0 += query[i] * buffer.get(at);
+            s1 += query[i + 1] * buffer.get(at + 1);
+            s2 += query[i + 2] * buffer.get(at + 2);
+            s3 += query[i + 3] * buffer.get(at + 3);
+        }
+        for (; i < dimension; i++) {
+            s0 += query[i] * buffer.get(base + i);
+        }
+        return scale * ((s0 + s1) + (s2 + s3)) + offset * querySum;
+    }
+
+    /**
+     * Writes a store from a JSON Lines embeddings file (see {@link EmbeddingFileReader}). Two passes: the first
+     * finds the dimension, count and value range for the int8 scale, the second writes the vectors.
+     * Later duplicates of an id are skipped.
+     */
+    public static void write(File embeddings, ObjectMapper objectMapper, Path path, Encoding encoding) throws IOException {
+        int dimension = -1;
+        float min = Float.POSITIVE_INFINITY;
+        float max = Float.NEGATIVE_INFINITY;
+        Map<String, Boolean> seen = new HashMap<>();
+        try (EmbeddingFileReader reader = new EmbeddingFileReader(embeddings, objectMapper)) {
+            while (reader.next()) {
+                float[] unit = VectorMath.normalize(reader.getVector());
+                if (dimension < 0) {
+                    dimension = unit.length;
+                } else if (unit.length != dimension) {
+                    throw new IOException("Embedding of " + reader.getId() + " has dimension " + unit.length + ", expected " + dimension);
+                }
+                if (seen.putIfAbsent(reader.getId(), Boolean.TRUE) == null) {
+                    for (float v : unit) {
+                        min = Math.min(min, v);
+                        max = Math.max(max, v);
+                    }
+                }
+            }
+        }
+        if (dimension < 0) {
+            throw new IOException("No embeddings in " + embeddings);
+        }
+        // int8 covers [min, max] with 255 levels centred on offset
+        float offset = (max + min) / 2;
+        float scale = max > min ? (max - min) / 254 : 1;
+
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (OutputStream file = Files.newOutputStream(tmp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16));
+             EmbeddingFileReader reader = new EmbeddingFileReader(embeddings, objectMapper)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(encoding.ordinal()).putInt(dimension).putInt(seen.size())
+                    .putFloat(encoding == Encoding.INT8 ? scale : 1).putFloat(encoding == Encoding.INT8 ? offset : 0);
+            out.write(header.array());
+
+            ByteBuffer record = ByteBuffer.allocate(dimension * encoding.bytesPerComponent).order(ByteOrder.LITTLE_ENDIAN);
+            Map<String, Boolean> written = new HashMap<>(seen.size() * 2);
+            List<String> ids = new ArrayList<>(seen.size());
+            while (reader.next()) {
+                if (written.putIfAbsent(reader.getId(), Boolean.TRUE) != null) {
+                    continue;
+                }
+                float[] unit = VectorMath.normalize(reader.getVector());
+                record.clear();
+                for (float v : unit) {
+                    if (encoding == Encoding.FLOAT32) {
+                        record.putFloat(v);
+                    } else {
+                        record.put((byte) Math.max(-127, Math.min(127, Math.round((v - offset) / scale))));
+                    }
+                }
+                out.write(record.array());
+                ids.add(reader.getId());
+            }
+            for (String id : ids) {
+                byte[] bytes = id.getBytes(StandardCharsets.UTF_8);
+                out.writeShort(Short.reverseBytes((short) bytes.length));
+                out.write(bytes);
+            }
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
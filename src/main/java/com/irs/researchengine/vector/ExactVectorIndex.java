@@ -0,0 +1,80 @@
+package com.irs.researchengine.vector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Brute-force index that scores every vector. Exact, so it is the reference for measuring HNSW recall, and
+ * fast enough on its own for small collections.
+ */
+public class ExactVectorIndex implements VectorIndex {
+
+    private final int dimension;
+    private final Map<String, Boolean> ids = new ConcurrentHashMap<>();
+    private String[] docIds = new String[1024];
+    private float[][] vectors = new float[1024][];
+    private int size;
+
+    public ExactVectorIndex(int dimension) {
+        this.dimension = dimension;
+    }
+
+    @Override
+    public int dimension() {
+        return dimension;
+    }
+
+    @Override
+    public synchronized int size() {
+        return size;
+    }
+
+    @Override
+    public boolean add(String id, float[] vector) {
+        if (vector.length != dimension) {
+            throw new IllegalArgumentException("Expected dimension " + dimension + " but got " + vector.length);
+        }
+        if (ids.putIfAbsent(id, Boolean.TRUE) != null) {
+            return false;
+        }
+        float[] unit = VectorMath.normalize(vector);
+        synchronized (this) {
+            if (size == docIds.length) {
+                docIds = Arrays.copyOf(docIds, size * 2);
+                vectors = Arrays.copyOf(vectors, size * 2);
+            }
+            docIds[size] = id;
+            vectors[size] = unit;
+            size++;
+        }
+        return true;
+    }
+
+    @Override
+    public List<VectorHit> search(float[] query, int k) {
+        float[] unit = VectorMath.normalize(query);
+        String[] currentIds;
+        float[][] currentVectors;
+        int n;
+        synchronized (this) {
+            currentIds = docIds;
+            currentVectors = vectors;
+            n = size;
+        }
+        ScoreHeap top = new ScoreHeap(k, false);
+        for (int i = 0; i < n; i++) {
+            top.offerBounded(i, VectorMath.dot(unit, currentVectors[i]), k);
+        }
+        int[] best = new int[top.size()];
+        float[] scores = new float[top.size()];
+        int count = top.drainBestFirst(best, scores);
+        List<VectorHit> hits = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            hits.add(new VectorHit(currentIds[best[i]], scores[i]));
+        }
+        return hits;
+    }
+}
@@ -0,0 +1,554 @@
+package com.irs.researchengine.vector;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Hierarchical navigable small world graph (Malkov and Yashunin) over unit-length vectors, searched by cosine
+ * similarity. Defaults match the FAISS IndexHNSWFlat of the Python service: M = 32, efConstruction = 200,
+ * efSearch = 50.
+ *
+ * Inserts may run concurrently with each other and with searches: node slots are handed out under a short lock,
+ * and each node's neighbour lists are guarded by the node itself. {@link #save(Path)} waits for running inserts
+ * and writes a file that {@link #load(Path, int)} memory-maps. A loaded index scores its vectors from the mapping
+ * and keeps only the ids and links on the heap.
+ */
+public class HnswIndex implements VectorIndex {
+
+    public static final int DEFAULT_M = 32;
+    public static final int DEFAULT_EF_CONSTRUCTION = 200;
+    public static final int DEFAULT_EF_SEARCH = 50;
+
+    private static final int MAGIC = 0x484e5357; // "HNSW"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+
+    private final int dimension;
+    private final int m;
+    private final int maxConn0;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private volatile int efSearch;
+
+    private final Map<String, Integer> ordinals = new ConcurrentHashMap<>();
+    private final ReadWriteLock saveLock = new ReentrantReadWriteLock();
+    private final Object allocationLock = new Object();
+    private final Random levelRandom;
+    private volatile Node[] nodes = new Node[1024];
+    private volatile int size;
+    private volatile int entryPoint = -1;
+    private volatile int maxLevel = -1;
+
+    // Vectors of the first mappedCount nodes when loaded from a file; later inserts keep theirs on the heap
+    private ByteBuffer mapped;
+    private int mappedCount;
+
+    public HnswIndex(int dimension) {
+        this(dimension, DEFAULT_M, DEFAULT_EF_CONSTRUCTION, DEFAULT_EF_SEARCH, 42L);
+    }
+
+    public HnswIndex(int dimension, int m, int efConstruction, int efSearch, long seed) {
+        if (dimension < 1 || m < 2 || efConstruction < 1 || efSearch < 1) {
+            throw new IllegalArgumentException("Invalid HNSW parameters");
+        }
+        this.dimension = dimension;
+        this.m = m;
+        this.maxConn0 = 2 * m;
+        this.efConstruction = efConstruction;
+        this.efSearch = efSearch;
+        this.levelMultiplier = 1 / Math.log(m);
+        this.levelRandom = new Random(seed);
+    }
+
+    @Override
+    public int dimension() {
+        return dimension;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public int getEfSearch() {
+        return efSearch;
+    }
+
+    // Larger values trade query speed for recall
+    public void setEfSearch(int efSearch) {
+        this.efSearch = Math.max(1, efSearch);
+    }
+
+    @Override
+    public boolean add(String id, float[] vector) {
+        if (vector.length != dimension) {
+            throw new IllegalArgumentException("Expected dimension " + dimension + " but got " + vector.length);
+        }
+        if (ordinals.putIfAbsent(id, -1) != null) {
+            return false;
+        }
+        float[] unit = VectorMath.normalize(vector);
+        saveLock.readLock().lock();
+        try {
+            insert(id, unit);
+        } finally {
+            saveLock.readLock().unlock();
+        }
+        return true;
+    }
+
+    private void insert(String id, float[] unit) {
+        int ord;
+        int level;
+        int entry;
+        int entryLevel;
+        Node node;
+        synchronized (allocationLock) {
+            level = (int) (-Math.log(1 - levelRandom.nextDouble()) * levelMultiplier);
+            node = new Node(id, unit, level, m, maxConn0);
+            ord = size;
+            if (ord == nodes.length) {
+                nodes = Arrays.copyOf(nodes, ord * 2);
+            }
+            nodes[ord] = node;
+            size = ord + 1;
+            entry = entryPoint;
+            entryLevel = maxLevel;
+            if (entry < 0) {
+                entryPoint = ord;
+                maxLevel = level;
+            }
+        }
+        ordinals.put(id, ord);
+        if (entry < 0) {
+            return;
+        }
+
+        SearchState state = new SearchState(efConstruction, maxConn0);
+        int current = entry;
+        float currentScore = score(unit, entry);
+        for (int l = entryLevel; l > level; l--) {
+            current = greedy(unit, current, currentScore, l, state);
+            currentScore = score(unit, current);
+        }
+        for (int l = Math.min(level, entryLevel); l >= 0; l--) {
+            int found = searchLayer(unit, current, efConstruction, l, state);
+            int[] selected = new int[Math.min(found, m)];
+            float[] selectedScores = new float[selected.length];
+            int count = selectNeighbors(state.resultNodes, state.resultScores, found, selected, selectedScores);
+            sortBestFirst(selected, selectedScores, count);
+            synchronized (node) {
+                System.arraycopy(selected, 0, node.neighbors[l], 0, count);
+                System.arraycopy(selectedScores, 0, node.scores[l], 0, count);
+                node.counts[l] = count;
+            }
+            for (int i = 0; i < count; i++) {
+                link(selected[i], ord, selectedScores[i], l);
+            }
+            current = state.resultNodes[0];
+        }
+
+        if (level > entryLevel) {
+            synchronized (allocationLock) {
+                if (level > maxLevel) {
+                    maxLevel = level;
+                    entryPoint = ord;
+                }
+            }
+        }
+    }
+
+    @Override
+    public List<VectorHit> search(float[] query, int k) {
+        int entry = entryPoint;
+        if (entry < 0 || k < 1) {
+            return new ArrayList<>();
+        }
+        float[] unit = VectorMath.normalize(query);
+        int ef = Math.max(efSearch, k);
+        SearchState state = new SearchState(ef, maxConn0);
+        int current = entry;
+        // The entry node's own level, maxLevel may already belong to a newer entry point
+        for (int l = node(entry).neighbors.length - 1; l > 0; l--) {
+            current = greedy(unit, current, score(unit, current), l, state);
+        }
+        int found = searchLayer(unit, current, ef, 0, state);
+        List<VectorHit> hits = new ArrayList<>(Math.min(k, found));
+        for (int i = 0; i < found && i < k; i++) {
+            hits.add(new VectorHit(node(state.resultNodes[i]).id, state.resultScores[i]));
+        }
+        return hits;
+    }
+
+    // Moves to the best neighbour until none is better than the current node
+    private int greedy(float[] query, int current, float currentScore, int level, SearchState state) {
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            int count = neighbors(current, level, state.neighborBuffer);
+            for (int i = 0; i < count; i++) {
+                int candidate = state.neighborBuffer[i];
+                float candidateScore = score(query, candidate);
+                if (candidateScore > currentScore) {
+                    current = candidate;
+                    currentScore = candidateScore;
+                    improved = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    // Beam search on one layer; leaves the best ef nodes in state.result*, best first, and returns their number
+    private int searchLayer(float[] query, int entry, int ef, int level, SearchState state) {
+        ScoreHeap candidates = state.candidates;
+        ScoreHeap results = state.results;
+        BitSet visited = state.visited;
+        candidates.clear();
+        results.clear();
+        visited.clear();
+
+        float entryScore = score(query, entry);
+        visited.set(entry);
+        candidates.push(entry, entryScore);
+        results.push(entry, entryScore);
+        while (candidates.size() > 0) {
+            float candidateScore = candidates.topScore();
+            if (results.size() >= ef && candidateScore < results.topScore()) {
+                break;
+            }
+            int candidate = candidates.pop();
+            int count = neighbors(candidate, level, state.neighborBuffer);
+            for (int i = 0; i < count; i++) {
+                int neighbor = state.neighborBuffer[i];
+                if (visited.get(neighbor)) {
+                    continue;
+                }
+                visited.set(neighbor);
+                float neighborScore = score(query, neighbor);
+                if (results.offerBounded(neighbor, neighborScore, ef)) {
+                    candidates.push(neighbor, neighborScore);
+                }
+            }
+        }
+        state.ensureResultCapacity(results.size());
+        return results.drainBestFirst(state.resultNodes, state.resultScores);
+    }
+
+    /**
+     * Neighbour selection heuristic: a candidate is kept only if it is closer to the base than to every neighbour
+     * kept so far, which spreads links across directions; remaining slots are filled with the closest rejects.
+     * Candidates must be ordered best first; returns the number selected.
+     */
+    private int selectNeighbors(int[] candidates, float[] scores, int count, int[] selected, float[] selectedScores) {
+        int max = selected.length;
+        int[] rejected = new int[count];
+        float[] rejectedScores = new float[count];
+        int selectedCount = 0;
+        int rejectedCount = 0;
+        for (int i = 0; i < count && selectedCount < max; i++) {
+            boolean diverse = true;
+            for (int j = 0; j < selectedCount; j++) {
+                if (similarity(candidates[i], selected[j]) > scores[i]) {
+                    diverse = false;
+                    break;
+                }
+            }
+            if (diverse) {
+                selected[selectedCount] = candidates[i];
+                selectedScores[selectedCount++] = scores[i];
+            } else {
+                rejected[rejectedCount] = candidates[i];
+                rejectedScores[rejectedCount++] = scores[i];
+            }
+        }
+        for (int i = 0; i < rejectedCount && selectedCount < max; i++) {
+            selected[selectedCount] = rejected[i];
+            selectedScores[selectedCount++] = rejectedScores[i];
+        }
+        return selectedCount;
+    }
+
+    /**
+     * Adds the back link from neighbor to ord. Lists are kept best first with their scores, so a full list only
+     * needs one node dropped rather than a fresh selection over all of its links.
+     */
+    private void link(int neighbor, int ord, float score, int level) {
+        Node target = node(neighbor);
+        int max = level == 0 ? maxConn0 : m;
+        synchronized (target) {
+            int[] links = target.neighbors[level];
+            float[] scores = target.scores[level];
+            int count = target.counts[level];
+            int i = count;
+            while (i > 0 && scores[i - 1] < score) {
+                links[i] = links[i - 1];
+                scores[i] = scores[i - 1];
+                i--;
+            }
+            links[i] = ord; // Lists have one spare slot for this
+            scores[i] = score;
+            count++;
+            if (count > max) {
+                removeWorstNonDiverse(links, scores, count);
+                count--;
+            }
+            target.counts[level] = count;
+        }
+    }
+
+    // Drops the worst link that is closer to a better link than to the node itself, or the worst link if none is
+    private void removeWorstNonDiverse(int[] links, float[] scores, int count) {
+        int remove = count - 1;
+        search:
+        for (int i = count - 1; i > 0; i--) {
+            for (int j = 0; j < i; j++) {
+                if (similarity(links[i], links[j]) > scores[i]) {
+                    remove = i;
+                    break search;
+                }
+            }
+        }
+        System.arraycopy(links, remove + 1, links, remove, count - remove - 1);
+        System.arraycopy(scores, remove + 1, scores, remove, count - remove - 1);
+    }
+
+    private static void sortBestFirst(int[] nodes, float[] scores, int count) {
+        for (int i = 1; i < count; i++) {
+            int node = nodes[i];
+            float score = scores[i];
+            int j = i;
+            while (j > 0 && scores[j - 1] < score) {
+                nodes[j] = nodes[j - 1];
+                scores[j] = scores[j - 1];
+                j--;
+            }
+            nodes[j] = node;
+            scores[j] = score;
+        }
+    }
+
+    private int neighbors(int ord, int level, int[] buffer) {
+        Node node = node(ord);
+        synchronized (node) {
+            int count = node.counts[level];
+            System.arraycopy(node.neighbors[level], 0, buffer, 0, count);
+            return count;
+        }
+    }
+
+    private float score(float[] query, int ord) {
+        if (ord >= mappedCount) {
+            return VectorMath.dot(query, node(ord).vector);
+        }
+        int base = HEADER_BYTES + ord * dimension * Float.BYTES;
+        float s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int i = 0;
+        int bound = dimension & ~3;
+        for (; i < bound; i += 4) {
+            int at = base + i * Float.BYTES;
+            s0 += query[i] * mapped.getFloat(at);
+            s1 += query[i + 1] * mapped.getFloat(at + 4);
+            s2 += query[i + 2] * mapped.getFloat(at + 8);
+            s3 += query[i + 3] * mapped.getFloat(at + 12);
+        }
+        for (; i < dimension; i++) {
+            s0 += query[i] * mapped.getFloat(base + i * Float.BYTES);
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    private float similarity(int a, int b) {
+        if (a >= mappedCount) {
+            return score(node(a).vector, b);
+        }
+        if (b >= mappedCount) {
+            return score(node(b).vector, a);
+        }
+        int baseA = HEADER_BYTES + a * dimension * Float.BYTES;
+        int baseB = HEADER_BYTES + b * dimension * Float.BYTES;
+        float sum = 0;
+        for (int i = 0; i < dimension * Float.BYTES; i += Float.BYTES) {
+            sum += mapped.getFloat(baseA + i) * mapped.getFloat(baseB + i);
+        }
+        return sum;
+    }
+
+    // Heap copy of a node's vector for saving
+    private float[] vector(int ord) {
+        if (ord >= mappedCount) {
+            return node(ord).vector;
+        }
+        float[] vector = new float[dimension];
+        int base = HEADER_BYTES + ord * dimension * Float.BYTES;
+        for (int i = 0; i < dimension; i++) {
+            vector[i] = mapped.getFloat(base + i * Float.BYTES);
+        }
+        return vector;
+    }
+
+    private Node node(int ord) {
+        return nodes[ord];
+    }
+
+    /**
+     * Writes the index to a temporary file and moves it into place. Inserts wait while the file is written.
+     */
+    public void save(Path path) throws IOException {
+        saveLock.writeLock().lock();
+        try {
+            Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+            try (OutputStream file = Files.newOutputStream(tmp);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+                int n = size;
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(dimension);
+                out.writeInt(m);
+                out.writeInt(efConstruction);
+                out.writeInt(n);
+                out.writeInt(entryPoint);
+                out.writeInt(maxLevel);
+                // Vectors first at a fixed stride, then ids and links
+                for (int i = 0; i < n; i++) {
+                    for (float v : vector(i)) {
+                        out.writeFloat(v);
+                    }
+                }
+                for (int i = 0; i < n; i++) {
+                    Node node = nodes[i];
+                    byte[] id = node.id.getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(id.length);
+                    out.write(id);
+                    out.writeInt(node.neighbors.length - 1);
+                    for (int l = 0; l < node.neighbors.length; l++) {
+                        out.writeInt(node.counts[l]);
+                        for (int j = 0; j < node.counts[l]; j++) {
+                            out.writeInt(node.neighbors[l][j]);
+                            out.writeFloat(node.scores[l][j]);
+                        }
+                    }
+                }
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            saveLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Maps an index written by {@link #save(Path)}; more documents can be added to the loaded index. Vectors are
+     * read from the mapping, which stays valid after the channel is closed.
+     */
+    public static HnswIndex load(Path path, int efSearch) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("HNSW index file too large to map: " + path);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("Not an HNSW index file: " + path);
+            }
+            int dimension = buffer.getInt();
+            int m = buffer.getInt();
+            int efConstruction = buffer.getInt();
+            int n = buffer.getInt();
+            int entryPoint = buffer.getInt();
+            int maxLevel = buffer.getInt();
+
+            HnswIndex index = new HnswIndex(dimension, m, efConstruction, efSearch, 42L + n);
+            buffer.position(HEADER_BYTES + n * dimension * Float.BYTES);
+
+            Node[] nodes = new Node[Math.max(1024, Integer.highestOneBit(Math.max(n, 1)) << 1)];
+            for (int i = 0; i < n; i++) {
+                byte[] id = new byte[buffer.getInt()];
+                buffer.get(id);
+                int level = buffer.getInt();
+                Node node = new Node(new String(id, StandardCharsets.UTF_8), null, level, m, index.maxConn0);
+                for (int l = 0; l <= level; l++) {
+                    int count = buffer.getInt();
+                    node.counts[l] = count;
+                    for (int j = 0; j < count; j++) {
+                        node.neighbors[l][j] = buffer.getInt();
+                        node.scores[l][j] = buffer.getFloat();
+                    }
+                }
+                nodes[i] = node;
+                index.ordinals.put(node.id, i);
+            }
+            index.mapped = buffer;
+            index.mappedCount = n;
+            index.nodes = nodes;
+            index.size = n;
+            index.entryPoint = entryPoint;
+            index.maxLevel = maxLevel;
+            return index;
+        }
+    }
+
+    private static final class Node {
+        private final String id;
+        // Null for nodes loaded from a file, whose vectors are read from the mapping
+        private final float[] vector;
+        // Per level, best first, with one spare slot used while pruning
+        private final int[][] neighbors;
+        private final float[][] scores;
+        private final int[] counts;
+
+        private Node(String id, float[] vector, int level, int m, int maxConn0) {
+            this.id = id;
+            this.vector = vector;
+            this.neighbors = new int[level + 1][];
+            this.scores = new float[level + 1][];
+            this.counts = new int[level + 1];
+            for (int l = 0; l <= level; l++) {
+                neighbors[l] = new int[(l == 0 ? maxConn0 : m) + 1];
+                scores[l] = new float[neighbors[l].length];
+            }
+        }
+    }
+
+    // Scratch space reused across the layers of one insert or search
+    private static final class SearchState {
+        private final ScoreHeap candidates;
+        private final ScoreHeap results;
+        private final BitSet visited = new BitSet();
+        private final int[] neighborBuffer;
+        private int[] resultNodes;
+        private float[] resultScores;
+
+        private SearchState(int ef, int maxConn) {
+            neighborBuffer = new int[maxConn + 1];
+            candidates = new ScoreHeap(ef * 2, true);
+            results = new ScoreHeap(ef + 1, false);
+            resultNodes = new int[ef + 1];
+            resultScores = new float[ef + 1];
+        }
+
+        private void ensureResultCapacity(int count) {
+            if (resultNodes.length < count) {
+                resultNodes = new int[count];
+                resultScores = new float[count];
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.irs.researchengine.vector;
+
+import java.util.Arrays;
+
+/**
+ * Binary heap of (node, score) pairs in primitive arrays. A min-heap keeps the best k seen so far with the
+ * worst on top; a max-heap hands out the most promising candidate first.
+ */
+final class ScoreHeap {
+
+    private final boolean maxHeap;
+    private int[] nodes;
+    private float[] scores;
+    private int size;
+
+    ScoreHeap(int initialCapacity, boolean maxHeap) {
+        this.maxHeap = maxHeap;
+        this.nodes = new int[Math.max(initialCapacity, 4)];
+        this.scores = new float[nodes.length];
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    int topNode() {
+        return nodes[0];
+    }
+
+    float topScore() {
+        return scores[0];
+    }
+
+    void push(int node, float score) {
+        if (size == nodes.length) {
+            nodes = Arrays.copyOf(nodes, size * 2);
+            scores = Arrays.copyOf(scores, size * 2);
+        }
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!above(score, scores[parent])) {
+                break;
+            }
+            nodes[i] = nodes[parent];
+            scores[i] = scores[parent];
+            i = parent;
+        }
+        nodes[i] = node;
+        scores[i] = score;
+    }
+
+    /**
+     * Removes the top entry and returns its node.
+     */
+    int pop() {
+        int top = nodes[0];
+        size--;
+        if (size > 0) {
+            int node = nodes[size];
+            float score = scores[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && above(scores[child + 1], scores[child])) {
+                    child++;
+                }
+                if (!above(scores[child], score)) {
+                    break;
+                }
+                nodes[i] = nodes[child];
+                scores[i] = scores[child];
+                i = child;
+            }
+            nodes[i] = node;
+            scores[i] = score;
+        }
+        return top;
+    }
+
+    /**
+     * On a min-heap, keeps the entry if it is among the k best seen; returns whether it was kept.
+     */
+    boolean offerBounded(int node, float score, int k) {
+        if (size < k) {
+            push(node, score);
+            return true;
+        }
+        if (k > 0 && score > scores[0]) {
+            pop();
+            push(node, score);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Empties a min-heap into the arrays, best score first; returns the number of entries.
+     */
+    int drainBestFirst(int[] outNodes, float[] outScores) {
+        int count = size;
+        for (int i = count - 1; i >= 0; i--) {
+            outScores[i] = scores[0];
+            outNodes[i] = pop();
+        }
+        return count;
+    }
+
+    private boolean above(float a, float b) {
+        return maxHeap ? a > b : a < b;
+    }
+}
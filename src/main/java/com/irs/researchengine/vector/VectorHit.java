@@ -0,0 +1,26 @@
+package com.irs.researchengine.vector;
+
+public class VectorHit {
+
+    private final String id;
+    private final float score;
+
+    public VectorHit(String id, float score) {
+        this.id = id;
+        this.score = score;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    // Cosine similarity to the query
+    public float getScore() {
+        return score;
+    }
+
+    @Override
+    public String toString() {
+        return id + ":" + score;
+    }
+}
@@ -0,0 +1,23 @@
+package com.irs.researchengine.vector;
+
+import java.util.List;
+
+/**
+ * Nearest-neighbour index over document embeddings, scored by cosine similarity.
+ */
+public interface VectorIndex {
+
+    int dimension();
+
+    int size();
+
+    /**
+     * Adds a document's embedding; returns false if the id is already indexed. Safe to call from several threads.
+     */
+    boolean add(String id, float[] vector);
+
+    /**
+     * Up to k documents most similar to the query, best first.
+     */
+    List<VectorHit> search(float[] query, int k);
+}
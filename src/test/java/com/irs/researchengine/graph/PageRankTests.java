@@ -0,0 +1,125 @@
+package com.irs.researchengine.graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+class PageRankTests {
+
+    @Test
+    void buildsInEdgesWithNormalisedWeights() {
+        CsrGraph graph = new CsrGraph.Builder(4)
+                .addEdge(0, 1, 3f)
+                .addEdge(0, 2, 1f)
+                .addEdge(2, 1, 0.5f)
+                .addEdge(2, 1, 0.5f) // Parallel edges add up
+                .addEdge(3, 0, 0f)   // Carries nothing
+                .build();
+        assertEquals(4, graph.edgeCount());
+        assertEquals(0, graph.inDegree(0));
+        assertEquals(3, graph.inDegree(1));
+        assertEquals(1, graph.inDegree(2));
+        // 1 and 3 have no out-edges
+        assertEquals(2, graph.danglingCount());
+
+        int start = graph.offsets()[1];
+        assertEquals(0, graph.sources()[start]);
+        assertEquals(0.75f, graph.weights()[start], 1e-6f);
+        assertEquals(0.5f, graph.weights()[start + 1], 1e-6f);
+
+        assertThrows(IllegalArgumentException.class, () -> new CsrGraph.Builder(2).addEdge(0, 2, 1f));
+    }
+
+    @Test
+    void symmetricCycleIsUniform() {
+        CsrGraph.Builder builder = new CsrGraph.Builder(5);
+        for (int v = 0; v < 5; v++) {
+            builder.addEdge(v, (v + 1) % 5, 1f);
+        }
+        PageRank.Result result = new PageRank().compute(builder.build());
+        assertTrue(result.isConverged());
+        for (double rank : result.getRanks()) {
+            assertEquals(0.2, rank, 1e-9);
+        }
+    }
+
+    @Test
+    void matchesDensePowerIterationWithDanglingNodes() {
+        int n = 3000; // Enough edges to split into several tasks
+        Random random = new Random(7);
+        double[][] weights = new double[n][n];
+        CsrGraph.Builder builder = new CsrGraph.Builder(n);
+        for (int source = 0; source < n; source++) {
+            if (source % 10 == 0) {
+                continue; // Dangling
+            }
+            int degree = 1 + random.nextInt(60);
+            for (int i = 0; i < degree; i++) {
+                // Skewed targets, like citations
+                int target = (int) (n * Math.pow(random.nextDouble(), 3));
+                float weight = 0.5f + random.nextFloat();
+                weights[source][target] += weight;
+                builder.addEdge(source, target, weight);
+            }
+        }
+        CsrGraph graph = builder.build();
+        PageRank.Result result = new PageRank(0.85, 1e-12, 200, new ForkJoinPool(4)).compute(graph);
+        double[] expected = densePageRank(weights, 0.85, result.getIterations());
+
+        assertTrue(result.isConverged());
+        double total = 0;
+        for (int v = 0; v < n; v++) {
+            assertEquals(expected[v], result.getRanks()[v], 1e-9);
+            total += result.getRanks()[v];
+        }
+        assertEquals(1.0, total, 1e-9);
+        assertTrue(result.getRanks()[0] > 10.0 / n);
+    }
+
+    @Test
+    void emptyGraph() {
+        PageRank.Result result = new PageRank().compute(new CsrGraph.Builder(0).build());
+        assertEquals(0, result.getRanks().length);
+    }
+
+    private static double[] densePageRank(double[][] weights, double damping, int iterations) {
+        int n = weights.length;
+        double[] outWeight = new double[n];
+        for (int s = 0; s < n; s++) {
+            for (int t = 0; t < n; t++) {
+                outWeight[s] += weights[s][t];
+            }
+        }
+        double[] rank = new double[n];
+        Arrays.fill(rank, 1.0 / n);
+        for (int i = 0; i < iterations; i++) {
+            double[] next = new double[n];
+            double dangling = 0;
+            for (int s = 0; s < n; s++) {
+                if (outWeight[s] == 0) {
+                    dangling += rank[s];
+                }
+            }
+            for (int s = 0; s < n; s++) {
+                if (outWeight[s] > 0) {
+                    for (int t = 0; t < n; t++) {
+                        if (weights[s][t] > 0) {
+                            next[t] += damping * rank[s] * weights[s][t] / outWeight[s];
+                        }
+                    }
+                }
+            }
+            for (int t = 0; t < n; t++) {
+                next[t] += (1 - damping) / n + damping * dangling / n;
+            }
+            rank = next;
+        }
+        return rank;
+    }
+}
@@ -0,0 +1,185 @@
+package com.irs.researchengine.nlp;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.core.StopFilter;
+import org.apache.lucene.analysis.core.WhitespaceTokenizer;
+import org.apache.lucene.analysis.en.EnglishAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.analysis.tokenattributes.OffsetAttribute;
+import org.apache.lucene.analysis.tokenattributes.PositionIncrementAttribute;
+import org.junit.jupiter.api.Test;
+
+import opennlp.tools.lemmatizer.DictionaryLemmatizer;
+import opennlp.tools.postag.POSTagger;
+import opennlp.tools.util.Sequence;
+
+/**
+ * Terms, offsets and position increments through the batching lemmatizer, on inputs around the batch size, with
+ * the chain reused across inputs. The POS models are not in the tree, so a tagger that tags by the previous
+ * token stands in for the maxent one.
+ */
+class OpenNLPLemmatizerFilterTests {
+
+    private static final int BATCH = 512;
+    private static final String[] WORDS = {"many", "running", "cats", "a", "ran", "quickly", "running", "many", "cats", "ran"};
+    private static final String DICTIONARY = String.join("\n",
+            "running\tNN\trunning", "running\tVB\trun", "cats\tNN\tcat", "cats\tVB\tcat", "ran\tVB\trun");
+
+    private final DictionaryLemmatizer lemmatizer = dictionary();
+    private final ContextTagger tagger = new ContextTagger();
+    private final Analyzer analyzer = new Analyzer() {
+        @Override
+        protected TokenStreamComponents createComponents(String fieldName) {
+            Tokenizer tokenizer = new WhitespaceTokenizer();
+            TokenStream stream = new StopFilter(tokenizer, EnglishAnalyzer.ENGLISH_STOP_WORDS_SET);
+            return new TokenStreamComponents(tokenizer, new OpenNLPLemmatizerFilter(stream, tagger, lemmatizer));
+        }
+    };
+
+    @Test
+    void lemmatizesInputsAroundTheBatchSizeWithReusedChain() throws IOException {
+        // Longest first, so leftovers from a previous input would show up in the shorter ones
+        for (int round = 0; round < 2; round++) {
+            for (int tokens : new int[]{BATCH * 2 + 300, BATCH, BATCH - 1, 40}) {
+                tagger.batches.clear();
+                assertAnalyzesTo(tokens);
+                List<Integer> expectedBatches = new ArrayList<>();
+                for (int left = tokens; left > 0; left -= BATCH) {
+                    expectedBatches.add(Math.min(left, BATCH));
+                }
+                assertEquals(expectedBatches, tagger.batches);
+            }
+        }
+    }
+
+    @Test
+    void emptyInputProducesNoTokens() throws IOException {
+        try (TokenStream stream = analyzer.tokenStream("abstract", "a the an")) {
+            stream.reset();
+            assertFalse(stream.incrementToken());
+            stream.end();
+        }
+        assertEquals(List.of(), tagger.batches);
+    }
+
+    // Builds an input with the given number of tokens left after stop words, and checks every attribute
+    private void assertAnalyzesTo(int tokens) throws IOException {
+        StringBuilder text = new StringBuilder();
+        List<String> kept = new ArrayList<>();
+        List<Integer> starts = new ArrayList<>();
+        List<Integer> increments = new ArrayList<>();
+        int increment = 1;
+        for (int i = 0; kept.size() < tokens; i++) {
+            String word = WORDS[i % WORDS.length];
+            if (text.length() > 0) {
+                text.append(i % 3 == 0 ? "  " : " ");
+            }
+            if (EnglishAnalyzer.ENGLISH_STOP_WORDS_SET.contains(word)) {
+                increment++;
+            } else {
+                kept.add(word);
+                starts.add(text.length());
+                increments.add(increment);
+                increment = 1;
+            }
+            text.append(word);
+        }
+
+        String[] terms = new String[tokens];
+        int[] startOffsets = new int[tokens];
+        int[] endOffsets = new int[tokens];
+        int[] posIncrements = new int[tokens];
+        for (int i = 0; i < tokens; i++) {
+            // Tags never look across a batch boundary; lemmas must match an uncached dictionary lookup
+            String tag = ContextTagger.tag(i % BATCH == 0 ? null : kept.get(i - 1));
+            String lemma = lemmatizer.lemmatize(new String[]{kept.get(i)}, new String[]{tag})[0];
+            terms[i] = "O".equals(lemma) ? kept.get(i) : lemma;
+            startOffsets[i] = starts.get(i);
+            endOffsets[i] = starts.get(i) + kept.get(i).length();
+            posIncrements[i] = increments.get(i);
+        }
+        assertTokenStreamContents(analyzer.tokenStream("abstract", text.toString()), terms, startOffsets, endOffsets,
+                posIncrements, text.length());
+    }
+
+    private static void assertTokenStreamContents(TokenStream stream, String[] terms, int[] startOffsets,
+                                                  int[] endOffsets, int[] posIncrements, int finalOffset) throws IOException {
+        CharTermAttribute term = stream.getAttribute(CharTermAttribute.class);
+        OffsetAttribute offset = stream.getAttribute(OffsetAttribute.class);
+        PositionIncrementAttribute posIncrement = stream.getAttribute(PositionIncrementAttribute.class);
+        List<String> actualTerms = new ArrayList<>();
+        List<Integer> actualStarts = new ArrayList<>();
+        List<Integer> actualEnds = new ArrayList<>();
+        List<Integer> actualIncrements = new ArrayList<>();
+        try (stream) {
+            stream.reset();
+            while (stream.incrementToken()) {
+                actualTerms.add(term.toString());
+                actualStarts.add(offset.startOffset());
+                actualEnds.add(offset.endOffset());
+                actualIncrements.add(posIncrement.getPositionIncrement());
+            }
+            stream.end();
+            assertEquals(finalOffset, offset.endOffset());
+        }
+        assertArrayEquals(terms, actualTerms.toArray(new String[0]));
+        assertArrayEquals(startOffsets, actualStarts.stream().mapToInt(Integer::intValue).toArray());
+        assertArrayEquals(endOffsets, actualEnds.stream().mapToInt(Integer::intValue).toArray());
+        assertArrayEquals(posIncrements, actualIncrements.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    private static DictionaryLemmatizer dictionary() {
+        try {
+            return new DictionaryLemmatizer(new ByteArrayInputStream(DICTIONARY.getBytes(StandardCharsets.UTF_8)));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Tags a token NN after "many" and VB otherwise, so a token's tag depends on its neighbour in the batch
+    private static class ContextTagger implements POSTagger {
+
+        final List<Integer> batches = new ArrayList<>();
+
+        static String tag(String previous) {
+            return "many".equals(previous) ? "NN" : "VB";
+        }
+
+        @Override
+        public String[] tag(String[] sentence) {
+            batches.add(sentence.length);
+            String[] tags = new String[sentence.length];
+            for (int i = 0; i < sentence.length; i++) {
+                tags[i] = tag(i == 0 ? null : sentence[i - 1]);
+            }
+            return tags;
+        }
+
+        @Override
+        public String[] tag(String[] sentence, Object[] additionalContext) {
+            return tag(sentence);
+        }
+
+        @Override
+        public Sequence[] topKSequences(String[] sentence) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Sequence[] topKSequences(String[] sentence, Object[] additionalContext) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
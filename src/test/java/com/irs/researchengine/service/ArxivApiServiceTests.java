@@ -0,0 +1,192 @@
+package com.irs.researchengine.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.irs.researchengine.data.Paper;
+import com.irs.researchengine.utils.HarvestCheckpoint;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Runs the harvester against a local fake arXiv endpoint serving canned Atom pages of two papers each.
+ */
+class ArxivApiServiceTests {
+
+    @TempDir
+    Path tempDir;
+
+    private HttpServer server;
+    private final Map<String, List<String>> pages = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> failuresLeft = new ConcurrentHashMap<>();
+    private final List<String> requested = Collections.synchronizedList(new ArrayList<>());
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ArxivApiService arxivApiService;
+
+    @BeforeEach
+    void startFakeArxiv() throws IOException {
+        // cs.IR cross-lists 2101.00002 from cs.AI, and its first page fails once with a 503
+        pages.put("cs.AI@0", List.of("2101.00001", "2101.00002"));
+        pages.put("cs.AI@2", List.of("2101.00003"));
+        pages.put("cs.IR@0", List.of("2101.00002", "2101.00004"));
+        pages.put("cs.IR@2", List.of());
+        failuresLeft.put("cs.IR@0", new AtomicInteger(1));
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/query", exchange -> {
+            String query = URLDecoder.decode(exchange.getRequestURI().getRawQuery(), StandardCharsets.UTF_8);
+            String category = query.replaceAll(".*search_query=cat:([^&]+).*", "$1");
+            String start = query.replaceAll(".*start=(\\d+).*", "$1");
+            String key = category + "@" + start;
+            requested.add(key);
+
+            AtomicInteger failures = failuresLeft.get(key);
+            if (failures != null && failures.getAndDecrement() > 0) {
+                exchange.sendResponseHeaders(503, -1);
+                exchange.close();
+                return;
+            }
+            List<String> ids = pages.getOrDefault(key, List.of());
+            byte[] body = atomPage(ids).getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+
+        arxivApiService = new ArxivApiService();
+        ReflectionTestUtils.setField(arxivApiService, "apiUrl", "http://127.0.0.1:" + server.getAddress().getPort() + "/api/query");
+        ReflectionTestUtils.setField(arxivApiService, "pageSize", 2);
+        ReflectionTestUtils.setField(arxivApiService, "harvestThreads", 2);
+        ReflectionTestUtils.setField(arxivApiService, "requestsPerSecond", 1000.0);
+        ReflectionTestUtils.setField(arxivApiService, "maxAttempts", 3);
+        ReflectionTestUtils.setField(arxivApiService, "initialBackoffMs", 10L);
+        ReflectionTestUtils.setField(arxivApiService, "timeoutMs", 5000);
+        ReflectionTestUtils.setField(arxivApiService, "checkpointPath", checkpointFile().toString());
+        ReflectionTestUtils.setField(arxivApiService, "datasetPath", datasetFile().getPath());
+        ReflectionTestUtils.setField(arxivApiService, "objectMapper", objectMapper);
+    }
+
+    @AfterEach
+    void stopFakeArxiv() {
+        server.stop(0);
+    }
+
+    @Test
+    void harvestsCategoriesRetriesAndDedupes() throws Exception {
+        arxivApiService.createDataset(List.of("cs.AI", "cs.IR"));
+
+        List<String> ids = readIds();
+        assertEquals(4, ids.size(), "cross-listed paper should be written once");
+        assertEquals(Set.of("2101.00001", "2101.00002", "2101.00003", "2101.00004"), Set.copyOf(ids));
+        assertEquals(2, Collections.frequency(requested, "cs.IR@0"), "503 should be retried once");
+        assertFalse(Files.exists(checkpointFile()), "checkpoint is removed after a complete harvest");
+    }
+
+    @Test
+    void resumesFromCheckpoint() throws Exception {
+        Files.writeString(datasetFile().toPath(),
+                paperJson("2101.00001", "cs.AI") + "\n" + paperJson("2101.00002", "cs.AI") + "\n");
+        HarvestCheckpoint checkpoint = HarvestCheckpoint.load(checkpointFile());
+        checkpoint.setStart("cs.AI", 2);
+        checkpoint.markDone("cs.IR");
+
+        arxivApiService.createDataset(List.of("cs.AI", "cs.IR"));
+
+        assertEquals(List.of("cs.AI@2"), requested);
+        assertEquals(List.of("2101.00001", "2101.00002", "2101.00003"), readIds());
+    }
+
+    @Test
+    void resumesPastTruncatedLastLine() throws Exception {
+        // A killed run left a partial record right after a complete one, within the same page-sized read
+        String partial = paperJson("2101.00001", "cs.AI");
+        Files.writeString(datasetFile().toPath(),
+                paperJson("2101.00002", "cs.AI") + "\n" + partial.substring(0, partial.length() / 2));
+        HarvestCheckpoint checkpoint = HarvestCheckpoint.load(checkpointFile());
+        checkpoint.setStart("cs.IR", 0);
+        checkpoint.markDone("cs.AI");
+
+        arxivApiService.createDataset(List.of("cs.AI", "cs.IR"));
+
+        // The cross-listed paper parsed before the broken line is still known, so it is not written again
+        String dataset = Files.readString(datasetFile().toPath());
+        assertEquals(1, dataset.split("\"id\":\"2101.00002\"", -1).length - 1);
+        assertEquals(1, dataset.split("\"id\":\"2101.00004\"", -1).length - 1);
+    }
+
+    @Test
+    void keepsProgressWhenCategoryKeepsFailing() throws Exception {
+        failuresLeft.put("cs.AI@2", new AtomicInteger(Integer.MAX_VALUE));
+
+        assertThrows(IOException.class, () -> arxivApiService.createDataset(List.of("cs.AI", "cs.IR")));
+
+        HarvestCheckpoint checkpoint = HarvestCheckpoint.load(checkpointFile());
+        assertEquals(2, checkpoint.getStart("cs.AI"));
+        assertTrue(checkpoint.isDone("cs.IR"));
+        assertEquals(3, Collections.frequency(requested, "cs.AI@2"));
+    }
+
+    private File datasetFile() {
+        return tempDir.resolve("papers.jsonl").toFile();
+    }
+
+    private Path checkpointFile() {
+        return tempDir.resolve("checkpoint.properties");
+    }
+
+    private List<String> readIds() throws IOException {
+        List<String> ids = new ArrayList<>();
+        try (MappingIterator<Paper> papers = objectMapper.readerFor(Paper.class).readValues(datasetFile())) {
+            while (papers.hasNextValue()) {
+                ids.add(papers.nextValue().getId());
+            }
+        }
+        return ids;
+    }
+
+    private String paperJson(String id, String category) throws IOException {
+        return objectMapper.writeValueAsString(new Paper(id, "Title " + id, "Summary", "", "", "", "", category, category, List.of()));
+    }
+
+    private static String atomPage(List<String> ids) {
+        StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<feed xmlns=\"http://www.w3.org/2005/Atom\" xmlns:arxiv=\"http://arxiv.org/schemas/atom\">\n");
+        for (String id : ids) {
+            xml.append("<entry><id>").append(id).append("</id>")
+               .append("<title>Title ").append(id).append("</title>")
+               .append("<summary>Summary of ").append(id).append("</summary>")
+               .append("<author><name>Ada Lovelace</name></author>")
+               .append("</entry>\n");
+        }
+        return xml.append("</feed>\n").toString();
+    }
+}
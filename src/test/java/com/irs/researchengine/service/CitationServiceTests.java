@@ -0,0 +1,98 @@
+package com.irs.researchengine.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.irs.researchengine.data.CitationInfo;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Runs CitationService against a local stub of the Semantic Scholar paper endpoint.
+ */
+class CitationServiceTests {
+
+    private HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+    private CitationService citationService;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/graph/v1/paper/", exchange -> {
+            requests.incrementAndGet();
+            String path = exchange.getRequestURI().getPath();
+            if (path.endsWith("slow")) {
+                sleep(2000);
+            }
+            byte[] body = "{\"citationCount\": 42, \"citations\": [{\"url\": \"https://example.org/a\"}, {\"url\": null}]}"
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+
+        citationService = new CitationService();
+        ReflectionTestUtils.setField(citationService, "apiUrl", "http://127.0.0.1:" + server.getAddress().getPort());
+        ReflectionTestUtils.setField(citationService, "cacheMaxSize", 100);
+        ReflectionTestUtils.setField(citationService, "cacheTtlMinutes", 60L);
+        ReflectionTestUtils.setField(citationService, "cachePath", "");
+        ReflectionTestUtils.setField(citationService, "fetchThreads", 4);
+        ReflectionTestUtils.setField(citationService, "fetchDeadlineMs", 500L);
+        ReflectionTestUtils.setField(citationService, "objectMapper", new ObjectMapper());
+        citationService.init();
+    }
+
+    @AfterEach
+    void stopStub() {
+        citationService.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    void cachesLookupsByCleanedId() {
+        CitationInfo first = citationService.getCitationInfo("http://arxiv.org/abs/2101.00001v2");
+        CitationInfo second = citationService.getCitationInfo("http://arxiv.org/abs/2101.00001v1");
+
+        assertEquals(42, first.getCitationCount());
+        assertEquals(List.of("https://example.org/a"), first.getCitationUrls());
+        assertEquals(42, second.getCitationCount());
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    void slowLookupsFallBackWithinDeadline() {
+        long start = System.currentTimeMillis();
+        Map<String, CitationInfo> results = citationService.getCitationInfos(List.of("2101.00002", "slow"));
+        long elapsed = System.currentTimeMillis() - start;
+
+        assertEquals(42, results.get("2101.00002").getCitationCount());
+        assertEquals(0, results.get("slow").getCitationCount());
+        assertTrue(elapsed < 1500, "Deadline not enforced: " + elapsed + " ms");
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
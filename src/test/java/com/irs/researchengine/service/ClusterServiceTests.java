@@ -0,0 +1,165 @@
+package com.irs.researchengine.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.irs.researchengine.utils.FeatureRescorer;
+
+/**
+ * Related-document ranking from the cluster index, and reloading when the clustering output or the static ranks
+ * in the index change.
+ */
+class ClusterServiceTests {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void ranksClusterMembersByScoreAndReloads() throws Exception {
+        Path clusters = tempDir.resolve("clusters.json");
+        Path scores = tempDir.resolve("scores.json");
+        Files.writeString(clusters, "{\"a\": 7, \"b\": 7, \"c\": 3, \"d\": 7, \"e\": 7}");
+        Files.writeString(scores, "{\"a\": 0.1, \"b\": 0.2, \"d\": 0.9, \"c\": 1.0}");
+
+        ClusterService service = new ClusterService();
+        ReflectionTestUtils.setField(service, "clusterFilePath", clusters.toString());
+        ReflectionTestUtils.setField(service, "scoreFilePath", scores.toString());
+        ReflectionTestUtils.setField(service, "reloadIntervalMs", 0L);
+        service.loadClusters();
+
+        // Unscored "e" ranks last, the document itself is never returned
+        assertEquals(List.of("d", "b", "e"), service.getRelatedDocs("a", 10));
+        assertEquals(List.of("d", "a"), service.getRelatedDocs("b", 2));
+        assertEquals(List.of(), service.getRelatedDocs("c", 10));
+        assertThrows(IllegalArgumentException.class, () -> service.getRelatedDocs("unknown", 10));
+
+        Files.writeString(clusters, "{\"a\": 1, \"c\": 1, \"unknown\": 2}");
+        Files.setLastModifiedTime(clusters, FileTime.fromMillis(Files.getLastModifiedTime(clusters).toMillis() + 5000));
+        service.reloadIfChanged();
+
+        assertEquals(List.of("c"), service.getRelatedDocs("a", 10));
+        assertEquals(List.of(), service.getRelatedDocs("unknown", 10));
+        assertThrows(IllegalArgumentException.class, () -> service.getRelatedDocs("b", 10));
+    }
+
+    @Test
+    void ranksByStaticRankWithoutScoreFile() throws Exception {
+        Path clusters = tempDir.resolve("clusters.json");
+        Files.writeString(clusters, "{\"a\": 7, \"b\": 7, \"c\": 7}");
+
+        ClusterService service = new ClusterService();
+        ReflectionTestUtils.setField(service, "clusterFilePath", clusters.toString());
+        ReflectionTestUtils.setField(service, "scoreFilePath", "");
+        ReflectionTestUtils.setField(service, "reloadIntervalMs", 0L);
+        IndexSearcherManager searcherManager = searcherManager(tempDir.resolve("index"));
+        ReflectionTestUtils.setField(service, "searcherManager", searcherManager);
+        try {
+            service.updateStaticRanks(List.of("a", "b", "c"), new float[]{1.0f, 0.5f, 2.0f});
+            service.loadClusters();
+            assertEquals(List.of("c", "b"), service.getRelatedDocs("a", 10));
+
+            // A new PageRank run re-ranks the members without touching the files
+            service.updateStaticRanks(List.of("a", "b", "c"), new float[]{1.0f, 3.0f, 2.0f});
+            assertEquals(List.of("b", "c"), service.getRelatedDocs("a", 10));
+        } finally {
+            service.shutdown();
+            searcherManager.close();
+        }
+    }
+
+    @Test
+    void startsWithoutIndexAndRanksFromEachRefresh() throws Exception {
+        Path clusters = tempDir.resolve("clusters.json");
+        Files.writeString(clusters, "{\"a\": 7, \"b\": 7, \"c\": 7}");
+        Path indexDir = tempDir.resolve("index");
+
+        ClusterService service = new ClusterService();
+        ReflectionTestUtils.setField(service, "clusterFilePath", clusters.toString());
+        ReflectionTestUtils.setField(service, "scoreFilePath", "");
+        ReflectionTestUtils.setField(service, "reloadIntervalMs", 0L);
+        IndexSearcherManager searcherManager = searcherManager(indexDir);
+        ReflectionTestUtils.setField(service, "searcherManager", searcherManager);
+        try {
+            // No index yet: the clusters load unranked
+            service.loadClusters();
+            assertEquals(2, service.getRelatedDocs("a", 10).size());
+
+            try (Directory directory = FSDirectory.open(indexDir);
+                 IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig(new StandardAnalyzer()))) {
+                writer.addDocument(paper("a", 1.0f));
+                writer.addDocument(paper("b", 0.5f));
+                writer.addDocument(paper("c", 2.0f));
+                writer.commit();
+                searcherManager.refresh();
+                awaitRelated(service, "a", List.of("c", "b"));
+
+                // A static rank update seen by the next refresh re-ranks the members
+                writer.updateDocValues(new Term("id", "b"),
+                        new NumericDocValuesField(FeatureRescorer.STATIC_RANK_FIELD, FeatureRescorer.encodeStaticRank(3.0f)));
+                writer.commit();
+                searcherManager.refresh();
+                awaitRelated(service, "a", List.of("b", "c"));
+            }
+        } finally {
+            service.shutdown();
+            searcherManager.close();
+        }
+    }
+
+    @Test
+    void failsWhenScoreFileIsMissing() throws Exception {
+        Path clusters = tempDir.resolve("clusters.json");
+        Files.writeString(clusters, "{\"a\": 7}");
+
+        ClusterService service = new ClusterService();
+        ReflectionTestUtils.setField(service, "clusterFilePath", clusters.toString());
+        ReflectionTestUtils.setField(service, "scoreFilePath", tempDir.resolve("missing.json").toString());
+        ReflectionTestUtils.setField(service, "reloadIntervalMs", 0L);
+        assertThrows(IOException.class, service::loadClusters);
+    }
+
+    private static IndexSearcherManager searcherManager(Path indexDir) throws IOException {
+        Files.createDirectories(indexDir);
+        IndexSearcherManager searcherManager = new IndexSearcherManager();
+        ReflectionTestUtils.setField(searcherManager, "indexPath", indexDir.toString());
+        ReflectionTestUtils.setField(searcherManager, "refreshIntervalMs", 60_000L);
+        searcherManager.init();
+        return searcherManager;
+    }
+
+    private static Document paper(String id, float staticRank) {
+        Document doc = new Document();
+        doc.add(new StringField("id", id, Field.Store.YES));
+        doc.add(new NumericDocValuesField(FeatureRescorer.STATIC_RANK_FIELD, FeatureRescorer.encodeStaticRank(staticRank)));
+        return doc;
+    }
+
+    // Ranks are read on the reload thread after a refresh
+    private static void awaitRelated(ClusterService service, String docId, List<String> expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!expected.equals(service.getRelatedDocs(docId, 10)) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(expected, service.getRelatedDocs(docId, 10));
+    }
+}
@@ -0,0 +1,47 @@
+package com.irs.researchengine.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+
+class DateRangeTests {
+
+    @Test
+    void boundsCoverWholePeriods() {
+        DateRange year = DateRange.parse("published", "2023", "2023");
+        assertEquals("publishedTime", year.getField());
+        assertEquals(millis("2023-01-01T00:00:00Z"), year.getFrom());
+        assertEquals(millis("2024-01-01T00:00:00Z") - 1, year.getTo());
+
+        DateRange month = DateRange.parse("updated", "2024-02", "2024-02");
+        assertEquals("updatedTime", month.getField());
+        assertEquals(millis("2024-02-01T00:00:00Z"), month.getFrom());
+        assertEquals(millis("2024-03-01T00:00:00Z") - 1, month.getTo());
+
+        DateRange day = DateRange.parse(null, "2024-02-29", " 2024-02-29 ");
+        assertEquals(millis("2024-02-29T00:00:00Z"), day.getFrom());
+        assertEquals(millis("2024-03-01T00:00:00Z") - 1, day.getTo());
+
+        DateRange instant = DateRange.parse("published", "2024-01-15T18:00:00Z", null);
+        assertEquals(millis("2024-01-15T18:00:00Z"), instant.getFrom());
+        assertEquals(Long.MAX_VALUE, instant.getTo());
+        assertEquals(Long.MIN_VALUE, DateRange.parse("published", "", "2020").getFrom());
+    }
+
+    @Test
+    void rejectsBadInput() {
+        assertNull(DateRange.parse("published", null, " "));
+        assertThrows(IllegalArgumentException.class, () -> DateRange.parse("created", "2023", null));
+        assertThrows(IllegalArgumentException.class, () -> DateRange.parse("published", "2023-13", null));
+        assertThrows(IllegalArgumentException.class, () -> DateRange.parse("published", "last week", null));
+        assertThrows(IllegalArgumentException.class, () -> DateRange.parse("published", "2024", "2023"));
+    }
+
+    private static long millis(String instant) {
+        return Instant.parse(instant).toEpochMilli();
+    }
+}
@@ -0,0 +1,82 @@
+package com.irs.researchengine.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TermInSetQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.BytesRef;
+import org.junit.jupiter.api.Test;
+
+import com.irs.researchengine.data.Paper;
+import com.irs.researchengine.utils.PaperFieldVisitor;
+
+/**
+ * Batch id and hit lookup across segments, with deletes, missing ids and field projection.
+ */
+class PaperLookupServiceTests {
+
+    @Test
+    void returnsLivePapersInCallerOrder() throws Exception {
+        try (Directory directory = new ByteBuffersDirectory();
+             IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig(new StandardAnalyzer()))) {
+            for (int i = 0; i < 30; i++) {
+                writer.addDocument(paper("p" + i));
+                if (i % 10 == 9) {
+                    writer.commit(); // Several segments
+                }
+            }
+            writer.deleteDocuments(new Term("id", "p5"));
+            writer.commit();
+
+            try (DirectoryReader reader = DirectoryReader.open(directory)) {
+                IndexSearcher searcher = new IndexSearcher(reader);
+                PaperLookupService service = new PaperLookupService();
+
+                List<Paper> papers = service.getPapers(searcher, List.of("p27", "p3", "missing", "p5", "p14", "p3"),
+                        PaperFieldVisitor.ALL_FIELDS);
+                assertEquals(List.of("p27", "p3", "p14", "p3"), papers.stream().map(Paper::getId).collect(Collectors.toList()));
+                assertEquals("Title p27", papers.get(0).getTitle());
+                assertEquals(List.of("Ada Lovelace", "Alan Turing"), papers.get(0).getAuthors());
+
+                Paper projected = service.getPapers(searcher, List.of("p14"), Set.of("title")).get(0);
+                assertEquals("p14", projected.getId());
+                assertEquals("Title p14", projected.getTitle());
+                assertNull(projected.getSummary());
+
+                // Hits are matched in doc id order (p3, p27) and come back in the caller's order
+                TopDocs hits = searcher.search(new TermInSetQuery("id", new BytesRef("p27"), new BytesRef("p3")), 10);
+                ScoreDoc[] reversed = {hits.scoreDocs[1], hits.scoreDocs[0]};
+                List<Paper> byHit = service.getPapers(searcher, reversed, Set.of("title"));
+                assertEquals(List.of("p27", "p3"), byHit.stream().map(Paper::getId).collect(Collectors.toList()));
+                assertEquals("Title p27", byHit.get(0).getTitle());
+            }
+        }
+    }
+
+    private static Document paper(String id) {
+        Document doc = new Document();
+        doc.add(new StringField("id", id, Field.Store.YES));
+        doc.add(new TextField("title", "Title " + id, Field.Store.YES));
+        doc.add(new TextField("summary", "Summary of " + id, Field.Store.YES));
+        doc.add(new TextField("authors", "Ada Lovelace, Alan Turing", Field.Store.YES));
+        return doc;
+    }
+}
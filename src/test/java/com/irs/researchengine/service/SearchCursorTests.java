@@ -0,0 +1,59 @@
+package com.irs.researchengine.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.apache.lucene.search.FieldDoc;
+import org.apache.lucene.search.ScoreDoc;
+import org.junit.jupiter.api.Test;
+
+class SearchCursorTests {
+
+    private static final int FINGERPRINT = "bm25|neural networks".hashCode();
+
+    @Test
+    void roundTripsOffsetsAndLuceneHits() {
+        SearchCursor offset = SearchCursor.decode(SearchCursor.atOffset(FINGERPRINT, 40).encode(), FINGERPRINT);
+        assertEquals(40, offset.getOffset());
+        assertNull(offset.getAfter());
+
+        SearchCursor scored = SearchCursor.decode(
+                SearchCursor.after(FINGERPRINT, 5000, 0x1f00000002L, new ScoreDoc(123456, 7.25f)).encode(), FINGERPRINT);
+        assertEquals(5000, scored.getOffset());
+        assertEquals(123456, scored.getAfter().doc);
+        assertEquals(7.25f, scored.getAfter().score);
+        assertEquals(0x1f00000002L, scored.getReaderVersion());
+
+        // Citation sort: count, then relevance
+        ScoreDoc sorted = new FieldDoc(42, Float.NaN, new Object[]{1500L, 3.5f});
+        SearchCursor citations = SearchCursor.decode(SearchCursor.after(-17, 10, 3, sorted).encode(), -17);
+        FieldDoc after = (FieldDoc) citations.getAfter();
+        assertEquals(42, after.doc);
+        assertEquals(1500L, after.fields[0]);
+        assertEquals(3.5f, after.fields[1]);
+        assertTrue(Float.isNaN(after.score));
+
+        // Newest first: publication time alone
+        ScoreDoc newest = new FieldDoc(7, Float.NaN, new Object[]{1700000000000L});
+        FieldDoc afterNewest = (FieldDoc) SearchCursor.decode(SearchCursor.after(-17, 10, 3, newest).encode(), -17).getAfter();
+        assertEquals(1, afterNewest.fields.length);
+        assertEquals(1700000000000L, afterNewest.fields[0]);
+    }
+
+    @Test
+    void rejectsForeignAndMalformedTokens() {
+        String token = SearchCursor.atOffset(FINGERPRINT, 10).encode();
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode(token, FINGERPRINT + 1));
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode("not a cursor!", FINGERPRINT));
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode("YWJj", FINGERPRINT));
+        // A hit without the version of its reader
+        String unversioned = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                ("c2:" + Integer.toHexString(FINGERPRINT) + ":10:42:0").getBytes(StandardCharsets.UTF_8));
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode(unversioned, FINGERPRINT));
+    }
+}
@@ -0,0 +1,125 @@
+package com.irs.researchengine.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.lucene.search.ScoreDoc;
+import org.junit.jupiter.api.Test;
+
+import com.irs.researchengine.service.SearchResultCache.Ranking;
+
+class SearchResultCacheTests {
+
+    @Test
+    void concurrentMissesShareOneComputation() throws Exception {
+        SearchResultCache cache = new SearchResultCache(10, 60_000);
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Ranking>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> cache.get("q", 10, () -> {
+                    computations.incrementAndGet();
+                    release.await(5, TimeUnit.SECONDS);
+                    return ranking(100, false, true);
+                })));
+            }
+            Thread.sleep(200);
+            release.countDown();
+            Ranking first = results.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<Ranking> result : results) {
+                assertSame(first, result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, computations.get());
+        assertEquals(1, cache.missCount());
+        assertEquals(7, cache.hitCount());
+
+        // Later pages within the window are hits
+        cache.get("q", 100, () -> ranking(100, false, true));
+        assertEquals(8, cache.hitCount());
+        assertEquals(1, computations.get());
+    }
+
+    @Test
+    void smallerWindowIsRecomputedUnlessComplete() throws Exception {
+        SearchResultCache cache = new SearchResultCache(10, 60_000);
+        cache.get("q", 10, () -> ranking(100, false, true));
+        assertEquals(200, cache.get("q", 150, () -> ranking(200, false, true)).getIds().size());
+        assertEquals(2, cache.missCount());
+
+        cache.get("rare", 10, () -> ranking(30, true, true));
+        assertEquals(30, cache.get("rare", 150, () -> ranking(999, true, true)).getIds().size());
+        assertEquals(3, cache.missCount());
+    }
+
+    @Test
+    void degradedRankingsAndFailuresAreNotKept() throws Exception {
+        SearchResultCache cache = new SearchResultCache(10, 60_000);
+        cache.get("partial", 10, () -> ranking(100, false, false));
+        assertEquals(0, cache.size());
+
+        assertThrows(IOException.class, () -> cache.get("failing", 10, () -> {
+            throw new IOException("index gone");
+        }));
+        assertEquals(0, cache.size());
+        assertEquals(100, cache.get("failing", 10, () -> ranking(100, false, true)).getIds().size());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void evictionAndClearTrackMemory() throws Exception {
+        SearchResultCache cache = new SearchResultCache(2, 60_000);
+        cache.get("a", 10, () -> ranking(100, false, true));
+        long one = cache.estimatedBytes();
+        assertTrue(one > 100 * 64);
+        cache.get("b", 10, () -> ranking(100, false, true));
+        cache.get("c", 10, () -> ranking(100, false, true));
+        assertEquals(2, cache.size());
+        assertEquals(2 * one, cache.estimatedBytes());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.estimatedBytes());
+    }
+
+    @Test
+    void slicesPastTheEndAreEmpty() {
+        Ranking ranking = ranking(25, true, true);
+        assertEquals(List.of("doc20", "doc21", "doc22", "doc23", "doc24"), ranking.slice(20, 10));
+        assertEquals(List.of(), ranking.slice(30, 10));
+
+        ScoreDoc[] hits = new ScoreDoc[25];
+        for (int i = 0; i < hits.length; i++) {
+            hits[i] = new ScoreDoc(i, hits.length - i);
+        }
+        Ranking lucene = new Ranking(hits, true, true, true);
+        assertEquals(25, lucene.size());
+        assertEquals(5, lucene.sliceHits(20, 10).length);
+        assertEquals(20, lucene.sliceHits(20, 10)[0].doc);
+        assertEquals(0, lucene.sliceHits(30, 10).length);
+    }
+
+    private static Ranking ranking(int size, boolean complete, boolean cacheable) {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            ids.add("doc" + i);
+        }
+        return new Ranking(ids, complete, cacheable);
+    }
+}
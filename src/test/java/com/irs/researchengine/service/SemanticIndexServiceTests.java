@@ -0,0 +1,158 @@
+package com.irs.researchengine.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.irs.researchengine.data.Paper;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Runs the bulk uploader against a local mock of the FAISS /index_documents/ endpoint.
+ */
+class SemanticIndexServiceTests {
+
+    @TempDir
+    Path tempDir;
+
+    private HttpServer server;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<List<String>> received = Collections.synchronizedList(new ArrayList<>());
+    // Ids the mock service holds; like the real one it skips those and accepts batches with nothing new
+    private final Set<String> held = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger concurrent = new AtomicInteger();
+    private final AtomicInteger maxConcurrent = new AtomicInteger();
+    private volatile String failingId;
+    private SemanticIndexService semanticIndexService;
+
+    @BeforeEach
+    void startMockFaiss() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/index_documents/", exchange -> {
+            int now = concurrent.incrementAndGet();
+            maxConcurrent.accumulateAndGet(now, Math::max);
+            try {
+                List<Map<String, String>> docs = objectMapper.readValue(exchange.getRequestBody(), new TypeReference<List<Map<String, String>>>() {});
+                List<String> ids = new ArrayList<>();
+                docs.forEach(doc -> ids.add(doc.get("id")));
+                sleep(50);
+                if (ids.contains(failingId)) {
+                    exchange.sendResponseHeaders(500, -1);
+                    exchange.close();
+                    return;
+                }
+                received.add(ids);
+                held.addAll(ids);
+                byte[] body = "{\"message\": \"ok\"}".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            } finally {
+                concurrent.decrementAndGet();
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+
+        semanticIndexService = new SemanticIndexService();
+        ReflectionTestUtils.setField(semanticIndexService, "faissApiUrl", "http://127.0.0.1:" + server.getAddress().getPort());
+        ReflectionTestUtils.setField(semanticIndexService, "batchSize", 2);
+        ReflectionTestUtils.setField(semanticIndexService, "maxInFlight", 2);
+        ReflectionTestUtils.setField(semanticIndexService, "progressPath", tempDir.resolve("faiss_upload.progress").toString());
+        ReflectionTestUtils.setField(semanticIndexService, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(semanticIndexService, "faissRestTemplate", new RestTemplate());
+    }
+
+    @AfterEach
+    void stopMockFaiss() {
+        server.stop(0);
+    }
+
+    @Test
+    void uploadsInBatchesWithBoundedConcurrency() throws Exception {
+        String dataset = writeDataset(7);
+
+        semanticIndexService.indexFromDataset(dataset);
+
+        assertEquals(4, received.size());
+        assertEquals(7, received.stream().mapToInt(List::size).sum());
+        assertTrue(maxConcurrent.get() <= 2, "at most two batches in flight, saw " + maxConcurrent.get());
+    }
+
+    @Test
+    void restartSkipsAcknowledgedBatches() throws Exception {
+        String dataset = writeDataset(7);
+        failingId = "p4";
+
+        assertThrows(Exception.class, () -> semanticIndexService.indexFromDataset(dataset));
+        int acknowledged = received.size();
+        assertTrue(acknowledged < 4);
+
+        failingId = null;
+        received.clear();
+        semanticIndexService.indexFromDataset(dataset);
+
+        // Only the batches that were never acknowledged are sent again
+        assertEquals(4 - acknowledged, received.size());
+        assertTrue(received.stream().anyMatch(ids -> ids.contains("p4")));
+    }
+
+    @Test
+    void fullReuploadSucceedsWhenServerHoldsEveryId() throws Exception {
+        String dataset = writeDataset(5);
+        semanticIndexService.indexFromDataset(dataset);
+        assertEquals(5, held.size());
+
+        // Without the ledger every batch is sent again, and each one holds only ids the server already has
+        Files.delete(tempDir.resolve("faiss_upload.progress"));
+        received.clear();
+        semanticIndexService.indexFromDataset(dataset);
+
+        assertEquals(3, received.size());
+        assertEquals(5, held.size());
+        assertTrue(Files.exists(tempDir.resolve("faiss_upload.progress")));
+    }
+
+    private String writeDataset(int count) throws IOException {
+        StringBuilder jsonl = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            jsonl.append(objectMapper.writeValueAsString(new Paper("p" + i, "Title " + i, "Summary " + i, "", "", "", "", "", "", List.of())))
+                 .append('\n');
+        }
+        return Files.writeString(tempDir.resolve("papers.jsonl"), jsonl).toString();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
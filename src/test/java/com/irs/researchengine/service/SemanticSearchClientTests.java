@@ -0,0 +1,124 @@
+package com.irs.researchengine.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.irs.researchengine.service.SemanticSearchClient.SemanticSearchUnavailableException;
+import com.irs.researchengine.utils.CircuitBreaker;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Runs SemanticSearchClient against a local stub of the FAISS /search/ endpoint whose latency can be changed per test.
+ */
+class SemanticSearchClientTests {
+
+    private HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile long firstRequestDelayMs;
+    private volatile long delayMs;
+    private SimpleMeterRegistry meterRegistry;
+    private SemanticSearchClient client;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/search/", exchange -> {
+            int request = requests.incrementAndGet();
+            sleep(request == 1 && firstRequestDelayMs > 0 ? firstRequestDelayMs : delayMs);
+            byte[] body = "[{\"id\": \"2101.00001\", \"score\": 0.1}, {\"id\": \"2101.00002\", \"score\": 0.2}]"
+                    .getBytes(StandardCharsets.UTF_8);
+            try {
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            } catch (IOException e) {
+                // Client gave up on this request
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+
+        meterRegistry = new SimpleMeterRegistry();
+        client = new SemanticSearchClient();
+        ReflectionTestUtils.setField(client, "faissApiUrl", "http://127.0.0.1:" + server.getAddress().getPort());
+        ReflectionTestUtils.setField(client, "connectTimeoutMs", 500L);
+        ReflectionTestUtils.setField(client, "timeoutMs", 300L);
+        ReflectionTestUtils.setField(client, "hedgeDelayMs", 0L);
+        ReflectionTestUtils.setField(client, "breakerFailureThreshold", 2);
+        ReflectionTestUtils.setField(client, "breakerOpenMs", 200L);
+        ReflectionTestUtils.setField(client, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(client, "meterRegistry", meterRegistry);
+    }
+
+    @AfterEach
+    void stopStub() {
+        server.stop(0);
+    }
+
+    @Test
+    void returnsRankedIds() {
+        client.init();
+        assertEquals(List.of("2101.00001", "2101.00002"), client.search("graph neural networks", 2));
+        assertEquals(1L, meterRegistry.get("semantic.search.latency").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void deadlineOpensCircuitAndHalfOpenTrialClosesIt() throws Exception {
+        client.init();
+        delayMs = 1000;
+
+        long start = System.nanoTime();
+        assertThrows(SemanticSearchUnavailableException.class, () -> client.search("slow", 5));
+        assertTrue((System.nanoTime() - start) / 1_000_000 < 900, "search should give up at the deadline");
+        assertThrows(SemanticSearchUnavailableException.class, () -> client.search("slow", 5));
+        assertEquals(CircuitBreaker.State.OPEN, client.getCircuitState());
+
+        // While open, calls fail fast without reaching the service
+        int sent = requests.get();
+        assertThrows(SemanticSearchUnavailableException.class, () -> client.search("slow", 5));
+        assertEquals(sent, requests.get());
+        assertEquals(2.0, meterRegistry.get("semantic.search.circuit.state").gauge().value());
+
+        delayMs = 0;
+        Thread.sleep(250);
+        assertEquals(2, client.search("recovered", 5).size());
+        assertEquals(CircuitBreaker.State.CLOSED, client.getCircuitState());
+    }
+
+    @Test
+    void hedgedRequestCoversSlowPrimary() {
+        ReflectionTestUtils.setField(client, "hedgeDelayMs", 50L);
+        client.init();
+        firstRequestDelayMs = 1000;
+
+        assertEquals(2, client.search("hedged", 2).size());
+        assertEquals(2, requests.get());
+        assertEquals(1.0, meterRegistry.get("semantic.search.hedged").counter().count());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.irs.researchengine.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Counts read back from the mapped statistics file against counts kept in plain maps.
+ */
+class CorpusStatsTests {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void mappedCountsMatchInMemoryCounts() throws IOException {
+        int window = 3;
+        Random random = new Random(11);
+        Map<String, Integer> terms = new HashMap<>();
+        Map<String, Integer> pairs = new HashMap<>();
+        CorpusStatsBuilder builder = new CorpusStatsBuilder(window);
+        for (int line = 0; line < 2000; line++) {
+            String[] tokens = new String[1 + random.nextInt(20)];
+            for (int i = 0; i < tokens.length; i++) {
+                tokens[i] = "w" + random.nextInt(500);
+            }
+            for (int i = 0; i < tokens.length; i++) {
+                terms.merge(tokens[i], 1, Integer::sum);
+                for (int j = i + 1; j <= Math.min(tokens.length - 1, i + window); j++) {
+                    pairs.merge(tokens[i] + " " + tokens[j], 1, Integer::sum);
+                }
+            }
+            builder.addLine("  " + String.join(" \t", tokens) + " ");
+        }
+        Path file = tempDir.resolve("stats.bin");
+        builder.write(file);
+
+        CorpusStats stats = CorpusStats.open(file);
+        assertEquals(window, stats.getWindow());
+        assertEquals(terms.values().stream().mapToLong(Integer::longValue).sum(), stats.getTotalTerms());
+        for (Map.Entry<String, Integer> term : terms.entrySet()) {
+            assertEquals(term.getValue().intValue(), stats.termCount(term.getKey(), 0, term.getKey().length()));
+        }
+        for (Map.Entry<String, Integer> pair : pairs.entrySet()) {
+            assertEquals(pair.getValue().intValue(), stats.pairCount(pair.getKey()));
+        }
+        assertEquals(0, stats.termCount("unseen", 0, 6));
+        assertEquals(0, stats.pairCount("w1 unseen"));
+        // Lookups ignore extra whitespace between and around the words
+        String somePair = pairs.keySet().iterator().next();
+        assertEquals(pairs.get(somePair).intValue(), stats.pairCount(" " + somePair.replace(" ", "   ") + "\n"));
+    }
+}
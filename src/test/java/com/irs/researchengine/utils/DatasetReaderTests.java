@@ -0,0 +1,86 @@
+package com.irs.researchengine.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.irs.researchengine.data.Paper;
+
+class DatasetReaderTests {
+
+    @TempDir
+    Path tempDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void readsJsonArrayInBatches() throws Exception {
+        File file = write("array.json", "[" + String.join(",", papers(5)) + "]");
+        assertEquals(List.of(2, 2, 1), batchSizes(file, 2));
+    }
+
+    @Test
+    void readsJsonLinesInBatches() throws Exception {
+        File file = write("papers.jsonl", String.join("\n", papers(5)) + "\n");
+        assertEquals(List.of(3, 2), batchSizes(file, 3));
+    }
+
+    @Test
+    void emptyArrayHasNoBatches() throws Exception {
+        try (DatasetReader reader = new DatasetReader(write("empty.json", "[]"), objectMapper, 10)) {
+            assertFalse(reader.hasNext());
+        }
+    }
+
+    @Test
+    void truncatedLastLineLosesOnlyThatPaper() throws Exception {
+        List<String> json = papers(4);
+        String last = json.get(3);
+        File file = write("killed.jsonl", String.join("\n", json.subList(0, 3)) + "\n" + last.substring(0, last.length() / 2));
+
+        List<String> ids = new ArrayList<>();
+        try (DatasetReader reader = new DatasetReader(file, objectMapper, 10)) {
+            assertThrows(IOException.class, () -> reader.forEachPaper(paper -> ids.add(paper.getId())));
+            assertEquals(3L, reader.getCount());
+        }
+        assertEquals(List.of("p0", "p1", "p2"), ids);
+    }
+
+    private List<Integer> batchSizes(File file, int batchSize) throws Exception {
+        List<Integer> sizes = new ArrayList<>();
+        List<String> ids = new ArrayList<>();
+        try (DatasetReader reader = new DatasetReader(file, objectMapper, batchSize)) {
+            while (reader.hasNext()) {
+                List<Paper> batch = reader.next();
+                sizes.add(batch.size());
+                batch.forEach(paper -> ids.add(paper.getId()));
+            }
+            assertEquals(5L, reader.getCount());
+        }
+        assertEquals(List.of("p0", "p1", "p2", "p3", "p4"), ids);
+        return sizes;
+    }
+
+    private List<String> papers(int count) throws Exception {
+        List<String> json = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            json.add(objectMapper.writeValueAsString(new Paper("p" + i, "Title " + i, "Summary " + i, "", "", "", "", "", "", List.of("Ada Lovelace"))));
+        }
+        return json;
+    }
+
+    private File write(String name, String content) throws Exception {
+        return Files.writeString(tempDir.resolve(name), content).toFile();
+    }
+}
@@ -0,0 +1,87 @@
+package com.irs.researchengine.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.SortedSetDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MultiCollector;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopScoreDocCollector;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.BytesRef;
+import org.junit.jupiter.api.Test;
+
+import com.irs.researchengine.data.FacetValue;
+
+/**
+ * Facet counts of matching documents only, merged across segments with different ordinals.
+ */
+class FacetCountsCollectorTests {
+
+    @Test
+    void countsMatchingDocumentsAcrossSegments() throws Exception {
+        try (Directory directory = new ByteBuffersDirectory();
+             IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig(new StandardAnalyzer()))) {
+            writer.addDocument(paper("graph neural networks", "cs.LG", 2023, "Ada Lovelace", "Alan Turing"));
+            writer.addDocument(paper("graph databases", "cs.DB", 2021, "Edgar Codd"));
+            writer.addDocument(paper("protein folding", "q-bio", 2023, "Ada Lovelace"));
+            writer.commit();
+            // Another segment, where "cs.LG" has a different ordinal
+            writer.addDocument(paper("graph transformers", "cs.LG", 2024, "Alan Turing"));
+            writer.addDocument(paper("graph kernels", "cs.AI", 1999, "Alan Turing"));
+            Document undated = new Document();
+            undated.add(new TextField("title", "graph theory", Field.Store.NO));
+            writer.addDocument(undated);
+            writer.commit();
+
+            try (DirectoryReader reader = DirectoryReader.open(directory)) {
+                assertEquals(2, reader.leaves().size());
+                IndexSearcher searcher = new IndexSearcher(reader);
+                TopScoreDocCollector topHits = TopScoreDocCollector.create(2, Integer.MAX_VALUE);
+                FacetCountsCollector facets = new FacetCountsCollector(
+                        new String[]{"categoryFacet", "authorFacet"}, new String[]{"publishedYear"});
+                searcher.search(new TermQuery(new Term("title", "graph")), MultiCollector.wrap(topHits, facets));
+
+                assertEquals(5, facets.getHits());
+                assertEquals(2, topHits.topDocs().scoreDocs.length);
+                Map<String, List<FacetValue>> counts = facets.topValues(2);
+                assertEquals(List.of("cs.LG=2", "cs.AI=1"), labels(counts.get("categoryFacet")));
+                assertEquals(List.of("Alan Turing=3", "Ada Lovelace=1"), labels(counts.get("authorFacet")));
+                // Years far apart grow the counting range in both directions
+                assertEquals(List.of("1999=1", "2021=1"), labels(counts.get("publishedYear")));
+                assertEquals(List.of("1999=1", "2021=1", "2023=1", "2024=1"), labels(facets.topValues(10).get("publishedYear")));
+            }
+        }
+    }
+
+    private static Document paper(String title, String category, int year, String... authors) {
+        Document doc = new Document();
+        doc.add(new TextField("title", title, Field.Store.NO));
+        doc.add(new StringField("primaryCategoryCode", category, Field.Store.NO));
+        doc.add(new SortedSetDocValuesField("categoryFacet", new BytesRef(category)));
+        for (String author : authors) {
+            doc.add(new SortedSetDocValuesField("authorFacet", new BytesRef(author)));
+        }
+        doc.add(new NumericDocValuesField("publishedYear", year));
+        return doc;
+    }
+
+    private static List<String> labels(List<FacetValue> values) {
+        return values.stream().map(value -> value.getValue() + "=" + value.getCount()).collect(Collectors.toList());
+    }
+}
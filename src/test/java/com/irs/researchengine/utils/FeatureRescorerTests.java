@@ -0,0 +1,117 @@
+package com.irs.researchengine.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.search.Explanation;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Rescoring across segments, with missing features and a cut to topN.
+ */
+class FeatureRescorerTests {
+
+    private static final long NOW = System.currentTimeMillis();
+
+    @Test
+    void featuresReorderHitsAcrossSegments() throws Exception {
+        try (Directory directory = new ByteBuffersDirectory();
+             IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig(new StandardAnalyzer()))) {
+            writer.addDocument(paper("old", 0, daysAgo(3650), 0f));
+            writer.addDocument(paper("cited", 1000, daysAgo(3650), 0f));
+            writer.commit();
+            writer.addDocument(paper("recent", 0, daysAgo(1), 0f));
+            writer.addDocument(paper("central", 0, daysAgo(3650), 4f));
+            writer.commit();
+            Document bare = new Document();
+            bare.add(new StringField("id", "bare", Field.Store.YES)); // Indexed before the features existed
+            writer.addDocument(bare);
+            writer.commit();
+
+            try (DirectoryReader reader = DirectoryReader.open(directory)) {
+                assertEquals(3, reader.leaves().size());
+                IndexSearcher searcher = new IndexSearcher(reader);
+                // Equal first-pass scores, first-pass order is the reverse of the doc ids
+                TopDocs firstPass = topDocs(new ScoreDoc(4, 1f), new ScoreDoc(3, 1f), new ScoreDoc(2, 1f),
+                        new ScoreDoc(1, 1f), new ScoreDoc(0, 1f));
+
+                FeatureRescorer citationsOnly = new FeatureRescorer(1f, 1f, 0f, 0f, 365);
+                assertEquals(List.of(1, 0, 2, 3, 4), docs(citationsOnly.rescore(searcher, copy(firstPass), 5)));
+
+                FeatureRescorer model = new FeatureRescorer(1f, 0.1f, 2f, 1f, 365);
+                TopDocs rescored = model.rescore(searcher, copy(firstPass), 3);
+                // central: 1 + 4, recent: 1 + ~2, cited: 1 + 0.1 * log(1001) + a little recency
+                assertEquals(List.of(3, 2, 1), docs(rescored));
+                assertEquals(5f, rescored.scoreDocs[0].score, 0.01f);
+                assertEquals(5, rescored.totalHits.value);
+
+                Explanation explanation = model.explain(searcher, Explanation.match(1f, "bm25"), 2);
+                assertEquals(rescored.scoreDocs[1].score, explanation.getValue().floatValue(), 1e-4f);
+                assertEquals(1f, model.explain(searcher, Explanation.match(1f, "bm25"), 4).getValue().floatValue(), 1e-6f);
+            }
+        }
+    }
+
+    @Test
+    void staticRankRoundTripsInSortOrder() {
+        float[] ranks = {0f, 1e-6f, 0.5f, 1f, 42f};
+        for (int i = 0; i < ranks.length; i++) {
+            assertEquals(ranks[i], FeatureRescorer.decodeStaticRank(FeatureRescorer.encodeStaticRank(ranks[i])));
+            if (i > 0) {
+                assertTrue(FeatureRescorer.encodeStaticRank(ranks[i - 1]) < FeatureRescorer.encodeStaticRank(ranks[i]));
+            }
+        }
+    }
+
+    private static Document paper(String id, long citations, long published, float staticRank) {
+        Document doc = new Document();
+        doc.add(new StringField("id", id, Field.Store.YES));
+        doc.add(new NumericDocValuesField(FeatureRescorer.CITATIONS_FIELD, citations));
+        doc.add(new NumericDocValuesField(FeatureRescorer.PUBLISHED_FIELD, published));
+        doc.add(new NumericDocValuesField(FeatureRescorer.STATIC_RANK_FIELD, FeatureRescorer.encodeStaticRank(staticRank)));
+        return doc;
+    }
+
+    private static long daysAgo(int days) {
+        return NOW - TimeUnit.DAYS.toMillis(days);
+    }
+
+    private static TopDocs topDocs(ScoreDoc... hits) {
+        return new TopDocs(new TotalHits(hits.length, TotalHits.Relation.EQUAL_TO), hits);
+    }
+
+    // The rescorer replaces the scores of the hits it is given
+    private static TopDocs copy(TopDocs topDocs) {
+        ScoreDoc[] hits = new ScoreDoc[topDocs.scoreDocs.length];
+        for (int i = 0; i < hits.length; i++) {
+            hits[i] = new ScoreDoc(topDocs.scoreDocs[i].doc, topDocs.scoreDocs[i].score);
+        }
+        return new TopDocs(topDocs.totalHits, hits);
+    }
+
+    private static List<Integer> docs(TopDocs topDocs) {
+        List<Integer> docs = new ArrayList<>();
+        for (ScoreDoc hit : topDocs.scoreDocs) {
+            docs.add(hit.doc);
+        }
+        return docs;
+    }
+}
@@ -0,0 +1,124 @@
+package com.irs.researchengine.utils;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Recall of MinHash/LSH near-duplicate candidates against the brute-force Jaccard scan.
+ */
+class LshIndexTests {
+
+    private static final int SHINGLE_SIZE = 3;
+    private static final double SIMILARITY_THRESHOLD = 0.85;
+    private static final int BANDS = 20;
+    private static final int ROWS = 8;
+
+    @Test
+    void candidatesRecallBruteForceDuplicates() {
+        Random random = new Random(7);
+        List<String> summaries = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            summaries.add(randomSummary(random, 150));
+        }
+        // Near-duplicates with a few percent of the words replaced
+        for (int i = 0; i < 100; i++) {
+            String[] words = summaries.get(random.nextInt(400)).split(" ");
+            int edits = 1 + random.nextInt(8);
+            for (int e = 0; e < edits; e++) {
+                words[random.nextInt(words.length)] = randomWord(random);
+            }
+            summaries.add(String.join(" ", words));
+        }
+
+        MinHash minHash = new MinHash(BANDS * ROWS, 42L);
+        List<int[]> shingles = new ArrayList<>();
+        List<int[]> signatures = new ArrayList<>();
+        for (String summary : summaries) {
+            int[] paperShingles = MinHash.shingles(summary, SHINGLE_SIZE);
+            shingles.add(paperShingles);
+            signatures.add(minHash.signature(paperShingles));
+        }
+
+        int truePairs = 0;
+        int foundPairs = 0;
+        long candidatePairs = 0;
+        LshIndex lsh = new LshIndex(BANDS, ROWS);
+        for (int i = 0; i < summaries.size(); i++) {
+            List<String> candidates = new ArrayList<>(lsh.candidates(signatures.get(i)));
+            candidatePairs += candidates.size();
+            for (int j = 0; j < i; j++) {
+                if (MinHash.jaccard(shingles.get(i), shingles.get(j)) >= SIMILARITY_THRESHOLD) {
+                    truePairs++;
+                    if (candidates.contains(String.valueOf(j))) {
+                        foundPairs++;
+                    }
+                }
+            }
+            lsh.add(String.valueOf(i), signatures.get(i));
+        }
+
+        double recall = truePairs == 0 ? 1.0 : (double) foundPairs / truePairs;
+        long allPairs = (long) summaries.size() * (summaries.size() - 1) / 2;
+        System.out.printf("LSH recall report: %d/%d duplicate pairs found (recall %.4f), %d of %d pairs compared exactly%n",
+                foundPairs, truePairs, recall, candidatePairs, allPairs);
+
+        assertTrue(truePairs > 0, "Fixture should contain near-duplicates");
+        assertTrue(recall >= 0.98, "LSH recall too low: " + recall);
+        assertTrue(candidatePairs < allPairs / 10, "LSH should prune most pairs");
+    }
+
+    @Test
+    void hashedShinglesMatchStringShingleJaccard() {
+        String first = "Deep neural networks for semantic retrieval of research papers";
+        String second = "Deep neural networks for semantic retrieval of scientific papers";
+        double hashed = MinHash.jaccard(MinHash.shingles(first, SHINGLE_SIZE), MinHash.shingles(second, SHINGLE_SIZE));
+        double exact = stringJaccard(first, second);
+        assertTrue(Math.abs(hashed - exact) < 1e-9, "hashed=" + hashed + " exact=" + exact);
+    }
+
+    private static double stringJaccard(String text1, String text2) {
+        Set<String> shingles1 = stringShingles(text1);
+        Set<String> shingles2 = stringShingles(text2);
+        Set<String> intersection = new HashSet<>(shingles1);
+        intersection.retainAll(shingles2);
+        Set<String> union = new HashSet<>(shingles1);
+        union.addAll(shingles2);
+        return (double) intersection.size() / union.size();
+    }
+
+    private static Set<String> stringShingles(String text) {
+        text = text.replaceAll("\\s+", "").toLowerCase();
+        Set<String> shingles = new HashSet<>();
+        for (int i = 0; i <= text.length() - SHINGLE_SIZE; i++) {
+            shingles.add(text.substring(i, i + SHINGLE_SIZE));
+        }
+        return shingles;
+    }
+
+    private static String randomSummary(Random random, int words) {
+        StringBuilder summary = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                summary.append(' ');
+            }
+            summary.append(randomWord(random));
+        }
+        return summary.toString();
+    }
+
+    private static String randomWord(Random random) {
+        int length = 3 + random.nextInt(8);
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(26)));
+        }
+        return word.toString();
+    }
+}
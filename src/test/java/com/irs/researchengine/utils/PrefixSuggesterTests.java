@@ -0,0 +1,80 @@
+package com.irs.researchengine.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+
+class PrefixSuggesterTests {
+
+    @Test
+    void matchesAnyWordAndOrdersByWeight() {
+        PrefixSuggester suggester = PrefixSuggester.builder(10)
+                .add("Graph Neural Networks for Retrieval", 5)
+                .add("Neural Ranking Models", 50)
+                .add("neural   ranking models", 1)  // Same phrase after normalization, weights add up
+                .add("Quantum Error Correction", 100)
+                .build();
+
+        assertEquals(List.of("Neural Ranking Models", "Graph Neural Networks for Retrieval"), suggester.suggest("NEU"));
+        assertEquals(List.of("Graph Neural Networks for Retrieval"), suggester.suggest("neural net"));
+        assertEquals(List.of("Graph Neural Networks for Retrieval"), suggester.suggest("retr"));
+        assertTrue(suggester.suggest("xyz").isEmpty());
+        assertTrue(suggester.suggest("  ").isEmpty());
+        assertEquals(3, suggester.size());
+    }
+
+    @Test
+    void precomputedNodesAgreeWithBruteForce() {
+        String[] words = {"learning", "learned", "graph", "network", "neural", "retrieval", "ranking", "model", "language", "vision"};
+        Random random = new Random(7);
+        Map<String, Long> weights = new TreeMap<>();
+        PrefixSuggester.Builder builder = PrefixSuggester.builder(5);
+        for (int i = 0; i < 3000; i++) {
+            StringBuilder title = new StringBuilder();
+            for (int w = 0; w < 4; w++) {
+                title.append(words[random.nextInt(words.length)]).append(' ');
+            }
+            title.append("paper ").append(i);
+            long weight = random.nextInt(1000);
+            weights.merge(title.toString(), weight, Long::sum);
+            builder.add(title.toString(), weight);
+        }
+        PrefixSuggester suggester = builder.build();
+
+        // Short prefixes hit precomputed trie nodes, long ones scan a small key range
+        for (String prefix : List.of("l", "lea", "learn", "learned g", "n", "ne", "network neural", "paper 12", "vision model lang")) {
+            assertEquals(bruteForce(weights, prefix, 5), suggester.suggest(prefix), prefix);
+        }
+    }
+
+    private static List<String> bruteForce(Map<String, Long> weights, String prefix, int k) {
+        List<Map.Entry<String, Long>> matches = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : weights.entrySet()) {
+            String text = entry.getKey().trim();
+            Set<Integer> starts = new LinkedHashSet<>();
+            for (int i = 0; i < text.length(); i++) {
+                if (i == 0 || text.charAt(i - 1) == ' ') {
+                    starts.add(i);
+                }
+            }
+            if (starts.stream().anyMatch(start -> text.startsWith(prefix, start))) {
+                matches.add(entry);
+            }
+        }
+        matches.sort((a, b) -> !a.getValue().equals(b.getValue()) ? Long.compare(b.getValue(), a.getValue()) : a.getKey().trim().compareTo(b.getKey().trim()));
+        List<String> top = new ArrayList<>();
+        for (int i = 0; i < Math.min(k, matches.size()); i++) {
+            top.add(matches.get(i).getKey().trim());
+        }
+        return top;
+    }
+}
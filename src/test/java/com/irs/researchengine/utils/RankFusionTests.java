@@ -0,0 +1,40 @@
+package com.irs.researchengine.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Reciprocal rank fusion of a lexical and a semantic ranking.
+ */
+class RankFusionTests {
+
+    @Test
+    void documentsInBothRankingsComeFirst() {
+        List<String> lexical = List.of("a", "b", "c", "d");
+        List<String> semantic = List.of("e", "c", "b");
+
+        // b: 1/62 + 1/63, c: 1/63 + 1/62, then a (1/61) before e (1/61) by first appearance
+        assertEquals(List.of("b", "c", "a", "e", "d"), RankFusion.reciprocalRank(List.of(lexical, semantic), 60));
+    }
+
+    @Test
+    void singleRankingIsUnchanged() {
+        List<String> lexical = List.of("x", "y", "z");
+
+        assertEquals(lexical, RankFusion.reciprocalRank(List.of(lexical), RankFusion.DEFAULT_K));
+        assertEquals(List.of(), RankFusion.reciprocalRank(List.of(), RankFusion.DEFAULT_K));
+    }
+
+    @Test
+    void smallKFavoursTopRanks() {
+        List<String> lexical = List.of("top", "x1", "x2", "x3", "shared");
+        List<String> semantic = List.of("y1", "y2", "y3", "y4", "shared");
+
+        // A single first place beats two fifth places at k = 1, but not at k = 60
+        assertEquals("top", RankFusion.reciprocalRank(List.of(lexical, semantic), 1).get(0));
+        assertEquals("shared", RankFusion.reciprocalRank(List.of(lexical, semantic), 60).get(0));
+    }
+}
@@ -0,0 +1,113 @@
+package com.irs.researchengine.vector;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Scores from the float32 and int8 stores against exact search over the same vectors.
+ */
+class EmbeddingStoreTests {
+
+    private static final int DIMENSION = 48;
+    private static final int DOCUMENTS = 20000;
+    private static final int K = 10;
+
+    @TempDir
+    Path tempDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void storesMatchExactSearch() throws Exception {
+        Random random = new Random(5);
+        ExactVectorIndex exact = new ExactVectorIndex(DIMENSION);
+        Path embeddings = tempDir.resolve("embeddings.jsonl");
+        try (BufferedWriter writer = Files.newBufferedWriter(embeddings)) {
+            for (int i = 0; i < DOCUMENTS; i++) {
+                float[] vector = gaussian(random);
+                exact.add("doc" + i, vector);
+                writer.write(objectMapper.writeValueAsString(Map.of("id", "doc" + i, "embedding", vector)));
+                writer.newLine();
+            }
+            // Later duplicates are ignored
+            writer.write(objectMapper.writeValueAsString(Map.of("id", "doc0", "embedding", gaussian(random))));
+            writer.newLine();
+        }
+
+        Path floatPath = tempDir.resolve("float32.bin");
+        Path int8Path = tempDir.resolve("int8.bin");
+        EmbeddingStore.write(embeddings.toFile(), objectMapper, floatPath, EmbeddingStore.Encoding.FLOAT32);
+        EmbeddingStore.write(embeddings.toFile(), objectMapper, int8Path, EmbeddingStore.Encoding.INT8);
+        EmbeddingStore floatStore = EmbeddingStore.open(floatPath);
+        EmbeddingStore int8Store = EmbeddingStore.open(int8Path);
+        assertEquals(DOCUMENTS, floatStore.size());
+        assertEquals(DOCUMENTS, int8Store.size());
+        assertEquals(EmbeddingStore.Encoding.INT8, int8Store.encoding());
+        long vectorBytes = (long) DOCUMENTS * DIMENSION;
+        assertTrue(Files.size(int8Path) - vectorBytes == Files.size(floatPath) - 4 * vectorBytes);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            EmbeddingScorer floatScorer = new EmbeddingScorer(floatStore, pool);
+            EmbeddingScorer int8Scorer = new EmbeddingScorer(int8Store, pool);
+            int found = 0;
+            for (int q = 0; q < 50; q++) {
+                float[] query = gaussian(random);
+                List<VectorHit> truth = exact.search(query, K);
+                List<VectorHit> floatHits = floatScorer.topK(query, K);
+                assertEquals(ids(truth), ids(floatHits));
+                assertEquals(truth.get(0).getScore(), floatHits.get(0).getScore(), 1e-4);
+
+                Set<String> expected = new HashSet<>(ids(truth));
+                for (VectorHit hit : int8Scorer.topK(query, K)) {
+                    if (expected.contains(hit.getId())) {
+                        found++;
+                    }
+                }
+                List<VectorHit> rescored = int8Scorer.score(query, ids(truth));
+                for (int i = 0; i < K; i++) {
+                    assertEquals(truth.get(i).getScore(), rescored.get(i).getScore(), 0.02);
+                }
+            }
+            assertTrue(found >= 0.9 * 50 * K, "int8 recall@10 was " + found / (50.0 * K));
+
+            List<VectorHit> neighbours = int8Scorer.neighbours("doc7", K);
+            assertEquals(K, neighbours.size());
+            assertFalse(ids(neighbours).contains("doc7"));
+            assertNull(int8Scorer.neighbours("missing", K));
+            assertEquals(List.of("doc3"), ids(floatScorer.score(gaussian(random), List.of("missing", "doc3"))));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static List<String> ids(List<VectorHit> hits) {
+        return hits.stream().map(VectorHit::getId).collect(Collectors.toList());
+    }
+
+    private static float[] gaussian(Random random) {
+        float[] vector = new float[DIMENSION];
+        for (int d = 0; d < DIMENSION; d++) {
+            vector[d] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,131 @@
+package com.irs.researchengine.vector;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Recall of the HNSW graph against exact search, with concurrent inserts and a save/load round trip.
+ */
+class HnswIndexTests {
+
+    private static final int DIMENSION = 32;
+    private static final int DOCUMENTS = 4000;
+    private static final int K = 10;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void concurrentInsertsKeepRecallAndSurviveReload() throws Exception {
+        Random random = new Random(3);
+        float[][] centers = new float[40][];
+        for (int c = 0; c < centers.length; c++) {
+            centers[c] = gaussian(random, 1f);
+        }
+        float[][] vectors = new float[DOCUMENTS][];
+        for (int i = 0; i < DOCUMENTS; i++) {
+            float[] noise = gaussian(random, 0.6f);
+            float[] center = centers[random.nextInt(centers.length)];
+            for (int d = 0; d < DIMENSION; d++) {
+                noise[d] += center[d];
+            }
+            vectors[i] = noise;
+        }
+
+        HnswIndex hnsw = new HnswIndex(DIMENSION, 16, 100, 64, 1L);
+        ExactVectorIndex exact = new ExactVectorIndex(DIMENSION);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> inserts = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int first = t;
+                inserts.add(pool.submit(() -> {
+                    for (int i = first; i < DOCUMENTS; i += 4) {
+                        hnsw.add("doc" + i, vectors[i]);
+                    }
+                }));
+            }
+            for (Future<?> insert : inserts) {
+                insert.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        for (int i = 0; i < DOCUMENTS; i++) {
+            exact.add("doc" + i, vectors[i]);
+        }
+        assertEquals(DOCUMENTS, hnsw.size());
+        assertFalse(hnsw.add("doc0", vectors[0]));
+
+        float[][] queries = new float[200][];
+        for (int q = 0; q < queries.length; q++) {
+            queries[q] = gaussian(random, 1f);
+            float[] center = centers[random.nextInt(centers.length)];
+            for (int d = 0; d < DIMENSION; d++) {
+                queries[q][d] = center[d] + 0.6f * queries[q][d];
+            }
+        }
+        double recall = recall(hnsw, exact, queries);
+        assertTrue(recall >= 0.95, "recall@10 was " + recall);
+
+        Path file = tempDir.resolve("hnsw.index");
+        hnsw.save(file);
+        HnswIndex loaded = HnswIndex.load(file, 64);
+        assertEquals(DOCUMENTS, loaded.size());
+        for (float[] query : queries) {
+            assertEquals(ids(hnsw.search(query, K)), ids(loaded.search(query, K)));
+        }
+        assertTrue(loaded.add("extra", vectors[1]));
+        assertEquals("extra", loaded.search(vectors[1], 2).stream()
+                .map(VectorHit::getId).filter(id -> id.equals("extra")).findFirst().orElse(null));
+
+        // Mapped and heap vectors are written back together, over the file that is still mapped
+        loaded.save(file);
+        HnswIndex reloaded = HnswIndex.load(file, 64);
+        assertEquals(DOCUMENTS + 1, reloaded.size());
+        for (float[] query : queries) {
+            assertEquals(ids(loaded.search(query, K)), ids(reloaded.search(query, K)));
+        }
+    }
+
+    private static double recall(VectorIndex approximate, VectorIndex exact, float[][] queries) {
+        int found = 0;
+        for (float[] query : queries) {
+            Set<String> truth = new HashSet<>(ids(exact.search(query, K)));
+            for (String id : ids(approximate.search(query, K))) {
+                if (truth.contains(id)) {
+                    found++;
+                }
+            }
+        }
+        return (double) found / (queries.length * K);
+    }
+
+    private static List<String> ids(List<VectorHit> hits) {
+        return hits.stream().map(VectorHit::getId).collect(Collectors.toList());
+    }
+
+    private static float[] gaussian(Random random, float scale) {
+        float[] vector = new float[DIMENSION];
+        for (int d = 0; d < DIMENSION; d++) {
+            vector[d] = (float) random.nextGaussian() * scale;
+        }
+        return vector;
+    }
+}